@@ -7,7 +7,7 @@ import {
   HttpErrorResponse
 } from '@angular/common/http';
 import { Observable, throwError } from 'rxjs';
-import { catchError } from 'rxjs/operators';
+import { catchError, switchMap } from 'rxjs/operators';
 import { AuthService } from '../services/auth';
 import { Router } from '@angular/router';
 
@@ -34,11 +34,34 @@ export class JwtInterceptor implements HttpInterceptor {
     return next.handle(request).pipe(
       catchError((error: HttpErrorResponse) => {
         if (error.status === 401) {
-          // Token expiré ou invalide, déconnecter l'utilisateur
+          // Token déjà renouvelé par une requête parallèle : simple nouvel essai
+          const currentToken = this.authService.getToken();
+          if (currentToken && currentToken !== token && !this.isAuthRequest(request)) {
+            return next.handle(request.clone({
+              setHeaders: { Authorization: `Bearer ${currentToken}` }
+            }));
+          }
+          // Token d'accès expiré : un seul essai de renouvellement (partagé) via le refresh token
+          if (this.authService.getRefreshToken() && !this.isAuthRequest(request)) {
+            return this.authService.refresh().pipe(
+              switchMap(response => next.handle(request.clone({
+                setHeaders: { Authorization: `Bearer ${response.token}` }
+              }))),
+              catchError(refreshError => {
+                this.authService.logout();
+                return throwError(() => refreshError);
+              })
+            );
+          }
+          // Token invalide, déconnecter l'utilisateur
           this.authService.logout();
         }
         return throwError(() => error);
       })
     );
   }
+
+  private isAuthRequest(request: HttpRequest<unknown>): boolean {
+    return /\/customers\/(login|register|refresh|logout)$/.test(request.url);
+  }
 }
\ No newline at end of file
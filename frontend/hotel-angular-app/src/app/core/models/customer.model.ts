@@ -31,4 +31,6 @@ export interface AuthResponse {
   email: string;
   firstName: string;
   lastName: string;
+  refreshToken: string;
+  expiresIn: number;
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ export interface Room {
   imageUrl?: string;
   createdAt: Date;
   updatedAt: Date;
+  version: number;
 }
 
 export interface RoomRequest {
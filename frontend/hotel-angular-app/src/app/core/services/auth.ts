@@ -2,7 +2,7 @@ import { Injectable, PLATFORM_ID, Inject } from '@angular/core';
 import { isPlatformBrowser } from '@angular/common';
 import { HttpClient } from '@angular/common/http';
 import { Router } from '@angular/router';
-import { BehaviorSubject, Observable, tap } from 'rxjs';
+import { BehaviorSubject, Observable, finalize, shareReplay, tap } from 'rxjs';
 import { environment } from '../../../environments/environment';
 
 export interface User {
@@ -21,6 +21,8 @@ export class AuthService {
   public currentUser$: Observable<User | null>;
   private apiUrl = `${environment.apiUrl}/customers`;
   private isBrowser: boolean;
+  // Renouvellement en cours, partagé par toutes les requêtes en 401 (le refresh token est à usage unique)
+  private refreshInFlight$: Observable<any> | null = null;
 
   constructor(
     private http: HttpClient,
@@ -56,6 +58,7 @@ export class AuthService {
       tap(response => {
         if (response && response.token && this.isBrowser) {
           localStorage.setItem('token', response.token);
+          localStorage.setItem('refreshToken', response.refreshToken);
           localStorage.setItem('currentUser', JSON.stringify(response.user));
           this.currentUserSubject.next(response.user);
         }
@@ -68,6 +71,7 @@ export class AuthService {
       tap(response => {
         if (response && response.token && this.isBrowser) {
           localStorage.setItem('token', response.token);
+          localStorage.setItem('refreshToken', response.refreshToken);
           localStorage.setItem('currentUser', JSON.stringify(response.user));
           this.currentUserSubject.next(response.user);
         }
@@ -75,8 +79,32 @@ export class AuthService {
     );
   }
 
+  // Renouvelle le token d'accès avec le refresh token (usage unique, tourné à chaque appel).
+  // Les appels simultanés partagent le même renouvellement : un second envoi du même refresh
+  // token serait vu comme une réutilisation et révoquerait toute la famille côté serveur.
+  refresh(): Observable<any> {
+    if (!this.refreshInFlight$) {
+      this.refreshInFlight$ = this.http.post<any>(`${this.apiUrl}/refresh`, { refreshToken: this.getRefreshToken() }).pipe(
+        tap(response => {
+          if (response && response.token && this.isBrowser) {
+            localStorage.setItem('token', response.token);
+            localStorage.setItem('refreshToken', response.refreshToken);
+          }
+        }),
+        finalize(() => this.refreshInFlight$ = null),
+        shareReplay(1)
+      );
+    }
+    return this.refreshInFlight$;
+  }
+
   logout(): void {
     if (this.isBrowser) {
+      const refreshToken = this.getRefreshToken();
+      if (refreshToken) {
+        this.http.post(`${this.apiUrl}/logout`, { refreshToken }).subscribe({ error: () => {} });
+      }
+      localStorage.removeItem('refreshToken');
       localStorage.removeItem('token');
       localStorage.removeItem('currentUser');
     }
@@ -91,6 +119,13 @@ export class AuthService {
     return null;
   }
 
+  getRefreshToken(): string | null {
+    if (this.isBrowser) {
+      return localStorage.getItem('refreshToken');
+    }
+    return null;
+  }
+
   isAuthenticated(): boolean {
     if (!this.isBrowser) {
       return false;
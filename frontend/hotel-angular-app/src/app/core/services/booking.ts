@@ -2,6 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { environment } from '../../../environments/environment';
+import { getPage, Page } from './pagination';
 import { Booking, BookingRequest } from '../models/booking.model';
 
 @Injectable({
@@ -12,20 +13,21 @@ export class BookingService {
 
   constructor(private http: HttpClient) {}
 
-  getAllBookings(): Observable<Booking[]> {
-    return this.http.get<Booking[]>(this.apiUrl);
+  // Listes paginées côté serveur : une page par appel, la suivante avec le nextCursor reçu
+  getBookings(cursor: string | null = null): Observable<Page<Booking>> {
+    return getPage<Booking>(this.http, this.apiUrl, cursor);
   }
 
   getBookingById(id: number): Observable<Booking> {
     return this.http.get<Booking>(`${this.apiUrl}/${id}`);
   }
 
-  getBookingsByCustomer(customerId: number): Observable<Booking[]> {
-    return this.http.get<Booking[]>(`${this.apiUrl}/customer/${customerId}`);
+  getBookingsByCustomer(customerId: number, cursor: string | null = null): Observable<Page<Booking>> {
+    return getPage<Booking>(this.http, `${this.apiUrl}/customer/${customerId}`, cursor);
   }
 
-  getBookingsByRoom(roomId: number): Observable<Booking[]> {
-    return this.http.get<Booking[]>(`${this.apiUrl}/room/${roomId}`);
+  getBookingsByRoom(roomId: number, cursor: string | null = null): Observable<Page<Booking>> {
+    return getPage<Booking>(this.http, `${this.apiUrl}/room/${roomId}`, cursor);
   }
 
   createBooking(request: BookingRequest): Observable<Booking> {
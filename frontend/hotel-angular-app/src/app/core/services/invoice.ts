@@ -2,6 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { environment } from '../../../environments/environment';
+import { getPage, Page } from './pagination';
 import { Invoice, PaymentRequest } from '../models/invoice.model';
 
 @Injectable({
@@ -12,8 +13,13 @@ export class InvoiceService {
 
   constructor(private http: HttpClient) {}
 
-  getAllInvoices(): Observable<Invoice[]> {
-    return this.http.get<Invoice[]>(this.apiUrl);
+  // Listes paginées côté serveur : une page par appel, la suivante avec le nextCursor reçu
+  getInvoices(cursor: string | null = null): Observable<Page<Invoice>> {
+    return getPage<Invoice>(this.http, this.apiUrl, cursor);
+  }
+
+  getInvoicesByStatus(status: string, cursor: string | null = null): Observable<Page<Invoice>> {
+    return getPage<Invoice>(this.http, `${this.apiUrl}/status/${status}`, cursor);
   }
 
   getInvoiceById(id: number): Observable<Invoice> {
@@ -24,8 +30,8 @@ export class InvoiceService {
     return this.http.get<Invoice>(`${this.apiUrl}/booking/${bookingId}`);
   }
 
-  getInvoicesByCustomer(customerId: number): Observable<Invoice[]> {
-    return this.http.get<Invoice[]>(`${this.apiUrl}/customer/${customerId}`);
+  getInvoicesByCustomer(customerId: number, cursor: string | null = null): Observable<Page<Invoice>> {
+    return getPage<Invoice>(this.http, `${this.apiUrl}/customer/${customerId}`, cursor);
   }
 
   processPayment(id: number, request: PaymentRequest): Observable<Invoice> {
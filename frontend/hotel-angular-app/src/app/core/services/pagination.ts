@@ -0,0 +1,33 @@
+import { HttpClient, HttpParams } from '@angular/common/http';
+import { Observable } from 'rxjs';
+import { map } from 'rxjs/operators';
+
+// Curseur de la page suivante renvoyé par les listes paginées (absent sur la dernière page)
+export const NEXT_CURSOR_HEADER = 'X-Next-Cursor';
+// Taille par défaut des services : les pages suivantes ne sont chargées qu'à la demande
+export const PAGE_SIZE = 50;
+
+/**
+ * Page d'une liste paginée par curseur ; nextCursor est null sur la dernière page
+ */
+export interface Page<T> {
+  items: T[];
+  nextCursor: string | null;
+}
+
+/**
+ * Récupère une seule page ; passer le nextCursor reçu pour obtenir la suivante
+ */
+export function getPage<T>(http: HttpClient, url: string, cursor: string | null = null,
+                           params: Record<string, string> = {}): Observable<Page<T>> {
+  let httpParams = new HttpParams({ fromObject: params }).set('size', PAGE_SIZE);
+  if (cursor) {
+    httpParams = httpParams.set('cursor', cursor);
+  }
+  return http.get<T[]>(url, { params: httpParams, observe: 'response' }).pipe(
+    map(response => ({
+      items: response.body ?? [],
+      nextCursor: response.headers.get(NEXT_CURSOR_HEADER)
+    }))
+  );
+}
@@ -2,6 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { environment } from '../../../environments/environment';
+import { getPage, Page } from './pagination';
 import { Room, RoomRequest, RoomStatus, RoomType } from '../models/room.model';
 
 @Injectable({
@@ -12,29 +13,31 @@ export class RoomService {
 
   constructor(private http: HttpClient) {}
 
-  getAllRooms(): Observable<Room[]> {
-    return this.http.get<Room[]>(this.apiUrl);
+  // Listes paginées côté serveur : une page par appel, la suivante avec le nextCursor reçu
+  getRooms(cursor: string | null = null): Observable<Page<Room>> {
+    return getPage<Room>(this.http, this.apiUrl, cursor);
   }
 
   getRoomById(id: number): Observable<Room> {
     return this.http.get<Room>(`${this.apiUrl}/${id}`);
   }
 
-  getRoomsByStatus(status: RoomStatus): Observable<Room[]> {
-    return this.http.get<Room[]>(`${this.apiUrl}/status/${status}`);
+  getRoomsByStatus(status: RoomStatus, cursor: string | null = null): Observable<Page<Room>> {
+    return getPage<Room>(this.http, `${this.apiUrl}/status/${status}`, cursor);
   }
 
-  getRoomsByType(type: RoomType): Observable<Room[]> {
-    return this.http.get<Room[]>(`${this.apiUrl}/type/${type}`);
+  getRoomsByType(type: RoomType, cursor: string | null = null): Observable<Page<Room>> {
+    return getPage<Room>(this.http, `${this.apiUrl}/type/${type}`, cursor);
   }
 
-  getAvailableRoomsByType(type: RoomType): Observable<Room[]> {
-    return this.http.get<Room[]>(`${this.apiUrl}/available/${type}`);
+  getAvailableRoomsByType(type: RoomType, cursor: string | null = null): Observable<Page<Room>> {
+    return getPage<Room>(this.http, `${this.apiUrl}/available/${type}`, cursor);
   }
 
-  getRoomsByPriceRange(minPrice: number, maxPrice: number): Observable<Room[]> {
-    return this.http.get<Room[]>(`${this.apiUrl}/price-range`, {
-      params: { minPrice: minPrice.toString(), maxPrice: maxPrice.toString() }
+  getRoomsByPriceRange(minPrice: number, maxPrice: number,
+                       cursor: string | null = null): Observable<Page<Room>> {
+    return getPage<Room>(this.http, `${this.apiUrl}/price-range`, cursor, {
+      minPrice: minPrice.toString(), maxPrice: maxPrice.toString()
     });
   }
 
@@ -42,7 +42,10 @@ import { Booking } from '../../../core/models/booking.model';
 export class BookingListComponent implements OnInit {
   bookings: Booking[] = [];
   filteredBookings: Booking[] = [];
+  // Curseur de la page suivante, null quand tout est chargé
+  nextCursor: string | null = null;
   loading = true;
+  loadingMore = false;
   selectedStatus: string = 'ALL';
 
   displayedColumns: string[] = ['roomNumber', 'dates', 'guests', 'totalPrice', 'status', 'actions'];
@@ -58,20 +61,36 @@ export class BookingListComponent implements OnInit {
 
   loadBookings(): void {
     this.loading = true;
-    
-    // Charger les réservations du client connecté
+    this.bookings = [];
+    this.nextCursor = null;
+    this.fetchPage(null);
+  }
+
+  loadMore(): void {
+    if (!this.nextCursor || this.loadingMore) {
+      return;
+    }
+    this.loadingMore = true;
+    this.fetchPage(this.nextCursor);
+  }
+
+  private fetchPage(cursor: string | null): void {
+    // Charger les réservations du client connecté, une page à la fois
     const customerId = 1; // TODO: Récupérer depuis le service d'authentification
     
-    this.bookingService.getBookingsByCustomer(customerId).subscribe({
-      next: (bookings) => {
-        this.bookings = bookings;
+    this.bookingService.getBookingsByCustomer(customerId, cursor).subscribe({
+      next: (page) => {
+        this.bookings = this.bookings.concat(page.items);
+        this.nextCursor = page.nextCursor;
         this.applyFilter();
         this.loading = false;
+        this.loadingMore = false;
       },
       error: (error) => {
         console.error('Erreur chargement réservations:', error);
         this.showMessage('Erreur lors du chargement des réservations');
         this.loading = false;
+        this.loadingMore = false;
       }
     });
   }
@@ -1,4 +1,4 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
 import { CommonModule, DatePipe, DecimalPipe } from '@angular/common';
 import { FormsModule } from '@angular/forms';
 import { RouterModule } from '@angular/router';
@@ -15,6 +15,7 @@ import { MatMenuModule } from '@angular/material/menu';
 import { MatProgressSpinnerModule } from '@angular/material/progress-spinner';
 import { MatSnackBar, MatSnackBarModule } from '@angular/material/snack-bar';
 import { MatDialog, MatDialogModule } from '@angular/material/dialog';
+import { Subscription } from 'rxjs';
 
 // Services et modèles
 import { InvoiceService } from '../../../core/services/invoice';
@@ -43,11 +44,14 @@ import { Invoice } from '../../../core/models/invoice.model';
   templateUrl: './invoice-list.html',
   styleUrls: ['./invoice-list.scss']
 })
-export class InvoiceListComponent implements OnInit {
+export class InvoiceListComponent implements OnInit, OnDestroy {
   invoices: Invoice[] = [];
-  filteredInvoices: Invoice[] = [];
+  // Curseur de la page suivante, null quand tout est chargé
+  nextCursor: string | null = null;
   loading = true;
+  loadingMore = false;
   selectedStatus: string = 'ALL';
+  private pageRequest?: Subscription;
 
   displayedColumns: string[] = ['invoiceNumber', 'bookingId', 'dates', 'amount', 'status', 'actions'];
 
@@ -61,35 +65,51 @@ export class InvoiceListComponent implements OnInit {
     this.loadInvoices();
   }
 
+  ngOnDestroy(): void {
+    this.pageRequest?.unsubscribe();
+  }
+
+  // Première page ; le filtre de statut est appliqué par billing-service
   loadInvoices(): void {
     this.loading = true;
-    this.invoiceService.getAllInvoices().subscribe({
-      next: (invoices) => {
-        this.invoices = invoices;
-        this.applyFilter();
+    this.invoices = [];
+    this.nextCursor = null;
+    this.fetchPage(null);
+  }
+
+  loadMore(): void {
+    if (!this.nextCursor || this.loadingMore) {
+      return;
+    }
+    this.loadingMore = true;
+    this.fetchPage(this.nextCursor);
+  }
+
+  onStatusChange(): void {
+    this.loadInvoices();
+  }
+
+  private fetchPage(cursor: string | null): void {
+    // Une page en cours pour l'ancien filtre ne doit pas s'ajouter à la nouvelle liste
+    this.pageRequest?.unsubscribe();
+    const page$ = this.selectedStatus === 'ALL'
+      ? this.invoiceService.getInvoices(cursor)
+      : this.invoiceService.getInvoicesByStatus(this.selectedStatus, cursor);
+    this.pageRequest = page$.subscribe({
+      next: (page) => {
+        this.invoices = this.invoices.concat(page.items);
+        this.nextCursor = page.nextCursor;
         this.loading = false;
+        this.loadingMore = false;
       },
       error: () => {
         this.loading = false;
+        this.loadingMore = false;
         this.showMessage('Erreur lors du chargement des factures');
       }
     });
   }
 
-  applyFilter(): void {
-    if (this.selectedStatus === 'ALL') {
-      this.filteredInvoices = this.invoices;
-    } else {
-      this.filteredInvoices = this.invoices.filter(
-        invoice => invoice.status === this.selectedStatus
-      );
-    }
-  }
-
-  onStatusChange(): void {
-    this.applyFilter();
-  }
-
   getStatusLabel(status: string): string {
     const labels: { [key: string]: string } = {
       'PENDING': 'En attente',
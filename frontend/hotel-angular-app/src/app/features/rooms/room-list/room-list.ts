@@ -10,6 +10,7 @@ import { MatSelectModule } from '@angular/material/select';
 import { MatInputModule } from '@angular/material/input';
 import { MatSliderModule } from '@angular/material/slider';
 import { MatIconModule } from '@angular/material/icon';
+import { MatButtonModule } from '@angular/material/button';
 import { MatProgressSpinnerModule } from '@angular/material/progress-spinner';
 
 // Services et modèles
@@ -31,6 +32,7 @@ import { RoomCardComponent } from '../room-card/room-card';
     MatInputModule,
     MatSliderModule,
     MatIconModule,
+    MatButtonModule,
     MatProgressSpinnerModule,
     RoomCardComponent // Importer le composant enfant !
   ],
@@ -40,7 +42,10 @@ import { RoomCardComponent } from '../room-card/room-card';
 export class RoomListComponent implements OnInit {
   rooms: Room[] = [];
   filteredRooms: Room[] = [];
+  // Curseur de la page suivante, null quand tout est chargé
+  nextCursor: string | null = null;
   loading = true;
+  loadingMore = false;
 
   selectedType: string = 'ALL';
   selectedStatus: string = 'AVAILABLE';
@@ -65,14 +70,32 @@ export class RoomListComponent implements OnInit {
 
   loadRooms(): void {
     this.loading = true;
-    this.roomService.getAllRooms().subscribe({
-      next: (rooms) => {
-        this.rooms = rooms;
+    this.rooms = [];
+    this.nextCursor = null;
+    this.fetchPage(null);
+  }
+
+  loadMore(): void {
+    if (!this.nextCursor || this.loadingMore) {
+      return;
+    }
+    this.loadingMore = true;
+    this.fetchPage(this.nextCursor);
+  }
+
+  // Les filtres portent sur les pages déjà chargées
+  private fetchPage(cursor: string | null): void {
+    this.roomService.getRooms(cursor).subscribe({
+      next: (page) => {
+        this.rooms = this.rooms.concat(page.items);
+        this.nextCursor = page.nextCursor;
         this.applyFilters();
         this.loading = false;
+        this.loadingMore = false;
       },
       error: () => {
         this.loading = false;
+        this.loadingMore = false;
       }
     });
   }
@@ -4,9 +4,9 @@ import com.hotel.demapi_gatewayo.dto.DashboardStatsDTO;
 import com.hotel.demapi_gatewayo.service.DashboardAggregatorService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/dashboard")
@@ -18,29 +18,15 @@ public class GatewayDashboardController {
     private final DashboardAggregatorService dashboardService;
 
     /**
-     * Récupère les statistiques agrégées du dashboard
+     * Récupère les statistiques agrégées du dashboard (snapshot en cache,
+     * fraîcheur indiquée par champ dans "freshness")
      * GET /api/dashboard/stats
      */
     @GetMapping("/stats")
-    public ResponseEntity<DashboardStatsDTO> getDashboardStats() {
-        try {
-            log.info("Fetching dashboard statistics");
-            DashboardStatsDTO stats = dashboardService.aggregateStats();
-            return ResponseEntity.ok(stats);
-        } catch (Exception e) {
-            log.error("Error fetching dashboard stats: {}", e.getMessage(), e);
-            
-            // Retourner des statistiques par défaut avec un statut 200
-            // (L'utilisateur voit au moins quelque chose)
-            DashboardStatsDTO defaultStats = DashboardStatsDTO.builder()
-                .totalBookings(0L)
-                .pendingBookings(0L)
-                .totalInvoices(0L)
-                .availableRooms(0L)
-                .build();
-            
-            return ResponseEntity.ok(defaultStats);
-        }
+    public Mono<ResponseEntity<DashboardStatsDTO>> getDashboardStats() {
+        log.debug("Fetching dashboard statistics");
+        return dashboardService.aggregateStats()
+            .map(ResponseEntity::ok);
     }
 
     /**
@@ -61,4 +47,4 @@ public class GatewayDashboardController {
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Dashboard service is UP");
     }
-}
\ No newline at end of file
+}
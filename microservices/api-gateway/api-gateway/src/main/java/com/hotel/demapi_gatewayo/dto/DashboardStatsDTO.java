@@ -5,6 +5,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+import java.util.Map;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -14,4 +17,14 @@ public class DashboardStatsDTO {
     private Long pendingBookings;
     private Long totalInvoices;
     private Long availableRooms;
-}
\ No newline at end of file
+    private Long totalRooms;
+    private BigDecimal totalRevenue;
+    private BigDecimal outstandingAmount;
+    
+    private Map<String, Long> bookingsByStatus;
+    private Map<String, Long> roomsByStatus;
+    private Map<String, Long> invoicesByStatus;
+    
+    // Fraîcheur par champ (clé = nom du champ ci-dessus)
+    private Map<String, StatFreshnessDTO> freshness;
+}
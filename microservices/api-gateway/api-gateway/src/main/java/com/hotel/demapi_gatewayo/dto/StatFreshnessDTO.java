@@ -0,0 +1,18 @@
+package com.hotel.demapi_gatewayo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatFreshnessDTO {
+    private StatStatus status;
+    private Instant fetchedAt;
+    private String error;
+}
@@ -0,0 +1,10 @@
+package com.hotel.demapi_gatewayo.dto;
+
+/**
+ * Fraîcheur d'une statistique du dashboard
+ */
+public enum StatStatus {
+    FRESH,   // récupérée il y a moins que le TTL
+    STALE,   // dernière valeur connue, rafraîchissement en retard ou en échec
+    FAILED   // aucune valeur disponible
+}
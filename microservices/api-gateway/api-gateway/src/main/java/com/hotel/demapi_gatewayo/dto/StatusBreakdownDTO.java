@@ -0,0 +1,26 @@
+package com.hotel.demapi_gatewayo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Réponse des endpoints /stats des microservices (les montants ne sont
+ * renseignés que par billing-service)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusBreakdownDTO {
+    private Long total;
+    private Map<String, Long> byStatus;
+    private BigDecimal totalRevenue;
+    private BigDecimal outstandingAmount;
+    
+    public Long countOf(String status) {
+        return byStatus == null ? null : byStatus.getOrDefault(status, 0L);
+    }
+}
@@ -0,0 +1,126 @@
+package com.hotel.demapi_gatewayo.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentification en bordure : le JWT est validé localement (aucun appel à customer-service)
+ * avant le routage. Le sujet vérifié est transmis aux services dans X-Authenticated-User
+ * (informatif : l'en-tête Authorization est relayé tel quel et les services qui authentifient
+ * revérifient le JWT) ; toute valeur de cet en-tête fournie par le client est supprimée.
+ */
+@Component
+@Slf4j
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+    public static final String AUTHENTICATED_USER_HEADER = "X-Authenticated-User";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtVerifier jwtVerifier;
+    private final MeterRegistry meterRegistry;
+    private final List<String> publicPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public JwtAuthenticationFilter(JwtVerifier jwtVerifier,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${gateway.auth.public-paths:/api/customers/register,/api/customers/login,/api/customers/refresh,/api/customers/logout,/actuator/**}")
+                                   List<String> publicPaths) {
+        this.jwtVerifier = jwtVerifier;
+        this.meterRegistry = meterRegistry;
+        this.publicPaths = publicPaths;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+
+        if (request.getMethod() == HttpMethod.OPTIONS || isPublic(path)) {
+            record(exchange, "public", start);
+            return chain.filter(withoutIdentity(exchange));
+        }
+
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            record(exchange, "missing", start);
+            return reject(exchange);
+        }
+
+        Claims claims;
+        try {
+            claims = jwtVerifier.verify(authHeader.substring(BEARER_PREFIX.length()));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected token on {}: {}", path, e.getMessage());
+            record(exchange, "rejected", start);
+            return reject(exchange);
+        }
+
+        record(exchange, "authenticated", start);
+        ServerHttpRequest authenticated = request.mutate()
+            .headers(headers -> headers.set(AUTHENTICATED_USER_HEADER, claims.getSubject()))
+            .build();
+        return chain.filter(exchange.mutate().request(authenticated).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // Avant le routage vers les services (LoadBalancer, NettyRouting)
+        return Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+
+    private boolean isPublic(String path) {
+        return publicPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private static ServerWebExchange withoutIdentity(ServerWebExchange exchange) {
+        if (!exchange.getRequest().getHeaders().containsKey(AUTHENTICATED_USER_HEADER)) {
+            return exchange;
+        }
+        ServerHttpRequest request = exchange.getRequest().mutate()
+            .headers(headers -> headers.remove(AUTHENTICATED_USER_HEADER))
+            .build();
+        return exchange.mutate().request(request).build();
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        return response.setComplete();
+    }
+
+    /**
+     * Latence de l'authentification seule (hors appel au service), par route et par issue
+     */
+    private void record(ServerWebExchange exchange, String outcome, long start) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Timer.builder("gateway.auth.latency")
+            .description("JWT validation time at the gateway")
+            .tag("route", route != null ? route.getId() : "unknown")
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,111 @@
+package com.hotel.demapi_gatewayo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vérification locale des JWT émis par customer-service (HMAC partagé), sans appel réseau.
+ * Purement CPU : peut s'exécuter sur la boucle d'événements. Les tokens déjà vérifiés
+ * sont gardés en cache (empreinte SHA-256) jusqu'à leur expiration.
+ */
+@Component
+public class JwtVerifier {
+
+    private final Clock clock;
+    private final JwtParser parser;
+    private final Cache<String, Claims> verifiedTokens;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    @Autowired
+    public JwtVerifier(@Value("${jwt.secret}") String secretKey,
+                       @Value("${jwt.verified-cache.max-size:10000}") long maxCachedTokens,
+                       MeterRegistry meterRegistry) {
+        this(secretKey, maxCachedTokens, Clock.systemUTC());
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "gateway-verified-tokens");
+    }
+
+    JwtVerifier(String secretKey, long maxCachedTokens, Clock clock) {
+        this.clock = clock;
+        this.parser = Jwts.parser()
+            .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+            .clock(() -> Date.from(clock.instant()))
+            .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(maxCachedTokens)
+            .expireAfter(new Expiry<String, Claims>() {
+                @Override
+                public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                    return remainingNanos(claims);
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                    return remainingNanos(claims);
+                }
+
+                @Override
+                public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Claims du token si signature et expiration sont valides.
+     * @throws io.jsonwebtoken.JwtException sinon
+     */
+    public Claims verify(String token) {
+        String key = fingerprint(token);
+        Claims cached = verifiedTokens.getIfPresent(key);
+        // L'expiration Caffeine est approximative : on revérifie l'exp à la lecture
+        if (cached != null && cached.getExpiration().toInstant().isAfter(clock.instant())) {
+            return cached;
+        }
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        // Les tokens sans exp ne sont pas acceptés en bordure
+        if (claims.getExpiration() == null) {
+            throw new MalformedJwtException("Token without expiration");
+        }
+        verifiedTokens.put(key, claims);
+        return claims;
+    }
+
+    private long remainingNanos(Claims claims) {
+        long remainingMillis = claims.getExpiration().getTime() - clock.millis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+    }
+
+    private static String fingerprint(String token) {
+        MessageDigest digest = SHA_256.get();
+        return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -1,92 +1,219 @@
 package com.hotel.demapi_gatewayo.service;
 
 import com.hotel.demapi_gatewayo.dto.DashboardStatsDTO;
-import lombok.RequiredArgsConstructor;
+import com.hotel.demapi_gatewayo.dto.StatFreshnessDTO;
+import com.hotel.demapi_gatewayo.dto.StatStatus;
+import com.hotel.demapi_gatewayo.dto.StatusBreakdownDTO;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
+import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Agrégation des statistiques du dashboard en stale-while-revalidate :
+ * un snapshot partagé est servi immédiatement, et rafraîchi en arrière-plan
+ * dès qu'il dépasse le TTL. Les rafraîchissements concurrents sont fusionnés.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class DashboardAggregatorService {
 
+    static final String BOOKINGS = "bookings";
+    static final String INVOICES = "invoices";
+    static final String ROOMS = "rooms";
+
+    // Un seul appel /stats par service (une requête GROUP BY chacun)
+    private static final Map<String, String> STAT_URLS = Map.of(
+        BOOKINGS, "http://booking-service/api/bookings/stats",
+        INVOICES, "http://billing-service/api/billing/invoices/stats",
+        ROOMS, "http://room-service/api/rooms/stats"
+    );
+
+    // Source de chaque champ du DashboardStatsDTO, pour la fraîcheur par champ
+    private static final Map<String, String> FIELD_SOURCES = new TreeMap<>(Map.of(
+        "totalBookings", BOOKINGS,
+        "pendingBookings", BOOKINGS,
+        "bookingsByStatus", BOOKINGS,
+        "totalInvoices", INVOICES,
+        "totalRevenue", INVOICES,
+        "outstandingAmount", INVOICES,
+        "invoicesByStatus", INVOICES,
+        "availableRooms", ROOMS,
+        "totalRooms", ROOMS,
+        "roomsByStatus", ROOMS
+    ));
+
     private final WebClient.Builder webClientBuilder;
-    
-    private static final Duration TIMEOUT = Duration.ofSeconds(5);
-
-    public DashboardStatsDTO aggregateStats() {
-        log.info("Aggregating dashboard statistics from all microservices");
-        
-        // ✅ Correction 1: Utiliser /count/status/PENDING au lieu de /count/pending
-        Mono<Long> totalBookingsMono = fetchStat(
-            "http://booking-service/api/bookings/count",
-            "Total Bookings"
-        );
-
-        Mono<Long> pendingBookingsMono = fetchStat(
-            "http://booking-service/api/bookings/count/status/PENDING",
-            "Pending Bookings"
-        );
-
-        // ✅ Correction 2: Nom correct du service (billing-service, pas invoice-service)
-        Mono<Long> totalInvoicesMono = fetchStat(
-            "http://billing-service/api/billing/count",
-            "Total Invoices"
-        );
-
-        Mono<Long> availableRoomsMono = fetchStat(
-            "http://room-service/api/rooms/count/available",
-            "Available Rooms"
-        );
-
-        // Combiner tous les résultats en parallèle
-        return Mono.zip(totalBookingsMono, pendingBookingsMono, 
-                       totalInvoicesMono, availableRoomsMono)
-            .map(tuple -> {
-                DashboardStatsDTO stats = DashboardStatsDTO.builder()
-                    .totalBookings(tuple.getT1())
-                    .pendingBookings(tuple.getT2())
-                    .totalInvoices(tuple.getT3())
-                    .availableRooms(tuple.getT4())
-                    .build();
-                
-                log.info("Dashboard stats aggregated successfully: {}", stats);
-                return stats;
-            })
-            .doOnError(error -> log.error("Error aggregating dashboard stats", error))
-            .onErrorReturn(getDefaultStats())
-            .block(TIMEOUT);
+    private final Duration ttl;
+    private final Duration fetchTimeout;
+    private final Clock clock;
+
+    private final AtomicReference<Map<String, StatValue>> snapshot = new AtomicReference<>(Map.of());
+    private final AtomicReference<Mono<Map<String, StatValue>>> inFlight = new AtomicReference<>();
+
+    @Autowired
+    public DashboardAggregatorService(WebClient.Builder webClientBuilder,
+                                      @Value("${dashboard.stats.ttl:10s}") Duration ttl,
+                                      @Value("${dashboard.stats.fetch-timeout:5s}") Duration fetchTimeout) {
+        this(webClientBuilder, ttl, fetchTimeout, Clock.systemUTC());
     }
-    
+
+    DashboardAggregatorService(WebClient.Builder webClientBuilder, Duration ttl,
+                               Duration fetchTimeout, Clock clock) {
+        this.webClientBuilder = webClientBuilder;
+        this.ttl = ttl;
+        this.fetchTimeout = fetchTimeout;
+        this.clock = clock;
+    }
+
     /**
-     * Méthode générique pour récupérer une statistique
+     * Statistiques du dashboard, sans jamais bloquer le thread appelant.
+     * Seul le tout premier appel attend la récupération ; les suivants reçoivent
+     * le snapshot courant et déclenchent un rafraîchissement s'il a expiré.
      */
-    private Mono<Long> fetchStat(String url, String statName) {
+    public Mono<DashboardStatsDTO> aggregateStats() {
+        Map<String, StatValue> current = snapshot.get();
+        if (current.isEmpty()) {
+            return refresh().map(this::toDTO);
+        }
+        if (isExpired(current)) {
+            refresh().subscribe();
+        }
+        return Mono.just(toDTO(current));
+    }
+
+    /**
+     * Lance un rafraîchissement, ou rejoint celui déjà en cours
+     */
+    Mono<Map<String, StatValue>> refresh() {
+        while (true) {
+            Mono<Map<String, StatValue>> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            Sinks.One<Map<String, StatValue>> sink = Sinks.one();
+            Mono<Map<String, StatValue>> candidate = sink.asMono();
+            if (inFlight.compareAndSet(null, candidate)) {
+                // Libérer avant d'émettre : un appel suivant relancera bien un nouveau fetch
+                fetchAll().subscribe(
+                    values -> {
+                        inFlight.compareAndSet(candidate, null);
+                        sink.tryEmitValue(values);
+                    },
+                    error -> {
+                        inFlight.compareAndSet(candidate, null);
+                        sink.tryEmitError(error);
+                    });
+                return candidate;
+            }
+        }
+    }
+
+    private Mono<Map<String, StatValue>> fetchAll() {
+        log.debug("Refreshing dashboard statistics from all microservices");
+        Map<String, StatValue> previous = snapshot.get();
+
+        // Tous les appels partent en parallèle ; un échec n'affecte que son champ
+        return Flux.fromIterable(STAT_URLS.entrySet())
+            .flatMap(entry -> fetchStat(entry.getKey(), entry.getValue(), previous.get(entry.getKey()))
+                .map(value -> Map.entry(entry.getKey(), value)))
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+            .map(values -> {
+                Map<String, StatValue> updated = Map.copyOf(values);
+                snapshot.set(updated);
+                return updated;
+            });
+    }
+
+    /**
+     * Récupère une statistique ; en cas d'échec, conserve la dernière valeur connue
+     */
+    private Mono<StatValue> fetchStat(String statName, String url, StatValue previous) {
         return webClientBuilder.build()
             .get()
             .uri(url)
             .retrieve()
-            .bodyToMono(Long.class)
-            .timeout(TIMEOUT)
+            .bodyToMono(StatusBreakdownDTO.class)
+            .timeout(fetchTimeout)
+            .map(value -> new StatValue(value, clock.instant(), clock.instant(), null))
             .doOnSuccess(value -> log.debug("{}: {}", statName, value))
-            .doOnError(error -> log.error("Failed to fetch {}: {}", statName, error.getMessage()))
-            .onErrorReturn(0L);
+            .onErrorResume(error -> {
+                log.error("Failed to fetch {}: {}", statName, error.getMessage());
+                String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+                return Mono.just(previous == null
+                    ? new StatValue(null, null, clock.instant(), message)
+                    : new StatValue(previous.value(), previous.fetchedAt(), clock.instant(), message));
+            });
     }
-    
-    /**
-     * Retourne des statistiques par défaut en cas d'erreur
-     */
-    private DashboardStatsDTO getDefaultStats() {
-        log.warn("Returning default stats due to errors");
+
+    // Basé sur la dernière tentative : un service en panne n'est pas réinterrogé à chaque requête
+    private boolean isExpired(Map<String, StatValue> values) {
+        Instant limit = clock.instant().minus(ttl);
+        return values.values().stream()
+            .anyMatch(value -> value.attemptedAt().isBefore(limit));
+    }
+
+    private DashboardStatsDTO toDTO(Map<String, StatValue> values) {
+        Instant limit = clock.instant().minus(ttl);
+        Map<String, StatFreshnessDTO> freshness = new LinkedHashMap<>();
+        FIELD_SOURCES.forEach((field, source) -> {
+            StatValue value = values.get(source);
+            freshness.put(field, StatFreshnessDTO.builder()
+                .status(statusOf(value, limit))
+                .fetchedAt(value == null ? null : value.fetchedAt())
+                .error(value == null ? null : value.error())
+                .build());
+        });
+
+        StatusBreakdownDTO bookings = valueOf(values, BOOKINGS);
+        StatusBreakdownDTO invoices = valueOf(values, INVOICES);
+        StatusBreakdownDTO rooms = valueOf(values, ROOMS);
         return DashboardStatsDTO.builder()
-            .totalBookings(0L)
-            .pendingBookings(0L)
-            .totalInvoices(0L)
-            .availableRooms(0L)
+            .totalBookings(bookings == null ? null : bookings.getTotal())
+            .pendingBookings(bookings == null ? null : bookings.countOf("PENDING"))
+            .bookingsByStatus(bookings == null ? null : bookings.getByStatus())
+            .totalInvoices(invoices == null ? null : invoices.getTotal())
+            .totalRevenue(invoices == null ? null : invoices.getTotalRevenue())
+            .outstandingAmount(invoices == null ? null : invoices.getOutstandingAmount())
+            .invoicesByStatus(invoices == null ? null : invoices.getByStatus())
+            .availableRooms(rooms == null ? null : rooms.countOf("AVAILABLE"))
+            .totalRooms(rooms == null ? null : rooms.getTotal())
+            .roomsByStatus(rooms == null ? null : rooms.getByStatus())
+            .freshness(freshness)
             .build();
     }
-}
\ No newline at end of file
+
+    private static StatStatus statusOf(StatValue value, Instant limit) {
+        if (value == null || value.value() == null) {
+            return StatStatus.FAILED;
+        }
+        if (value.error() != null || value.fetchedAt().isBefore(limit)) {
+            return StatStatus.STALE;
+        }
+        return StatStatus.FRESH;
+    }
+
+    private static StatusBreakdownDTO valueOf(Map<String, StatValue> values, String name) {
+        StatValue value = values.get(name);
+        return value == null ? null : value.value();
+    }
+
+    /**
+     * Dernière valeur connue d'une statistique ; error est renseigné si la
+     * dernière tentative a échoué
+     */
+    record StatValue(StatusBreakdownDTO value, Instant fetchedAt, Instant attemptedAt, String error) {
+    }
+}
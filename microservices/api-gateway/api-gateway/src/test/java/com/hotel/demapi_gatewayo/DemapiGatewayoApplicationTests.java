@@ -3,7 +3,7 @@ package com.hotel.demapi_gatewayo;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "jwt.secret=5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437")
 class DemapiGatewayoApplicationTests {
 
 	@Test
@@ -0,0 +1,99 @@
+package com.hotel.demapi_gatewayo.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(
+        new JwtVerifier(SECRET, 100, Clock.systemUTC()),
+        meterRegistry,
+        List.of("/api/customers/login", "/actuator/**")
+    );
+
+    private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange);
+        return Mono.empty();
+    };
+
+    @Test
+    void validTokenIsForwardedWithVerifiedSubject() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/bookings")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("alice@example.com", Duration.ofHours(1)))
+            .header(JwtAuthenticationFilter.AUTHENTICATED_USER_HEADER, "mallory@example.com"));
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(forwarded.get().getRequest().getHeaders().get(JwtAuthenticationFilter.AUTHENTICATED_USER_HEADER))
+            .containsExactly("alice@example.com");
+        assertThat(meterRegistry.get("gateway.auth.latency").tag("outcome", "authenticated").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void missingExpiredOrForgedTokensAreRejectedBeforeRouting() {
+        String forged = Jwts.builder()
+            .subject("alice@example.com")
+            .expiration(Date.from(Instant.now().plus(Duration.ofHours(1))))
+            .signWith(Keys.hmacShaKeyFor(new byte[32]), Jwts.SIG.HS256)
+            .compact();
+
+        for (String authorization : new String[]{null, "Bearer " + forged,
+                "Bearer " + token("alice@example.com", Duration.ofHours(-1)), "Bearer not-a-jwt"}) {
+            MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/rooms");
+            if (authorization != null) {
+                request.header(HttpHeaders.AUTHORIZATION, authorization);
+            }
+            MockServerWebExchange exchange = MockServerWebExchange.from(request);
+
+            filter.filter(exchange, chain).block();
+
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        }
+        assertThat(forwarded.get()).isNull();
+    }
+
+    @Test
+    void publicPathsPassWithoutTokenButNeverWithSpoofedIdentity() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/customers/login")
+            .header(JwtAuthenticationFilter.AUTHENTICATED_USER_HEADER, "mallory@example.com"));
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(forwarded.get().getRequest().getHeaders())
+            .doesNotContainKey(JwtAuthenticationFilter.AUTHENTICATED_USER_HEADER);
+    }
+
+    private static String token(String subject, Duration validity) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+            .subject(subject)
+            .issuedAt(Date.from(now))
+            .expiration(Date.from(now.plus(validity)))
+            .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), Jwts.SIG.HS256)
+            .compact();
+    }
+}
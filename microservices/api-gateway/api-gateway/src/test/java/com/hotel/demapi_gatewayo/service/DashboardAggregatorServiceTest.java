@@ -0,0 +1,144 @@
+package com.hotel.demapi_gatewayo.service;
+
+import com.hotel.demapi_gatewayo.dto.DashboardStatsDTO;
+import com.hotel.demapi_gatewayo.dto.StatStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DashboardAggregatorServiceTest {
+
+    private static final Duration TTL = Duration.ofSeconds(10);
+    private static final String STATS_BODY =
+        "{\"total\":42,\"byStatus\":{\"PENDING\":5,\"AVAILABLE\":7,\"PAID\":30},\"totalRevenue\":1250.50}";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private volatile boolean billingDown;
+
+    private final WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+        String path = request.url().getPath();
+        calls.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+        if (billingDown && path.startsWith("/api/billing")) {
+            return Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+        }
+        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(STATS_BODY)
+                .build())
+            .delayElement(Duration.ofMillis(50));
+    });
+
+    private final DashboardAggregatorService service =
+        new DashboardAggregatorService(builder, TTL, Duration.ofSeconds(2), clock);
+
+    @Test
+    void concurrentFirstRequestsShareOneFetch() {
+        // Toutes les requêtes arrivent avant la fin du premier fetch
+        List<Mono<DashboardStatsDTO>> pending = IntStream.range(0, 20)
+            .mapToObj(i -> service.aggregateStats())
+            .toList();
+        List<DashboardStatsDTO> results = pending.stream()
+            .map(mono -> mono.block(Duration.ofSeconds(5)))
+            .toList();
+
+        assertThat(results).allSatisfy(stats -> {
+            assertThat(stats.getTotalBookings()).isEqualTo(42L);
+            assertThat(stats.getPendingBookings()).isEqualTo(5L);
+            assertThat(stats.getAvailableRooms()).isEqualTo(7L);
+            assertThat(stats.getTotalRevenue()).isEqualByComparingTo("1250.50");
+            assertThat(stats.getFreshness().values())
+                .allSatisfy(f -> assertThat(f.getStatus()).isEqualTo(StatStatus.FRESH));
+        });
+        // Un seul appel /stats par service
+        assertThat(calls).containsOnlyKeys(
+            "/api/bookings/stats", "/api/billing/invoices/stats", "/api/rooms/stats");
+        assertThat(calls.values()).allSatisfy(count -> assertThat(count.get()).isEqualTo(1));
+    }
+
+    @Test
+    void expiredSnapshotIsServedStaleWhileRefreshing() {
+        service.aggregateStats().block(Duration.ofSeconds(5));
+        clock.advance(TTL.plusSeconds(1));
+
+        DashboardStatsDTO stale = service.aggregateStats().block(Duration.ofSeconds(1));
+
+        assertThat(stale.getTotalBookings()).isEqualTo(42L);
+        assertThat(stale.getFreshness().get("totalBookings").getStatus()).isEqualTo(StatStatus.STALE);
+
+        // Le rafraîchissement déclenché en arrière-plan remet le snapshot à jour
+        service.refresh().block(Duration.ofSeconds(5));
+        DashboardStatsDTO fresh = service.aggregateStats().block(Duration.ofSeconds(1));
+        assertThat(fresh.getFreshness().get("totalBookings").getStatus()).isEqualTo(StatStatus.FRESH);
+    }
+
+    @Test
+    void failingServiceIsReportedPerField() {
+        billingDown = true;
+
+        DashboardStatsDTO first = service.aggregateStats().block(Duration.ofSeconds(5));
+
+        assertThat(first.getTotalInvoices()).isNull();
+        assertThat(first.getFreshness().get("totalInvoices").getStatus()).isEqualTo(StatStatus.FAILED);
+        assertThat(first.getFreshness().get("totalRevenue").getStatus()).isEqualTo(StatStatus.FAILED);
+        assertThat(first.getFreshness().get("totalBookings").getStatus()).isEqualTo(StatStatus.FRESH);
+
+        // Une fois une valeur obtenue, une panne la rend STALE au lieu de 0
+        billingDown = false;
+        clock.advance(TTL.plusSeconds(1));
+        service.refresh().block(Duration.ofSeconds(5));
+        billingDown = true;
+        clock.advance(TTL.plusSeconds(1));
+        service.refresh().block(Duration.ofSeconds(5));
+
+        DashboardStatsDTO degraded = service.aggregateStats().block(Duration.ofSeconds(1));
+        assertThat(degraded.getTotalInvoices()).isEqualTo(42L);
+        assertThat(degraded.getFreshness().get("totalInvoices").getStatus()).isEqualTo(StatStatus.STALE);
+        assertThat(degraded.getFreshness().get("totalInvoices").getError()).isNotNull();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
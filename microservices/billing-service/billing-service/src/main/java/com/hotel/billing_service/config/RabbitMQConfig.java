@@ -22,6 +22,9 @@ public class RabbitMQConfig {
     @Value("${rabbitmq.queue.booking-completed}")
     private String bookingCompletedQueue;
     
+    @Value("${rabbitmq.queue.booking-completed-dlq}")
+    private String bookingCompletedDeadLetterQueue;
+    
     @Value("${rabbitmq.routing-key.booking-confirmed}")
     private String bookingConfirmedRoutingKey;
     
@@ -47,6 +50,14 @@ public class RabbitMQConfig {
             .build();
     }
     
+    // Dead letter queue : événements de complétion impossibles à facturer (message empoisonné),
+    // déposés par BookingEventConsumer avec la cause de l'échec
+    @Bean
+    public Queue bookingCompletedDeadLetterQueue() {
+        return QueueBuilder.durable(bookingCompletedDeadLetterQueue)
+            .build();
+    }
+    
     // Bindings
     @Bean
     public Binding bookingConfirmedBinding() {
@@ -91,4 +102,25 @@ public class RabbitMQConfig {
         factory.setMaxConcurrentConsumers(5); // Maximum de consumers
         return factory;
     }
+    
+    // Mode batch : le listener reçoit jusqu'à batch-size messages à la fois
+    // et les acquitte lui-même (ack manuel couvrant tout le lot)
+    @Bean
+    public SimpleRabbitListenerContainerFactory batchRabbitListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            @Value("${billing.consumer.batch-size:50}") int batchSize,
+            @Value("${billing.consumer.batch-receive-timeout-ms:200}") long receiveTimeout) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeout); // Lot partiel si la queue est presque vide
+        factory.setPrefetchCount(batchSize * 2);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setDefaultRequeueRejected(false);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(5);
+        return factory;
+    }
 }
\ No newline at end of file
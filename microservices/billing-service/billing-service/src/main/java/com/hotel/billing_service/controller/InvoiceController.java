@@ -2,6 +2,7 @@ package com.hotel.billing_service.controller;
 
 import com.hotel.billing_service.dto.InvoiceRequestDTO;
 import com.hotel.billing_service.dto.InvoiceResponseDTO;
+import com.hotel.billing_service.dto.InvoiceStatsDTO;
 import com.hotel.billing_service.dto.PaymentRequestDTO;
 import com.hotel.billing_service.model.InvoiceStatus;
 import com.hotel.billing_service.service.InvoiceService;
@@ -33,6 +34,11 @@ public class InvoiceController {
         return ResponseEntity.ok(count);
     }
     
+    @GetMapping("/invoices/stats")
+    public ResponseEntity<InvoiceStatsDTO> getInvoiceStats() {
+        return ResponseEntity.ok(invoiceService.getStats());
+    }
+    
     @GetMapping("/invoices/number/{invoiceNumber}")
     public ResponseEntity<InvoiceResponseDTO> getInvoiceByNumber(@PathVariable String invoiceNumber) {
         InvoiceResponseDTO invoice = invoiceService.getInvoiceByNumber(invoiceNumber);
@@ -46,22 +52,31 @@ public class InvoiceController {
     }
     
     @GetMapping("/invoices/customer/{customerId}")
-    public ResponseEntity<List<InvoiceResponseDTO>> getInvoicesByCustomer(@PathVariable Long customerId) {
-        List<InvoiceResponseDTO> invoices = invoiceService.getInvoicesByCustomer(customerId);
-        return ResponseEntity.ok(invoices);
+    public ResponseEntity<List<InvoiceResponseDTO>> getInvoicesByCustomer(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return invoiceService.getInvoicesByCustomer(customerId, cursor, size).toResponseEntity();
     }
     
     @GetMapping("/invoices/status/{status}")
-    public ResponseEntity<List<InvoiceResponseDTO>> getInvoicesByStatus(@PathVariable String status) {
+    public ResponseEntity<List<InvoiceResponseDTO>> getInvoicesByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         InvoiceStatus invoiceStatus = InvoiceStatus.valueOf(status.toUpperCase());
-        List<InvoiceResponseDTO> invoices = invoiceService.getInvoicesByStatus(invoiceStatus);
-        return ResponseEntity.ok(invoices);
+        return invoiceService.getInvoicesByStatus(invoiceStatus, cursor, size).toResponseEntity();
     }
     
+    /**
+     * Liste paginée : passer l'en-tête X-Next-Cursor de la réponse en paramètre cursor
+     * GET /api/billing/invoices?cursor=...&size=50
+     */
     @GetMapping("/invoices")
-    public ResponseEntity<List<InvoiceResponseDTO>> getAllInvoices() {
-        List<InvoiceResponseDTO> invoices = invoiceService.getAllInvoices();
-        return ResponseEntity.ok(invoices);
+    public ResponseEntity<List<InvoiceResponseDTO>> getAllInvoices(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return invoiceService.getAllInvoices(cursor, size).toResponseEntity();
     }
     
     // ✅ 2. METTRE L'ENDPOINT GÉNÉRIQUE /{id} À LA FIN
@@ -1,6 +1,8 @@
 package com.hotel.billing_service.dto;
 
 
+import com.hotel.billing_service.model.InvoiceStatus;
+import com.hotel.billing_service.model.PaymentMethod;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -28,4 +30,17 @@ public class InvoiceResponseDTO {
     private String paymentMethod;
     private LocalDateTime paidAt;
     private LocalDateTime createdAt;
+    
+    /**
+     * Projection JPQL des listes paginées (InvoiceRepository)
+     */
+    public InvoiceResponseDTO(Long id, String invoiceNumber, Long bookingId, Long customerId, Long roomId,
+                              LocalDate checkInDate, LocalDate checkOutDate, Integer numberOfNights,
+                              BigDecimal roomCharges, BigDecimal taxAmount, BigDecimal totalAmount,
+                              InvoiceStatus status, PaymentMethod paymentMethod,
+                              LocalDateTime paidAt, LocalDateTime createdAt) {
+        this(id, invoiceNumber, bookingId, customerId, roomId, checkInDate, checkOutDate, numberOfNights,
+            roomCharges, taxAmount, totalAmount, status.name(),
+            paymentMethod != null ? paymentMethod.name() : null, paidAt, createdAt);
+    }
 }
\ No newline at end of file
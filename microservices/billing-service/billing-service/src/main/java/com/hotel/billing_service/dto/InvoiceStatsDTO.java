@@ -0,0 +1,19 @@
+package com.hotel.billing_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceStatsDTO {
+    private Long total;
+    private Map<String, Long> byStatus;
+    private Map<String, BigDecimal> amountByStatus;
+    private BigDecimal totalRevenue;        // factures payées
+    private BigDecimal outstandingAmount;   // factures en attente ou en retard
+}
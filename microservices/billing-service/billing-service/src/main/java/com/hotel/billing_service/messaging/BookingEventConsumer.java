@@ -1,18 +1,45 @@
 package com.hotel.billing_service.messaging;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hotel.billing_service.dto.BookingEventDTO;
 import com.hotel.billing_service.service.InvoiceService;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.IOException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class BookingEventConsumer {
     
+    static final String FAILURE_HEADER = "x-failure";
+    static final String ORIGINAL_QUEUE_HEADER = "x-original-queue";
+    
     private final InvoiceService invoiceService;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${rabbitmq.queue.booking-completed-dlq}")
+    private String deadLetterQueue;
+    
+    @Value("${billing.consumer.transient-retry-delay-ms:5000}")
+    private long transientRetryDelayMs;
     
     /**
      * Écouter les événements de CONFIRMATION de réservation (optionnel)
@@ -31,22 +58,108 @@ public class BookingEventConsumer {
     }
     
     /**
-     * Écouter les événements de COMPLÉTION de réservation
-     * ⚠️ C'EST ICI QUE LA FACTURE EST CRÉÉE
+     * Écouter les événements de COMPLÉTION de réservation, par lots
+     * ⚠️ C'EST ICI QUE LES FACTURES SONT CRÉÉES
+     * Le lot entier est inséré dans une transaction puis acquitté en un seul ack.
+     * Panne transitoire (base indisponible) : le lot est remis en queue après une pause, rien n'est perdu.
+     * Autre échec (message empoisonné) : on repasse message par message et seuls les messages
+     * en échec sont déplacés dans la dead letter queue.
      */
-    @RabbitListener(queues = "${rabbitmq.queue.booking-completed}")
-    public void handleBookingCompleted(BookingEventDTO event) {
+    @RabbitListener(
+        queues = "${rabbitmq.queue.booking-completed}",
+        containerFactory = "batchRabbitListenerContainerFactory"
+    )
+    public void handleBookingCompleted(List<Message> messages, Channel channel) throws IOException {
+        log.info("📩 Received {} booking COMPLETED events", messages.size());
+        long lastDeliveryTag = messages.get(messages.size() - 1).getMessageProperties().getDeliveryTag();
+        
+        try {
+            List<BookingEventDTO> events = new ArrayList<>(messages.size());
+            for (Message message : messages) {
+                events.add(readEvent(message));
+            }
+            invoiceService.createInvoicesFromBookings(events);
+            channel.basicAck(lastDeliveryTag, true);
+            log.info("✅ Booking completed batch processed ({} events)", messages.size());
+        } catch (Exception e) {
+            if (isTransient(e)) {
+                log.warn("⚠️ Transient failure on a batch of {} events, requeueing", messages.size(), e);
+                requeueAfterPause(channel, lastDeliveryTag, true);
+                return;
+            }
+            log.warn("⚠️ Batch of {} events failed, falling back to per-message processing", messages.size(), e);
+            for (Message message : messages) {
+                handleSingle(message, channel);
+            }
+        }
+    }
+    
+    private void handleSingle(Message message, Channel channel) throws IOException {
+        long deliveryTag = message.getMessageProperties().getDeliveryTag();
+        BookingEventDTO event = null;
         try {
-            log.info("📩 Received booking COMPLETED event for booking: {}", event.getBookingId());
-            
-            // Créer la facture
-            invoiceService.createInvoiceFromBooking(event);
-            
-            log.info("✅ Invoice created successfully for booking: {}", event.getBookingId());
+            event = readEvent(message);
+            invoiceService.createInvoicesFromBookings(List.of(event));
+            channel.basicAck(deliveryTag, false);
         } catch (Exception e) {
-            log.error("❌ Failed to create invoice for booking: {}", event.getBookingId(), e);
-            // TODO: Implémenter une Dead Letter Queue pour retry
-            throw e; // Relancer l'exception pour potentiel retry
+            if (isTransient(e)) {
+                log.warn("⚠️ Transient failure for booking {}, requeueing",
+                         event != null ? event.getBookingId() : "<unreadable message>", e);
+                requeueAfterPause(channel, deliveryTag, false);
+                return;
+            }
+            log.error("❌ Failed to create invoice for booking: {}, moving message to {}",
+                      event != null ? event.getBookingId() : "<unreadable message>", deadLetterQueue, e);
+            deadLetter(message, channel, e);
+            channel.basicAck(deliveryTag, false);
+        }
+    }
+    
+    /**
+     * Copie le message dans la dead letter queue (sur le même canal, avant l'ack)
+     * avec la cause de l'échec en en-tête, pour analyse et rejeu manuel
+     */
+    private void deadLetter(Message message, Channel channel, Exception cause) throws IOException {
+        Map<String, Object> headers = new HashMap<>(message.getMessageProperties().getHeaders());
+        headers.put(FAILURE_HEADER, String.valueOf(cause));
+        headers.put(ORIGINAL_QUEUE_HEADER, message.getMessageProperties().getConsumerQueue());
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder()
+            .contentType(message.getMessageProperties().getContentType())
+            .deliveryMode(2)
+            .headers(headers)
+            .build();
+        channel.basicPublish("", deadLetterQueue, properties, message.getBody());
+    }
+    
+    private void requeueAfterPause(Channel channel, long deliveryTag, boolean multiple) throws IOException {
+        try {
+            // Évite une boucle de redélivraison serrée pendant la panne
+            Thread.sleep(transientRetryDelayMs);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        channel.basicNack(deliveryTag, multiple, true);
+    }
+    
+    /**
+     * Échec susceptible de disparaître au prochain essai : connexion ou transaction impossible,
+     * timeout, deadlock... (par opposition aux données invalides)
+     */
+    static boolean isTransient(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
         }
+        return false;
+    }
+    
+    private BookingEventDTO readEvent(Message message) throws IOException {
+        return objectMapper.readValue(message.getBody(), BookingEventDTO.class);
     }
-}
\ No newline at end of file
+}
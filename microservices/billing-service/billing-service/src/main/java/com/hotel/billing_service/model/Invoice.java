@@ -11,7 +11,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "invoices")
+@Table(name = "invoices", indexes = {
+    @Index(name = "idx_invoices_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_invoices_customer_created_at_id", columnList = "customerId, created_at, id"),
+    @Index(name = "idx_invoices_status_created_at_id", columnList = "status, created_at, id"),
+    // Requis par ON CONFLICT (booking_id) : créé par db/invoices-unique-booking-id.sql après dédoublonnage
+    @Index(name = "uk_invoices_booking_id", columnList = "bookingId", unique = true)
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,6 +27,7 @@ public class Invoice {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    // Attribué par InvoiceNumberGenerator
     @Column(nullable = false, unique = true)
     private String invoiceNumber;
     
@@ -73,17 +80,10 @@ public class Invoice {
         if (status == null) {
             status = InvoiceStatus.PENDING;
         }
-        if (invoiceNumber == null) {
-            invoiceNumber = generateInvoiceNumber();
-        }
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
-    
-    private String generateInvoiceNumber() {
-        return "INV-" + System.currentTimeMillis();
-    }
 }
@@ -0,0 +1,64 @@
+package com.hotel.billing_service.repository;
+
+import com.hotel.billing_service.model.Invoice;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Date;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Insertions groupées de factures en JDBC : les ids IDENTITY empêchent
+ * Hibernate de regrouper les INSERT. Un seul INSERT multi-lignes par lot ;
+ * les doublons sur booking_id sont ignorés par la contrainte unique
+ * (ON CONFLICT DO NOTHING) et RETURNING donne exactement les lignes insérées.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InvoiceBatchRepository {
+    
+    private static final String INSERT_PREFIX =
+        "INSERT INTO invoices (invoice_number, booking_id, customer_id, room_id, check_in_date, " +
+        "check_out_date, number_of_nights, room_charges, tax_amount, total_amount, status, " +
+        "created_at, updated_at) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SUFFIX = " ON CONFLICT (booking_id) DO NOTHING RETURNING booking_id";
+    private static final int COLUMNS = 13;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Insère les factures en une seule requête
+     * @return booking_id des factures réellement insérées (les doublons en sont absents)
+     */
+    public List<Long> insertIgnoringDuplicates(List<Invoice> invoices) {
+        if (invoices.isEmpty()) {
+            return List.of();
+        }
+        String sql = INSERT_PREFIX + String.join(", ", Collections.nCopies(invoices.size(), ROW)) + INSERT_SUFFIX;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.query(sql, ps -> {
+            int index = 0;
+            for (Invoice invoice : invoices) {
+                int offset = index++ * COLUMNS;
+                ps.setString(offset + 1, invoice.getInvoiceNumber());
+                ps.setLong(offset + 2, invoice.getBookingId());
+                ps.setLong(offset + 3, invoice.getCustomerId());
+                ps.setLong(offset + 4, invoice.getRoomId());
+                ps.setDate(offset + 5, Date.valueOf(invoice.getCheckInDate()));
+                ps.setDate(offset + 6, Date.valueOf(invoice.getCheckOutDate()));
+                ps.setInt(offset + 7, invoice.getNumberOfNights());
+                ps.setBigDecimal(offset + 8, invoice.getRoomCharges());
+                ps.setBigDecimal(offset + 9, invoice.getTaxAmount());
+                ps.setBigDecimal(offset + 10, invoice.getTotalAmount());
+                ps.setString(offset + 11, invoice.getStatus().name());
+                ps.setTimestamp(offset + 12, now);
+                ps.setTimestamp(offset + 13, now);
+            }
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+}
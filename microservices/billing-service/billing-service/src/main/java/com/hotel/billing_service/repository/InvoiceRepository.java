@@ -1,18 +1,46 @@
 package com.hotel.billing_service.repository;
 
 
+import com.hotel.billing_service.dto.InvoiceResponseDTO;
 import com.hotel.billing_service.model.Invoice;
 import com.hotel.billing_service.model.InvoiceStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     
+    // Listes paginées par clé (createdAt, id) : projection directe en DTO, sans entité gérée
+    String PAGE_SELECT = "SELECT new com.hotel.billing_service.dto.InvoiceResponseDTO(" +
+        "i.id, i.invoiceNumber, i.bookingId, i.customerId, i.roomId, i.checkInDate, i.checkOutDate, " +
+        "i.numberOfNights, i.roomCharges, i.taxAmount, i.totalAmount, i.status, i.paymentMethod, " +
+        "i.paidAt, i.createdAt) FROM Invoice i ";
+    String AFTER_CURSOR = "(i.createdAt < :createdAt OR (i.createdAt = :createdAt AND i.id < :id)) " +
+        "ORDER BY i.createdAt DESC, i.id DESC";
+    
+    @Query(PAGE_SELECT + "WHERE " + AFTER_CURSOR)
+    List<InvoiceResponseDTO> findPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                      Pageable limit);
+    
+    @Query(PAGE_SELECT + "WHERE i.customerId = :customerId AND " + AFTER_CURSOR)
+    List<InvoiceResponseDTO> findPageByCustomerId(@Param("customerId") Long customerId,
+                                                  @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                  Pageable limit);
+    
+    @Query(PAGE_SELECT + "WHERE i.status = :status AND " + AFTER_CURSOR)
+    List<InvoiceResponseDTO> findPageByStatus(@Param("status") InvoiceStatus status,
+                                              @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                              Pageable limit);
+    
     Optional<Invoice> findByInvoiceNumber(String invoiceNumber);
     
     Optional<Invoice> findByBookingId(Long bookingId);
@@ -24,5 +52,19 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     List<Invoice> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
     
     boolean existsByBookingId(Long bookingId);
+    
+    @Query("SELECT i.bookingId FROM Invoice i WHERE i.bookingId IN :bookingIds")
+    List<Long> findExistingBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+    
     long countByStatus(InvoiceStatus status);
+    
+    @Query("SELECT i.status AS status, COUNT(i) AS count, COALESCE(SUM(i.totalAmount), 0) AS amount " +
+           "FROM Invoice i GROUP BY i.status")
+    List<StatusSummary> summarizeByStatus();
+    
+    interface StatusSummary {
+        InvoiceStatus getStatus();
+        long getCount();
+        BigDecimal getAmount();
+    }
 }
\ No newline at end of file
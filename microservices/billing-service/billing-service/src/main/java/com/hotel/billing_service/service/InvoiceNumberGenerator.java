@@ -0,0 +1,148 @@
+package com.hotel.billing_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Year;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Génère les numéros de facture au format INV-{année}-{séquence sur 10 chiffres}.
+ * Optimiseur "pooled" : la séquence Postgres avance de block-size (INCREMENT BY) et chaque
+ * valeur renvoyée est la borne haute (exclue) d'un bloc de block-size numéros, distribués
+ * ensuite en mémoire sans verrou (AtomicLong). Les bornes sont stockées en base et la taille
+ * du bloc est lue avec la valeur (incrément courant de la séquence) : changer block-size entre
+ * deux démarrages, ou avoir deux valeurs pendant un déploiement, ne fait jamais chevaucher les
+ * blocs. Un bloc non consommé avant un redémarrage laisse un trou, jamais un doublon.
+ */
+@Component
+@Slf4j
+public class InvoiceNumberGenerator {
+    
+    static final String SEQUENCE = "invoice_number_seq";
+    
+    private final Supplier<Range> nextRange;
+    private final Clock clock;
+    
+    private volatile Block current = Block.EMPTY;
+    
+    @Autowired
+    public InvoiceNumberGenerator(JdbcTemplate jdbcTemplate,
+                                  @Value("${billing.invoice-number.block-size:1000}") int blockSize) {
+        this(sequence(jdbcTemplate, requirePositive(blockSize)), Clock.systemDefaultZone());
+    }
+    
+    /**
+     * @param nextBlockEnd valeur suivante d'une séquence qui avance de blockSize : borne haute exclue du bloc
+     */
+    InvoiceNumberGenerator(LongSupplier nextBlockEnd, int blockSize, Clock clock) {
+        this(() -> {
+            long end = nextBlockEnd.getAsLong();
+            return new Range(end - blockSize, end);
+        }, clock);
+        requirePositive(blockSize);
+    }
+    
+    private InvoiceNumberGenerator(Supplier<Range> nextRange, Clock clock) {
+        this.nextRange = nextRange;
+        this.clock = clock;
+    }
+    
+    private static int requirePositive(int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be at least 1");
+        }
+        return blockSize;
+    }
+    
+    /**
+     * Prochain numéro de facture, unique et croissant dans chaque instance
+     */
+    public String nextInvoiceNumber() {
+        return format(Year.now(clock).getValue(), nextValue());
+    }
+    
+    long nextValue() {
+        while (true) {
+            Block block = current;
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return value;
+            }
+            // Bloc épuisé : un seul thread en alloue un nouveau, les autres réessaient
+            synchronized (this) {
+                if (current == block) {
+                    Range range = nextRange.get();
+                    current = new Block(range.start(), range.end());
+                    log.debug("Allocated invoice numbers [{}, {})", range.start(), range.end());
+                }
+            }
+        }
+    }
+    
+    static String format(int year, long value) {
+        return String.format("INV-%d-%010d", year, value);
+    }
+    
+    /**
+     * Séquence préparée au premier bloc (les tables existent alors) : INCREMENT BY aligné sur
+     * block-size, puis remontée au-delà du plus grand numéro déjà émis (numéros attribués par
+     * une séquence qui n'avançait pas encore de block-size)
+     */
+    private static Supplier<Range> sequence(JdbcTemplate jdbcTemplate, int blockSize) {
+        return new Supplier<>() {
+            private boolean prepared;
+            
+            // Appelé sous le verrou de l'instance (allocation d'un bloc)
+            @Override
+            public Range get() {
+                if (!prepared) {
+                    prepare();
+                    prepared = true;
+                }
+                // Incrément lu dans la même requête : fait foi même si une autre instance l'a changé
+                return jdbcTemplate.queryForObject(
+                    "SELECT nextval('" + SEQUENCE + "') AS block_end, increment_by FROM pg_sequences "
+                        + "WHERE schemaname = current_schema() AND sequencename = '" + SEQUENCE + "'",
+                    (rs, rowNum) -> new Range(rs.getLong("block_end") - rs.getLong("increment_by"),
+                        rs.getLong("block_end")));
+            }
+            
+            private void prepare() {
+                jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE
+                    + " START WITH " + (blockSize + 1) + " INCREMENT BY " + blockSize);
+                jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE + " INCREMENT BY " + blockSize);
+                Long issuedUpTo = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(CAST(SUBSTRING(invoice_number FROM 10) AS BIGINT)), 0) + 1 FROM invoices "
+                        + "WHERE invoice_number ~ '^INV-[0-9]{4}-[0-9]{10}$'", Long.class);
+                // Ne recule jamais la séquence : seulement si elle est en retard sur les numéros émis
+                jdbcTemplate.query("SELECT setval('" + SEQUENCE + "', ?) FROM " + SEQUENCE + " WHERE last_value < ?",
+                    (rs, rowNum) -> rs.getLong(1), issuedUpTo, issuedUpTo);
+                log.info("Invoice number sequence ready (block size {}, numbers below {} already issued)",
+                    blockSize, issuedUpTo);
+            }
+        };
+    }
+    
+    record Range(long start, long end) {
+    }
+    
+    private static final class Block {
+        
+        static final Block EMPTY = new Block(0, 0);
+        
+        final AtomicLong next;
+        final long end;
+        
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
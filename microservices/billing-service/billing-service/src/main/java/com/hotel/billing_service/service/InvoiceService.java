@@ -4,13 +4,16 @@ package com.hotel.billing_service.service;
 import com.hotel.billing_service.dto.BookingEventDTO;
 import com.hotel.billing_service.dto.InvoiceRequestDTO;
 import com.hotel.billing_service.dto.InvoiceResponseDTO;
+import com.hotel.billing_service.dto.InvoiceStatsDTO;
 import com.hotel.billing_service.dto.PaymentRequestDTO;
 import com.hotel.billing_service.exception.InvalidInvoiceException;
 import com.hotel.billing_service.exception.InvoiceNotFoundException;
 import com.hotel.billing_service.model.Invoice;
 import com.hotel.billing_service.model.InvoiceStatus;
 import com.hotel.billing_service.model.PaymentMethod;
+import com.hotel.billing_service.repository.InvoiceBatchRepository;
 import com.hotel.billing_service.repository.InvoiceRepository;
+import com.hotel.common.dto.CursorPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -20,7 +23,11 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +37,8 @@ import java.util.stream.Collectors;
 public class InvoiceService {
     
     private final InvoiceRepository invoiceRepository;
+    private final InvoiceBatchRepository invoiceBatchRepository;
+    private final InvoiceNumberGenerator invoiceNumberGenerator;
     private static final BigDecimal TAX_RATE = new BigDecimal("0.10"); // 10% tax
     
     public InvoiceResponseDTO createInvoiceFromBooking(BookingEventDTO event) {
@@ -40,6 +49,39 @@ public class InvoiceService {
             throw new InvalidInvoiceException("Invoice already exists for booking: " + event.getBookingId());
         }
         
+        Invoice savedInvoice = invoiceRepository.save(buildInvoice(event));
+        log.info("Invoice created with number: {}", savedInvoice.getInvoiceNumber());
+        
+        return convertToDTO(savedInvoice);
+    }
+    
+    /**
+     * Crée les factures d'un lot d'événements en une seule transaction.
+     * Idempotent : les réservations déjà facturées (ou en double dans le lot)
+     * sont ignorées au lieu de lever une exception.
+     * @return nombre de factures créées
+     */
+    public int createInvoicesFromBookings(List<BookingEventDTO> events) {
+        // Dédoublonner dans le lot (un message peut être redélivré)
+        Map<Long, BookingEventDTO> byBookingId = new LinkedHashMap<>();
+        for (BookingEventDTO event : events) {
+            byBookingId.putIfAbsent(event.getBookingId(), event);
+        }
+        
+        // Une seule requête pour écarter les factures déjà existantes
+        Set<Long> existing = new HashSet<>(invoiceRepository.findExistingBookingIds(byBookingId.keySet()));
+        List<Invoice> invoices = byBookingId.values().stream()
+            .filter(event -> !existing.contains(event.getBookingId()))
+            .map(this::buildInvoice)
+            .collect(Collectors.toList());
+        
+        int created = invoiceBatchRepository.insertIgnoringDuplicates(invoices).size();
+        log.info("Created {} invoices from {} booking events ({} duplicates skipped)",
+                 created, events.size(), events.size() - created);
+        return created;
+    }
+    
+    private Invoice buildInvoice(BookingEventDTO event) {
         // Calculer le nombre de nuits
         long numberOfNights = ChronoUnit.DAYS.between(event.getCheckInDate(), event.getCheckOutDate());
         
@@ -50,6 +92,7 @@ public class InvoiceService {
         
         // Créer la facture
         Invoice invoice = new Invoice();
+        invoice.setInvoiceNumber(invoiceNumberGenerator.nextInvoiceNumber());
         invoice.setBookingId(event.getBookingId());
         invoice.setCustomerId(event.getCustomerId());
         invoice.setRoomId(event.getRoomId());
@@ -60,11 +103,7 @@ public class InvoiceService {
         invoice.setTaxAmount(taxAmount);
         invoice.setTotalAmount(totalAmount);
         invoice.setStatus(InvoiceStatus.PENDING);
-        
-        Invoice savedInvoice = invoiceRepository.save(invoice);
-        log.info("Invoice created with number: {}", savedInvoice.getInvoiceNumber());
-        
-        return convertToDTO(savedInvoice);
+        return invoice;
     }
     
     public InvoiceResponseDTO createInvoice(InvoiceRequestDTO request) {
@@ -81,6 +120,7 @@ public class InvoiceService {
         BigDecimal totalAmount = roomCharges.add(taxAmount).setScale(2, RoundingMode.HALF_UP);
         
         Invoice invoice = new Invoice();
+        invoice.setInvoiceNumber(invoiceNumberGenerator.nextInvoiceNumber());
         invoice.setBookingId(request.getBookingId());
         invoice.setCustomerId(request.getCustomerId());
         invoice.setRoomId(request.getRoomId());
@@ -114,22 +154,31 @@ public class InvoiceService {
         return convertToDTO(invoice);
     }
     
-    public List<InvoiceResponseDTO> getAllInvoices() {
-        return invoiceRepository.findAll().stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<InvoiceResponseDTO> getAllInvoices(String cursor, Integer size) {
+        CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+        int pageSize = CursorPage.size(size);
+        return page(invoiceRepository.findPage(after.createdAt(), after.id(), CursorPage.limit(pageSize)), pageSize);
     }
     
-    public List<InvoiceResponseDTO> getInvoicesByCustomer(Long customerId) {
-        return invoiceRepository.findByCustomerId(customerId).stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<InvoiceResponseDTO> getInvoicesByCustomer(Long customerId, String cursor, Integer size) {
+        CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+        int pageSize = CursorPage.size(size);
+        return page(invoiceRepository.findPageByCustomerId(customerId, after.createdAt(), after.id(),
+            CursorPage.limit(pageSize)), pageSize);
     }
     
-    public List<InvoiceResponseDTO> getInvoicesByStatus(InvoiceStatus status) {
-        return invoiceRepository.findByStatus(status).stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<InvoiceResponseDTO> getInvoicesByStatus(InvoiceStatus status, String cursor, Integer size) {
+        CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+        int pageSize = CursorPage.size(size);
+        return page(invoiceRepository.findPageByStatus(status, after.createdAt(), after.id(),
+            CursorPage.limit(pageSize)), pageSize);
+    }
+    
+    private static CursorPage<InvoiceResponseDTO> page(List<InvoiceResponseDTO> rows, int size) {
+        return CursorPage.of(rows, size, InvoiceResponseDTO::getCreatedAt, InvoiceResponseDTO::getId);
     }
     
     public InvoiceResponseDTO processPayment(Long invoiceId, PaymentRequestDTO paymentRequest) {
@@ -211,4 +260,27 @@ public Long countByStatus(String statusStr) {
     InvoiceStatus status = InvoiceStatus.valueOf(statusStr);
     return invoiceRepository.countByStatus(status);
 }
+
+    /**
+     * Nombre et montant des factures par statut, total et chiffre d'affaires, en une requête
+     */
+    @Transactional(readOnly = true)
+    public InvoiceStatsDTO getStats() {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        Map<String, BigDecimal> amountByStatus = new LinkedHashMap<>();
+        for (InvoiceStatus status : InvoiceStatus.values()) {
+            byStatus.put(status.name(), 0L);
+            amountByStatus.put(status.name(), BigDecimal.ZERO);
+        }
+        long total = 0;
+        for (InvoiceRepository.StatusSummary row : invoiceRepository.summarizeByStatus()) {
+            byStatus.put(row.getStatus().name(), row.getCount());
+            amountByStatus.put(row.getStatus().name(), row.getAmount());
+            total += row.getCount();
+        }
+        BigDecimal outstanding = amountByStatus.get(InvoiceStatus.PENDING.name())
+            .add(amountByStatus.get(InvoiceStatus.OVERDUE.name()));
+        return new InvoiceStatsDTO(total, byStatus, amountByStatus,
+            amountByStatus.get(InvoiceStatus.PAID.name()), outstanding);
+    }
 }
@@ -0,0 +1,20 @@
+-- Une seule facture par réservation : InvoiceBatchRepository insère avec
+-- ON CONFLICT (booking_id), qui exige un index unique sur booking_id.
+-- ddl-auto: update n'arrive pas à le créer (et ne le signale pas) si des doublons
+-- existent déjà : on les supprime d'abord. Est gardée la facture payée s'il y en a
+-- une, sinon une facture non annulée, sinon la plus ancienne.
+-- Exécuté à chaque démarrage après Hibernate (spring.sql.init), sans effet une fois appliqué.
+
+DELETE FROM invoices
+WHERE id IN (
+    SELECT id FROM (
+        SELECT id, ROW_NUMBER() OVER (
+            PARTITION BY booking_id
+            ORDER BY (status = 'PAID') DESC, (status = 'CANCELLED') ASC, id ASC
+        ) AS position
+        FROM invoices
+    ) ranked
+    WHERE position > 1
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_invoices_booking_id ON invoices (booking_id);
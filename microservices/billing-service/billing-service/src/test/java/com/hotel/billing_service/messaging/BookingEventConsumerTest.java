@@ -0,0 +1,98 @@
+package com.hotel.billing_service.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hotel.billing_service.dto.BookingEventDTO;
+import com.hotel.billing_service.service.InvoiceService;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookingEventConsumerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private InvoiceService invoiceService;
+    private Channel channel;
+    private BookingEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        invoiceService = mock(InvoiceService.class);
+        channel = mock(Channel.class);
+        consumer = new BookingEventConsumer(invoiceService, objectMapper);
+        ReflectionTestUtils.setField(consumer, "deadLetterQueue", "booking.completed.dlq");
+        ReflectionTestUtils.setField(consumer, "transientRetryDelayMs", 0L);
+    }
+
+    private Message message(long deliveryTag, long bookingId) throws Exception {
+        BookingEventDTO event = new BookingEventDTO(bookingId, 7L, 3L, LocalDate.of(2026, 3, 1),
+            LocalDate.of(2026, 3, 4), new BigDecimal("300.00"), "COMPLETED", null);
+        return message(deliveryTag, objectMapper.writeValueAsBytes(event));
+    }
+
+    private static Message message(long deliveryTag, byte[] body) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        properties.setConsumerQueue("booking.completed.queue");
+        return new Message(body, properties);
+    }
+
+    @Test
+    void wholeBatchIsAcknowledgedOnce() throws Exception {
+        consumer.handleBookingCompleted(List.of(message(1, 10), message(2, 11), message(3, 12)), channel);
+
+        verify(invoiceService).createInvoicesFromBookings(argThat(events -> events.size() == 3));
+        verify(channel).basicAck(3, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void poisonMessageIsDeadLetteredAndTheRestOfTheBatchIsKept() throws Exception {
+        Message unreadable = message(2, "{not json".getBytes(StandardCharsets.UTF_8));
+
+        consumer.handleBookingCompleted(List.of(message(1, 10), unreadable, message(3, 12)), channel);
+
+        verify(invoiceService, times(2)).createInvoicesFromBookings(argThat(events -> events.size() == 1));
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(3, false);
+        verify(channel).basicPublish(eq(""), eq("booking.completed.dlq"),
+            argThat((AMQP.BasicProperties props) -> props.getHeaders().containsKey(BookingEventConsumer.FAILURE_HEADER)),
+            eq(unreadable.getBody()));
+        verify(channel).basicAck(2, false);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void transientFailureRequeuesTheBatchInsteadOfDroppingIt() throws Exception {
+        when(invoiceService.createInvoicesFromBookings(anyList()))
+            .thenThrow(new CannotCreateTransactionException("Connection refused"));
+
+        consumer.handleBookingCompleted(List.of(message(1, 10), message(2, 11)), channel);
+
+        verify(channel).basicNack(2, true, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        verify(channel, never()).basicPublish(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void dataErrorsAreNotTreatedAsTransient() {
+        assertThat(BookingEventConsumer.isTransient(new DataIntegrityViolationException("null customer_id"))).isFalse();
+        assertThat(BookingEventConsumer.isTransient(new RuntimeException(
+            new CannotCreateTransactionException("pool exhausted")))).isTrue();
+    }
+}
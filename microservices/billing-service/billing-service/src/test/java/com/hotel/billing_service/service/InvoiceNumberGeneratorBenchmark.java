@@ -0,0 +1,52 @@
+package com.hotel.billing_service.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Débit de génération des numéros de facture (JMH).
+ * Lancer la méthode main depuis l'IDE ou via exec:java avec le classpath de test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class InvoiceNumberGeneratorBenchmark {
+    
+    private InvoiceNumberGenerator generator;
+    
+    @Setup
+    public void setUp() {
+        // Séquence simulée : un aller-retour base amorti sur 1000 numéros
+        AtomicLong sequence = new AtomicLong();
+        generator = new InvoiceNumberGenerator(() -> sequence.addAndGet(1000), 1000, Clock.systemDefaultZone());
+    }
+    
+    @Benchmark
+    public String hiLo() {
+        return generator.nextInvoiceNumber();
+    }
+    
+    // Ancienne génération, pour comparaison (collisions possibles)
+    @Benchmark
+    public String currentTimeMillis() {
+        return "INV-" + System.currentTimeMillis();
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(InvoiceNumberGeneratorBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,103 @@
+package com.hotel.billing_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvoiceNumberGeneratorTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-03-15T10:00:00Z"), ZoneOffset.UTC);
+
+    // Séquence Postgres créée START WITH blockSize + 1 INCREMENT BY blockSize
+    private static InvoiceNumberGenerator pooled(AtomicLong sequence, int blockSize) {
+        return new InvoiceNumberGenerator(() -> sequence.addAndGet(blockSize), blockSize, CLOCK);
+    }
+
+    @Test
+    void formatsSortableNumbersWithYearPrefix() {
+        InvoiceNumberGenerator generator = pooled(new AtomicLong(1), 10);
+
+        assertThat(generator.nextInvoiceNumber()).isEqualTo("INV-2026-0000000001");
+        assertThat(generator.nextInvoiceNumber()).isEqualTo("INV-2026-0000000002");
+        assertThat(InvoiceNumberGenerator.format(2026, 9))
+            .isLessThan(InvoiceNumberGenerator.format(2026, 10));
+    }
+
+    @Test
+    void manyThreadsNeverReceiveTheSameNumber() throws Exception {
+        int threads = 32;
+        int perThread = 20_000;
+        int blockSize = 100;
+        AtomicLong sequence = new AtomicLong();
+        AtomicInteger allocations = new AtomicInteger();
+        InvoiceNumberGenerator generator = new InvoiceNumberGenerator(() -> {
+            allocations.incrementAndGet();
+            return sequence.addAndGet(blockSize);
+        }, blockSize, CLOCK);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                List<String> numbers = new ArrayList<>(perThread);
+                for (int i = 0; i < perThread; i++) {
+                    numbers.add(generator.nextInvoiceNumber());
+                }
+                return numbers;
+            }));
+        }
+        start.countDown();
+
+        Set<String> unique = ConcurrentHashMap.newKeySet();
+        for (Future<List<String>> result : results) {
+            List<String> numbers = result.get(30, TimeUnit.SECONDS);
+            // Croissant dans chaque thread
+            assertThat(numbers).isSorted();
+            unique.addAll(numbers);
+        }
+        executor.shutdown();
+
+        assertThat(unique).hasSize(threads * perThread);
+        // Une allocation par bloc, sans allocation concurrente gaspillée
+        assertThat(allocations.get()).isEqualTo(threads * perThread / blockSize);
+    }
+
+    @Test
+    void blocksFromSeparateInstancesDoNotOverlap() {
+        AtomicLong sharedSequence = new AtomicLong();
+        InvoiceNumberGenerator first = pooled(sharedSequence, 5);
+        InvoiceNumberGenerator second = pooled(sharedSequence, 5);
+
+        Set<Long> values = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 50; i++) {
+            assertThat(values.add(first.nextValue())).isTrue();
+            assertThat(values.add(second.nextValue())).isTrue();
+        }
+    }
+
+    @Test
+    void changingBlockSizeBetweenRestartsNeverReusesNumbers() {
+        AtomicLong sequence = new AtomicLong(1);
+        Set<Long> values = ConcurrentHashMap.newKeySet();
+
+        // Démarrages successifs avec block-size 1000, 10 puis 1000 (l'incrément de la séquence suit)
+        for (int blockSize : new int[]{1000, 10, 1000}) {
+            InvoiceNumberGenerator generator = pooled(sequence, blockSize);
+            for (int i = 0; i < 25; i++) {
+                assertThat(values.add(generator.nextValue())).isTrue();
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.hotel.billing_service.service;
+
+import com.hotel.billing_service.dto.BookingEventDTO;
+import com.hotel.billing_service.model.Invoice;
+import com.hotel.billing_service.repository.InvoiceBatchRepository;
+import com.hotel.billing_service.repository.InvoiceRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class InvoiceServiceTest {
+
+    private final InvoiceRepository invoiceRepository = mock(InvoiceRepository.class);
+    private final InvoiceBatchRepository invoiceBatchRepository = mock(InvoiceBatchRepository.class);
+    private final AtomicLong sequence = new AtomicLong(1);
+    private final InvoiceService invoiceService = new InvoiceService(invoiceRepository, invoiceBatchRepository,
+        new InvoiceNumberGenerator(() -> sequence.addAndGet(100), 100, Clock.systemUTC()));
+
+    private static BookingEventDTO event(long bookingId) {
+        return new BookingEventDTO(bookingId, 7L, 3L, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 4),
+            new BigDecimal("300.00"), "COMPLETED", null);
+    }
+
+    @Test
+    void redeliveredAndAlreadyInvoicedBookingsAreSkipped() {
+        when(invoiceRepository.findExistingBookingIds(anyCollection())).thenReturn(List.of(11L));
+        when(invoiceBatchRepository.insertIgnoringDuplicates(anyList())).thenReturn(List.of(10L, 12L));
+
+        int created = invoiceService.createInvoicesFromBookings(List.of(event(10), event(11), event(10), event(12)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Invoice>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(invoiceBatchRepository).insertIgnoringDuplicates(inserted.capture());
+        assertThat(inserted.getValue()).extracting(Invoice::getBookingId).containsExactly(10L, 12L);
+        assertThat(inserted.getValue().get(0).getTotalAmount()).isEqualByComparingTo("330.00");
+        assertThat(created).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentInsertOfTheSameBookingIsNotCountedAsCreated() {
+        when(invoiceRepository.findExistingBookingIds(anyCollection())).thenReturn(List.of());
+        // Facture insérée entre la vérification et l'INSERT : ON CONFLICT DO NOTHING l'écarte
+        when(invoiceBatchRepository.insertIgnoringDuplicates(anyList())).thenReturn(List.of(20L));
+
+        assertThat(invoiceService.createInvoicesFromBookings(List.of(event(20), event(21)))).isEqualTo(1);
+    }
+}
@@ -4,10 +4,18 @@ import com.hotel.booking_service.dto.CustomerDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
-@FeignClient(name = "customer-service")
+import java.util.List;
+import java.util.Set;
+
+@FeignClient(name = "customer-service", configuration = CustomerServiceClientConfig.class)
 public interface CustomerServiceClient {
     
     @GetMapping("/api/customers/{id}")
     CustomerDTO getCustomerById(@PathVariable("id") Long id);
-}
\ No newline at end of file
+    
+    @PostMapping("/api/customers/batch")
+    List<CustomerDTO> getCustomersByIds(@RequestBody Set<Long> ids);
+}
@@ -0,0 +1,19 @@
+package com.hotel.booking_service.client;
+
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Configuration Feign propre à CustomerServiceClient (pas de @Configuration : le secret
+ * n'est pas envoyé aux autres services). Présente le secret partagé à customer-service.
+ */
+public class CustomerServiceClientConfig {
+
+    static final String SERVICE_TOKEN_HEADER = "X-Service-Token";
+
+    @Bean
+    public RequestInterceptor serviceTokenInterceptor(@Value("${security.service-token}") String serviceToken) {
+        return template -> template.header(SERVICE_TOKEN_HEADER, serviceToken);
+    }
+}
@@ -1,14 +1,22 @@
 package com.hotel.booking_service.client;
 
+import com.hotel.booking_service.dto.InventoryHoldRequestDTO;
 import com.hotel.booking_service.dto.RoomDTO;
+import com.hotel.booking_service.dto.RoomSummaryDTO;
+import com.hotel.common.dto.CursorPage;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @FeignClient(name = "room-service")
 public interface RoomServiceClient {
@@ -16,9 +24,46 @@ public interface RoomServiceClient {
     @GetMapping("/api/rooms/{id}")
     RoomDTO getRoomById(@PathVariable("id") Long id);
     
+    @PostMapping("/api/rooms/batch")
+    List<RoomDTO> getRoomsByIds(@RequestBody Set<Long> ids);
+    
+    // Liste compacte filtrée par étage et/ou type (paramètres null ignorés)
+    @GetMapping("/api/rooms/summary")
+    List<RoomSummaryDTO> getRoomSummaries(@RequestParam(value = "floor", required = false) Integer floor,
+                                          @RequestParam(value = "type", required = false) String type);
+    
+    // Liste paginée : curseur de la page suivante dans l'en-tête X-Next-Cursor
     @GetMapping("/api/rooms/available/{type}")
-    List<RoomDTO> getAvailableRoomsByType(@PathVariable("type") String type);
+    ResponseEntity<List<RoomDTO>> getAvailableRoomsByTypePage(@PathVariable("type") String type,
+                                                              @RequestParam(value = "cursor", required = false) String cursor,
+                                                              @RequestParam(value = "size", required = false) Integer size);
+    
+    // Toutes les chambres disponibles du type, page après page
+    default List<RoomDTO> getAvailableRoomsByType(String type) {
+        List<RoomDTO> rooms = new ArrayList<>();
+        String cursor = null;
+        do {
+            ResponseEntity<List<RoomDTO>> page = getAvailableRoomsByTypePage(type, cursor, CursorPage.MAX_SIZE);
+            if (page.getBody() != null) {
+                rooms.addAll(page.getBody());
+            }
+            cursor = page.getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        return rooms;
+    }
     
        @PutMapping("/api/rooms/{id}/status")  // ✅ Changé de @PatchMapping à @PutMapping
     RoomDTO updateRoomStatus(@PathVariable("id") Long id, @RequestParam("status") String status);
+    
+    // Compare-and-set du statut : 409 si le statut courant n'est pas dans from
+    @PostMapping("/api/rooms/{id}/status/transition")
+    RoomDTO transitionRoomStatus(@PathVariable("id") Long id, @RequestParam("from") List<String> from,
+                                 @RequestParam("to") String to);
+    
+    // Inventaire chambres-nuits par type (idempotent par bookingId)
+    @PostMapping("/api/rooms/inventory/reserve")
+    void reserveInventory(@RequestBody InventoryHoldRequestDTO request);
+    
+    @PostMapping("/api/rooms/inventory/release/{bookingId}")
+    void releaseInventory(@PathVariable("bookingId") Long bookingId);
 }
@@ -27,6 +27,18 @@ public class RabbitMQConfig {
     @Value("${rabbitmq.routing-key.booking-completed}")
     private String bookingCompletedRoutingKey;
     
+    @Value("${rabbitmq.exchange.room}")
+    private String roomExchange;
+    
+    @Value("${rabbitmq.routing-key.room-changes}")
+    private String roomChangesRoutingKey;
+    
+    @Value("${rabbitmq.exchange.customer}")
+    private String customerExchange;
+    
+    @Value("${rabbitmq.routing-key.customer-changes}")
+    private String customerChangesRoutingKey;
+    
     // Exchange
     @Bean
     public TopicExchange bookingExchange() {
@@ -61,6 +73,45 @@ public class RabbitMQConfig {
             .with(bookingCompletedRoutingKey);
     }
     
+    // Notifications de room-service : queue propre à l'instance, supprimée à la déconnexion,
+    // pour que chaque instance invalide son propre cache
+    @Bean
+    public TopicExchange roomExchange() {
+        return new TopicExchange(roomExchange, true, false);
+    }
+    
+    @Bean
+    public Queue roomChangesQueue() {
+        return new AnonymousQueue();
+    }
+    
+    @Bean
+    public Binding roomChangesBinding() {
+        return BindingBuilder
+            .bind(roomChangesQueue())
+            .to(roomExchange())
+            .with(roomChangesRoutingKey);
+    }
+    
+    // Notifications de customer-service, même principe
+    @Bean
+    public TopicExchange customerExchange() {
+        return new TopicExchange(customerExchange, true, false);
+    }
+    
+    @Bean
+    public Queue customerChangesQueue() {
+        return new AnonymousQueue();
+    }
+    
+    @Bean
+    public Binding customerChangesBinding() {
+        return BindingBuilder
+            .bind(customerChangesQueue())
+            .to(customerExchange())
+            .with(customerChangesRoutingKey);
+    }
+    
     // Message converter pour JSON
     @Bean
     public MessageConverter messageConverter() {
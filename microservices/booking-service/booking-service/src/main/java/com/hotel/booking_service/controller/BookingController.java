@@ -2,13 +2,18 @@ package com.hotel.booking_service.controller;
 
 import com.hotel.booking_service.dto.BookingRequestDTO;
 import com.hotel.booking_service.dto.BookingResponseDTO;
+import com.hotel.booking_service.dto.BookingStatsDTO;
+import com.hotel.booking_service.dto.RoomOccupancyDTO;
+import com.hotel.booking_service.dto.TapeChartDTO;
 import com.hotel.booking_service.service.BookingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 @RestController
 @RequestMapping("/api/bookings")
@@ -30,22 +35,59 @@ public class BookingController {
         return ResponseEntity.ok(count);
     }
     
+    @GetMapping("/stats")
+    public ResponseEntity<BookingStatsDTO> getBookingStats() {
+        return ResponseEntity.ok(bookingService.getStats());
+    }
+    
+    /**
+     * Séjours actifs sous forme compacte, pour les index d'occupation des autres services
+     * GET /api/bookings/occupancy?from=2026-05-01
+     */
+    @GetMapping("/occupancy")
+    public ResponseEntity<List<RoomOccupancyDTO>> getOccupancy(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+        return ResponseEntity.ok(bookingService.getOccupancy(from));
+    }
+    
+    /**
+     * Planning réception : occupation chambres × nuits encodée par plages
+     * GET /api/bookings/tape-chart?from=2026-05-01&days=60&floor=2&type=SUITE
+     */
+    @GetMapping("/tape-chart")
+    public ResponseEntity<TapeChartDTO> getTapeChart(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) Integer days,
+            @RequestParam(required = false) Integer floor,
+            @RequestParam(required = false) String type) {
+        return ResponseEntity.ok(bookingService.getTapeChart(from, days, floor, type));
+    }
+    
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<BookingResponseDTO>> getBookingsByCustomer(@PathVariable Long customerId) {
-        List<BookingResponseDTO> bookings = bookingService.getBookingsByCustomer(customerId);
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<List<BookingResponseDTO>> getBookingsByCustomer(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return bookingService.getBookingsByCustomer(customerId, cursor, size).toResponseEntity();
     }
     
     @GetMapping("/room/{roomId}")
-    public ResponseEntity<List<BookingResponseDTO>> getBookingsByRoom(@PathVariable Long roomId) {
-        List<BookingResponseDTO> bookings = bookingService.getBookingsByRoom(roomId);
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<List<BookingResponseDTO>> getBookingsByRoom(
+            @PathVariable Long roomId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return bookingService.getBookingsByRoom(roomId, cursor, size).toResponseEntity();
     }
     
+    /**
+     * Liste paginée : passer l'en-tête X-Next-Cursor de la réponse en paramètre cursor
+     * GET /api/bookings?cursor=...&size=50
+     */
     @GetMapping
-    public ResponseEntity<List<BookingResponseDTO>> getAllBookings() {
-        List<BookingResponseDTO> bookings = bookingService.getAllBookings();
-        return ResponseEntity.ok(bookings);
+    public ResponseEntity<List<BookingResponseDTO>> getAllBookings(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return bookingService.getAllBookings(cursor, size).toResponseEntity();
     }
     
     // ✅ PUT GENERIC /{id} ROUTE LAST
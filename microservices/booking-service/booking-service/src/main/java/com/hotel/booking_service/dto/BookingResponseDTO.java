@@ -1,5 +1,6 @@
 package com.hotel.booking_service.dto;
 
+import com.hotel.booking_service.model.BookingStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -24,4 +25,15 @@ public class BookingResponseDTO {
     private String status;
     private String specialRequests;
     private LocalDateTime createdAt;
+    
+    /**
+     * Projection JPQL des listes paginées (BookingRepository) : sans specialRequests,
+     * noms du client et numéro de chambre complétés ensuite par lots
+     */
+    public BookingResponseDTO(Long id, Long customerId, Long roomId, LocalDate checkInDate, LocalDate checkOutDate,
+                              Integer numberOfGuests, BigDecimal totalPrice, BookingStatus status,
+                              LocalDateTime createdAt) {
+        this(id, customerId, null, roomId, null, checkInDate, checkOutDate, numberOfGuests, totalPrice,
+            status.name(), null, createdAt);
+    }
 }
\ No newline at end of file
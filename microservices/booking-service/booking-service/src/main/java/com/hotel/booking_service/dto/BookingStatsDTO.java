@@ -0,0 +1,15 @@
+package com.hotel.booking_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingStatsDTO {
+    private Long total;
+    private Map<String, Long> byStatus;
+}
@@ -0,0 +1,16 @@
+package com.hotel.booking_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerChangedEventDTO {
+    private Long customerId;
+    private String changeType;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,16 @@
+package com.hotel.booking_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomChangedEventDTO {
+    private Long roomId;
+    private String changeType;
+    private LocalDateTime occurredAt;
+}
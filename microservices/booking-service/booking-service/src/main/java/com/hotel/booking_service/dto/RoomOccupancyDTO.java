@@ -0,0 +1,23 @@
+package com.hotel.booking_service.dto;
+
+import com.hotel.booking_service.model.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Séjour actif d'une chambre, sous forme compacte (chargement des index d'occupation de room-service,
+ * rattrapage de son inventaire pour les séjours CONFIRMED)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomOccupancyDTO {
+    private Long bookingId;
+    private Long roomId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private BookingStatus status;
+}
@@ -0,0 +1,15 @@
+package com.hotel.booking_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomSummaryDTO {
+    private Long id;
+    private String roomNumber;
+    private String roomType;
+    private Integer floor;
+}
@@ -0,0 +1,23 @@
+package com.hotel.booking_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Planning chambres × nuits encodé par plages (run-length) ; bookings donne le statut
+ * de chaque réservation référencée dans les lignes
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TapeChartDTO {
+    private LocalDate from;
+    private int days;
+    private List<TapeChartRowDTO> rooms;
+    private Map<Long, String> bookings;
+}
@@ -0,0 +1,19 @@
+package com.hotel.booking_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ligne du planning : runs = paires [bookingId, nombre de nuits], bookingId 0 = nuits libres
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TapeChartRowDTO {
+    private Long roomId;
+    private String roomNumber;
+    private String roomType;
+    private Integer floor;
+    private long[] runs;
+}
@@ -1,21 +1,35 @@
 package com.hotel.booking_service.messaging;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hotel.booking_service.dto.BookingEventDTO;
+import com.hotel.booking_service.model.OutboxEvent;
+import com.hotel.booking_service.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Les événements ne sont plus envoyés directement à RabbitMQ : ils sont écrits
+ * dans l'outbox, dans la transaction du changement de statut, puis envoyés
+ * par BookingOutboxRelay
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class BookingEventPublisher {
     
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
     
-    @Value("${rabbitmq.exchange.booking}")
-    private String bookingExchange;
+    @Value("${rabbitmq.routing-key.booking-created}")
+    private String bookingCreatedRoutingKey;
+    
+    @Value("${rabbitmq.routing-key.booking-cancelled}")
+    private String bookingCancelledRoutingKey;
     
     @Value("${rabbitmq.routing-key.booking-confirmed}")
     private String bookingConfirmedRoutingKey;
@@ -24,39 +38,52 @@ public class BookingEventPublisher {
     private String bookingCompletedRoutingKey;
     
     /**
-     * Publier l'événement de confirmation de réservation
+     * Enregistrer l'événement de création de réservation (occupation des chambres dans room-service)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishBookingCreated(BookingEventDTO event) {
+        enqueue(event, bookingCreatedRoutingKey);
+    }
+    
+    /**
+     * Enregistrer l'événement d'annulation de réservation
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishBookingCancelled(BookingEventDTO event) {
+        enqueue(event, bookingCancelledRoutingKey);
+    }
+    
+    /**
+     * Enregistrer l'événement de confirmation de réservation
      */
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishBookingConfirmed(BookingEventDTO event) {
-        try {
-            log.info("Publishing booking confirmed event for booking: {}", event.getBookingId());
-            rabbitTemplate.convertAndSend(
-                bookingExchange,
-                bookingConfirmedRoutingKey,
-                event
-            );
-            log.info("Booking confirmed event published successfully");
-        } catch (Exception e) {
-            log.error("Failed to publish booking confirmed event", e);
-            throw new RuntimeException("Failed to publish booking event", e);
-        }
+        enqueue(event, bookingConfirmedRoutingKey);
     }
     
     /**
-     * Publier l'événement de complétion de réservation
-     * ⚠️ CETTE MÉTHODE DOIT EXISTER
+     * Enregistrer l'événement de complétion de réservation
      */
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishBookingCompleted(BookingEventDTO event) {
+        enqueue(event, bookingCompletedRoutingKey);
+    }
+    
+    private void enqueue(BookingEventDTO event, String routingKey) {
+        String payload;
         try {
-            log.info("Publishing booking completed event for booking: {}", event.getBookingId());
-            rabbitTemplate.convertAndSend(
-                bookingExchange,
-                bookingCompletedRoutingKey,
-                event
-            );
-            log.info("Booking completed event published successfully");
-        } catch (Exception e) {
-            log.error("Failed to publish booking completed event", e);
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize booking event", e);
             throw new RuntimeException("Failed to publish booking event", e);
         }
+        
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setBookingId(event.getBookingId());
+        outboxEvent.setRoutingKey(routingKey);
+        outboxEvent.setPayload(payload);
+        outboxEventRepository.save(outboxEvent);
+        
+        log.info("Booking event {} queued in outbox for booking: {}", routingKey, event.getBookingId());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package com.hotel.booking_service.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking_service.dto.BookingEventDTO;
+import com.hotel.booking_service.model.OutboxEvent;
+import com.hotel.booking_service.repository.OutboxEventRepository;
+import com.hotel.common.outbox.OutboxRelay;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Relais de l'outbox des réservations (métriques booking.outbox.*), ordonné par réservation.
+ * Le payload est relu en BookingEventDTO puis converti par le convertisseur JSON du RabbitTemplate :
+ * un payload illisible compte comme un échec et finit mis de côté.
+ */
+@Component
+public class BookingOutboxRelay extends OutboxRelay<OutboxEvent> {
+    
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    
+    public BookingOutboxRelay(OutboxEventRepository outboxEventRepository,
+                              RabbitTemplate rabbitTemplate,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${rabbitmq.exchange.booking}") String bookingExchange,
+                              @Value("${booking.outbox.batch-size:100}") int batchSize,
+                              @Value("${booking.outbox.max-events-per-pass:1000}") int maxEventsPerPass,
+                              @Value("${booking.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+                              @Value("${booking.outbox.initial-backoff-ms:1000}") long initialBackoffMs,
+                              @Value("${booking.outbox.max-backoff-ms:60000}") long maxBackoffMs,
+                              @Value("${booking.outbox.max-attempts:20}") int maxAttempts) {
+        super("booking", outboxEventRepository, rabbitTemplate, bookingExchange,
+            new Settings(batchSize, maxEventsPerPass, confirmTimeoutMs, initialBackoffMs, maxBackoffMs, maxAttempts),
+            meterRegistry);
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    @Scheduled(fixedDelayString = "${booking.outbox.poll-interval-ms:500}")
+    @Transactional
+    public void drain() {
+        super.drain();
+    }
+    
+    @Override
+    protected Message toMessage(OutboxEvent event) throws Exception {
+        BookingEventDTO payload = objectMapper.readValue(event.getPayload(), BookingEventDTO.class);
+        return rabbitTemplate.getMessageConverter().toMessage(payload, new MessageProperties());
+    }
+}
@@ -0,0 +1,35 @@
+package com.hotel.booking_service.messaging;
+
+import com.hotel.booking_service.dto.CustomerChangedEventDTO;
+import com.hotel.booking_service.service.CustomerSnapshotCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.listener.AsyncConsumerStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Évince du cache local les clients modifiés ou supprimés dans customer-service
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerChangeListener {
+    
+    private final CustomerSnapshotCache customerCache;
+    
+    @RabbitListener(queues = "#{customerChangesQueue.name}")
+    public void handleCustomerChanged(CustomerChangedEventDTO event) {
+        log.debug("Customer {} changed ({}), evicting cached snapshot", event.getCustomerId(), event.getChangeType());
+        customerCache.evict(event.getCustomerId());
+    }
+    
+    /**
+     * Même principe que RoomChangeListener : queue exclusive, cache vidé à chaque (re)connexion
+     */
+    @EventListener
+    public void onConsumerStarted(AsyncConsumerStartedEvent event) {
+        customerCache.evictAll();
+    }
+}
@@ -0,0 +1,37 @@
+package com.hotel.booking_service.messaging;
+
+import com.hotel.booking_service.dto.RoomChangedEventDTO;
+import com.hotel.booking_service.service.RoomSnapshotCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.listener.AsyncConsumerStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Évince du cache local les chambres modifiées dans room-service
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomChangeListener {
+    
+    private final RoomSnapshotCache roomCache;
+    
+    @RabbitListener(queues = "#{roomChangesQueue.name}")
+    public void handleRoomChanged(RoomChangedEventDTO event) {
+        log.debug("Room {} changed ({}), evicting cached snapshot", event.getRoomId(), event.getChangeType());
+        roomCache.evict(event.getRoomId());
+    }
+    
+    /**
+     * La queue est exclusive à cette instance : les notifications émises pendant
+     * une déconnexion sont perdues, on repart donc d'un cache vide à chaque (re)connexion
+     */
+    @EventListener
+    public void onConsumerStarted(AsyncConsumerStartedEvent event) {
+        log.info("Room change consumer started, clearing room cache");
+        roomCache.evictAll();
+    }
+}
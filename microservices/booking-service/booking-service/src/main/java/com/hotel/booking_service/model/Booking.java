@@ -10,7 +10,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+    @Index(name = "idx_bookings_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_bookings_customer_created_at_id", columnList = "customerId, created_at, id"),
+    @Index(name = "idx_bookings_room_created_at_id", columnList = "roomId, created_at, id"),
+    @Index(name = "idx_bookings_room_check_in", columnList = "roomId, checkInDate, checkOutDate")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
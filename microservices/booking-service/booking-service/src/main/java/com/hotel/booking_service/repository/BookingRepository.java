@@ -1,24 +1,75 @@
 package com.hotel.booking_service.repository;
 
+import com.hotel.booking_service.dto.BookingResponseDTO;
+import com.hotel.booking_service.dto.RoomOccupancyDTO;
+import com.hotel.booking_service.dto.TapeChartStayDTO;
 import com.hotel.booking_service.model.Booking;
 import com.hotel.booking_service.model.BookingStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     
+    // Listes paginées par clé (createdAt, id) : projection directe en DTO, sans entité gérée
+    String PAGE_SELECT = "SELECT new com.hotel.booking_service.dto.BookingResponseDTO(" +
+        "b.id, b.customerId, b.roomId, b.checkInDate, b.checkOutDate, b.numberOfGuests, b.totalPrice, " +
+        "b.status, b.createdAt) FROM Booking b ";
+    String AFTER_CURSOR = "(b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+        "ORDER BY b.createdAt DESC, b.id DESC";
+    
+    @Query(PAGE_SELECT + "WHERE " + AFTER_CURSOR)
+    List<BookingResponseDTO> findPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                      Pageable limit);
+    
+    @Query(PAGE_SELECT + "WHERE b.customerId = :customerId AND " + AFTER_CURSOR)
+    List<BookingResponseDTO> findPageByCustomerId(@Param("customerId") Long customerId,
+                                                  @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                  Pageable limit);
+    
+    @Query(PAGE_SELECT + "WHERE b.roomId = :roomId AND " + AFTER_CURSOR)
+    List<BookingResponseDTO> findPageByRoomId(@Param("roomId") Long roomId,
+                                              @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                              Pageable limit);
+    
+    // Séjours actifs non terminés à la date donnée, sans entité gérée
+    @Query("SELECT new com.hotel.booking_service.dto.RoomOccupancyDTO(b.id, b.roomId, b.checkInDate, b.checkOutDate, b.status) " +
+           "FROM Booking b WHERE b.status IN :statuses AND b.checkOutDate > :from")
+    List<RoomOccupancyDTO> findOccupancy(@Param("statuses") Collection<BookingStatus> statuses,
+                                         @Param("from") LocalDate from);
+    
+    // Séjours des chambres données ayant au moins une nuit dans [from, to) (index roomId, checkInDate)
+    @Query("SELECT new com.hotel.booking_service.dto.TapeChartStayDTO(b.id, b.roomId, b.checkInDate, b.checkOutDate, b.status) " +
+           "FROM Booking b WHERE b.roomId IN :roomIds AND b.status IN :statuses " +
+           "AND b.checkInDate < :to AND b.checkOutDate > :from ORDER BY b.checkInDate, b.id")
+    List<TapeChartStayDTO> findStaysInWindow(@Param("roomIds") Collection<Long> roomIds,
+                                             @Param("statuses") Collection<BookingStatus> statuses,
+                                             @Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    // Verrou transactionnel par chambre : sérialise les créations concurrentes sur la même chambre
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:roomId)", nativeQuery = true)
+    Integer lockRoom(@Param("roomId") Long roomId);
+    
+    // Attente maximale des verrous pour la transaction en cours (ex. "2000ms")
+    @Query(value = "SELECT set_config('lock_timeout', :timeout, true)", nativeQuery = true)
+    String setLockTimeout(@Param("timeout") String timeout);
+    
     List<Booking> findByCustomerId(Long customerId);
     
     List<Booking> findByRoomId(Long roomId);
     
     List<Booking> findByStatus(BookingStatus status);
     
+    List<Booking> findByStatusIn(Collection<BookingStatus> statuses);
+    
     @Query("SELECT b FROM Booking b WHERE b.roomId = :roomId " +
            "AND b.status IN ('PENDING', 'CONFIRMED') " +
            "AND ((b.checkInDate <= :checkOut AND b.checkOutDate >= :checkIn))")
@@ -35,4 +86,12 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findBookingsCheckingOutToday(@Param("date") LocalDate date);
 
     long countByStatus(BookingStatus status);
+    
+    @Query("SELECT b.status AS status, COUNT(b) AS count FROM Booking b GROUP BY b.status")
+    List<StatusCount> countGroupedByStatus();
+    
+    interface StatusCount {
+        BookingStatus getStatus();
+        long getCount();
+    }
 }
\ No newline at end of file
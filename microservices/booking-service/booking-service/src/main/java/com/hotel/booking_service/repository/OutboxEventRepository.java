@@ -0,0 +1,40 @@
+package com.hotel.booking_service.repository;
+
+import com.hotel.booking_service.model.OutboxEvent;
+import com.hotel.common.outbox.OutboxStore;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxStore<OutboxEvent> {
+    
+    /**
+     * Premier événement non mis de côté de chaque réservation, dont l'essai est dû, verrouillé pour
+     * ce relais. Une autre instance saute ces lignes et ne voit les suivants d'une réservation comme
+     * têtes qu'une fois la suppression de celui-ci validée. Une réservation en backoff ne prend pas de place.
+     */
+    @Query(value = "SELECT o.* FROM booking_outbox o WHERE o.parked_at IS NULL AND o.next_attempt_at <= :now "
+        + "AND NOT EXISTS (SELECT 1 FROM booking_outbox p "
+        + "WHERE p.booking_id = o.booking_id AND p.id < o.id AND p.parked_at IS NULL) "
+        + "ORDER BY o.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    @Override
+    List<OutboxEvent> lockReadyHeads(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    @Query("SELECT o FROM OutboxEvent o WHERE o.bookingId IN :bookingIds AND o.parkedAt IS NULL ORDER BY o.id")
+    @Override
+    List<OutboxEvent> findPendingByAggregateIdIn(@Param("bookingIds") Collection<Long> bookingIds, Pageable pageable);
+    
+    @Override
+    Optional<OutboxEvent> findFirstByParkedAtIsNullOrderByIdAsc();
+    
+    @Override
+    long countByParkedAtIsNull();
+}
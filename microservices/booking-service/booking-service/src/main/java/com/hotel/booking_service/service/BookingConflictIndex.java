@@ -0,0 +1,264 @@
+package com.hotel.booking_service.service;
+
+import com.hotel.booking_service.model.Booking;
+import com.hotel.booking_service.model.BookingStatus;
+import com.hotel.booking_service.repository.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index en mémoire des séjours actifs (PENDING / CONFIRMED) par chambre, utilisé comme
+ * rejet rapide : une demande en conflit avec un séjour connu est refusée sans verrou ni
+ * requête SQL. Une demande qui passe l'index est toujours revérifiée en base sous le
+ * verrou consultatif (findConflictingBookings), seule vérification qui fait foi : l'index
+ * n'économise donc la requête que pour les rejets (booking.conflict.index.checks,
+ * result=rejected). Chargé au démarrage et réconcilié périodiquement avec la base.
+ */
+@Component
+@Slf4j
+public class BookingConflictIndex {
+    
+    static final Set<BookingStatus> ACTIVE_STATUSES = EnumSet.of(BookingStatus.PENDING, BookingStatus.CONFIRMED);
+    
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+    
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private volatile Map<Long, RoomStays> rooms = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+    private final AtomicLong modifications = new AtomicLong();
+    
+    private final Counter rejected;
+    private final Counter passed;
+    private final Counter unavailable;
+    private final Counter drift;
+    
+    public BookingConflictIndex(BookingRepository bookingRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${booking.conflict-index.enabled:true}") boolean enabled) {
+        this.bookingRepository = bookingRepository;
+        this.enabled = enabled;
+        this.rejected = Counter.builder("booking.conflict.index.checks")
+            .tag("result", "rejected")
+            .description("Requests rejected by the in-memory index without locking or querying the database")
+            .register(meterRegistry);
+        this.passed = Counter.builder("booking.conflict.index.checks")
+            .tag("result", "passed")
+            .description("Requests with no conflict in the index, still checked in the database under the lock")
+            .register(meterRegistry);
+        this.unavailable = Counter.builder("booking.conflict.index.checks")
+            .tag("result", "unavailable")
+            .description("Requests checked while the index was not loaded")
+            .register(meterRegistry);
+        this.drift = Counter.builder("booking.conflict.index.drift")
+            .description("Reconciliations that found the index out of sync with the database")
+            .register(meterRegistry);
+        Gauge.builder("booking.conflict.index.stays", this, BookingConflictIndex::size)
+            .description("Active stays held in the conflict index")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Charger l'index une fois l'application démarrée
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            log.info("Booking conflict index disabled, using database checks only");
+            return;
+        }
+        reconcile();
+    }
+    
+    /**
+     * Vérifie si la chambre a un séjour actif qui chevauche [checkIn, checkOut]
+     * (mêmes bornes inclusives que BookingRepository.findConflictingBookings).
+     * Retourne Optional.empty() si l'index ne peut pas répondre. Seul un true
+     * dispense de la base : false ne garantit rien (écritures pas encore appliquées,
+     * autres instances) et l'appelant doit revérifier sous verrou.
+     */
+    public Optional<Boolean> hasConflict(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        if (!ready) {
+            unavailable.increment();
+            return Optional.empty();
+        }
+        snapshotLock.readLock().lock();
+        try {
+            RoomStays stays = rooms.get(roomId);
+            boolean conflict = stays != null && stays.overlaps(checkIn, checkOut);
+            (conflict ? rejected : passed).increment();
+            return Optional.of(conflict);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Répercute l'état d'une réservation dans l'index, après le commit de la
+     * transaction en cours (ou immédiatement s'il n'y en a pas)
+     */
+    public void update(Booking booking) {
+        if (!enabled) {
+            return;
+        }
+        Stay stay = new Stay(booking.getId(), booking.getCheckInDate(), booking.getCheckOutDate());
+        Long roomId = booking.getRoomId();
+        boolean active = ACTIVE_STATUSES.contains(booking.getStatus());
+        
+        Runnable apply = () -> {
+            snapshotLock.readLock().lock();
+            try {
+                modifications.incrementAndGet();
+                if (active) {
+                    rooms.computeIfAbsent(roomId, id -> new RoomStays()).put(stay);
+                } else {
+                    RoomStays stays = rooms.get(roomId);
+                    if (stays != null) {
+                        stays.remove(stay.bookingId());
+                    }
+                }
+            } finally {
+                snapshotLock.readLock().unlock();
+            }
+        };
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+    
+    /**
+     * Reconstruit l'index depuis la base et le remplace s'il a dérivé.
+     * Si une écriture a eu lieu pendant le chargement, on réessaie au prochain passage.
+     */
+    @Scheduled(
+        initialDelayString = "${booking.conflict-index.reconcile-interval-ms:300000}",
+        fixedDelayString = "${booking.conflict-index.reconcile-interval-ms:300000}"
+    )
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long before = modifications.get();
+            Map<Long, RoomStays> fresh = new ConcurrentHashMap<>();
+            for (Booking booking : bookingRepository.findByStatusIn(ACTIVE_STATUSES)) {
+                fresh.computeIfAbsent(booking.getRoomId(), id -> new RoomStays())
+                    .put(new Stay(booking.getId(), booking.getCheckInDate(), booking.getCheckOutDate()));
+            }
+            
+            snapshotLock.writeLock().lock();
+            try {
+                if (modifications.get() != before) {
+                    log.debug("Bookings changed during index reconciliation, retrying later");
+                    return;
+                }
+                if (ready && !sameContent(rooms, fresh)) {
+                    drift.increment();
+                    log.warn("Booking conflict index drifted from the database, rebuilding");
+                }
+                rooms = fresh;
+                ready = true;
+            } finally {
+                snapshotLock.writeLock().unlock();
+            }
+            log.info("Booking conflict index loaded: {} active stays", size());
+        } catch (Exception e) {
+            log.error("Failed to reconcile booking conflict index", e);
+        }
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    int size() {
+        return rooms.values().stream().mapToInt(RoomStays::size).sum();
+    }
+    
+    private static boolean sameContent(Map<Long, RoomStays> a, Map<Long, RoomStays> b) {
+        Map<Long, Map<Long, Stay>> left = new HashMap<>();
+        a.forEach((roomId, stays) -> {
+            Map<Long, Stay> copy = stays.copy();
+            if (!copy.isEmpty()) {
+                left.put(roomId, copy);
+            }
+        });
+        Map<Long, Map<Long, Stay>> right = new HashMap<>();
+        b.forEach((roomId, stays) -> right.put(roomId, stays.copy()));
+        return left.equals(right);
+    }
+    
+    record Stay(Long bookingId, LocalDate checkIn, LocalDate checkOut) {
+    }
+    
+    /**
+     * Séjours d'une chambre triés par date de départ : seuls ceux qui partent
+     * après l'arrivée demandée sont parcourus
+     */
+    private static final class RoomStays {
+        
+        private static final Comparator<Stay> BY_CHECK_OUT = Comparator
+            .comparing(Stay::checkOut)
+            .thenComparing(Stay::bookingId);
+        
+        private final TreeSet<Stay> byCheckOut = new TreeSet<>(BY_CHECK_OUT);
+        private final Map<Long, Stay> byBookingId = new HashMap<>();
+        
+        synchronized void put(Stay stay) {
+            Stay previous = byBookingId.put(stay.bookingId(), stay);
+            if (previous != null) {
+                byCheckOut.remove(previous);
+            }
+            byCheckOut.add(stay);
+        }
+        
+        synchronized void remove(Long bookingId) {
+            Stay previous = byBookingId.remove(bookingId);
+            if (previous != null) {
+                byCheckOut.remove(previous);
+            }
+        }
+        
+        synchronized boolean overlaps(LocalDate checkIn, LocalDate checkOut) {
+            Stay from = new Stay(Long.MIN_VALUE, checkIn, checkIn);
+            for (Stay stay : byCheckOut.tailSet(from, true)) {
+                if (!stay.checkIn().isAfter(checkOut)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        synchronized int size() {
+            return byBookingId.size();
+        }
+        
+        synchronized Map<Long, Stay> copy() {
+            return new HashMap<>(byBookingId);
+        }
+    }
+}
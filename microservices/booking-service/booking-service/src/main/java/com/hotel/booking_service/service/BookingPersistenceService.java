@@ -0,0 +1,190 @@
+package com.hotel.booking_service.service;
+
+import com.hotel.booking_service.dto.BookingEventDTO;
+import com.hotel.booking_service.dto.BookingResponseDTO;
+import com.hotel.booking_service.dto.RoomOccupancyDTO;
+import com.hotel.booking_service.dto.TapeChartStayDTO;
+import com.hotel.booking_service.exception.BookingNotFoundException;
+import com.hotel.booking_service.exception.InvalidBookingException;
+import com.hotel.booking_service.exception.RoomNotAvailableException;
+import com.hotel.booking_service.messaging.BookingEventPublisher;
+import com.hotel.booking_service.model.Booking;
+import com.hotel.booking_service.model.BookingStatus;
+import com.hotel.booking_service.repository.BookingRepository;
+import com.hotel.common.dto.CursorPage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Partie transactionnelle du cycle de vie des réservations.
+ * Ne contient que des accès base : les appels Feign restent dans BookingService,
+ * hors transaction, pour ne pas garder une connexion du pool pendant un appel
+ * distant. Les événements RabbitMQ partent de l'outbox (BookingOutboxRelay).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingPersistenceService {
+    
+    private final BookingRepository bookingRepository;
+    private final BookingConflictIndex conflictIndex;
+    private final BookingEventPublisher eventPublisher;
+    private final BookingStatusCounters statusCounters;
+    
+    @Value("${booking.create.lock-timeout-ms:2000}")
+    private long lockTimeoutMs;
+    
+    @Transactional(readOnly = true)
+    public Booking getBooking(Long id) {
+        return bookingRepository.findById(id)
+            .orElseThrow(() -> new BookingNotFoundException("Booking not found with id: " + id));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<BookingResponseDTO> findPage(CursorPage.Cursor after, int size) {
+        return bookingRepository.findPage(after.createdAt(), after.id(), CursorPage.limit(size));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<BookingResponseDTO> findPageByCustomerId(Long customerId, CursorPage.Cursor after, int size) {
+        return bookingRepository.findPageByCustomerId(customerId, after.createdAt(), after.id(),
+            CursorPage.limit(size));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<BookingResponseDTO> findPageByRoomId(Long roomId, CursorPage.Cursor after, int size) {
+        return bookingRepository.findPageByRoomId(roomId, after.createdAt(), after.id(), CursorPage.limit(size));
+    }
+    
+    /**
+     * Vérifie les conflits puis enregistre la nouvelle réservation.
+     * Les créations sur une même chambre sont sérialisées par un verrou consultatif
+     * Postgres (pg_advisory_xact_lock, libéré au commit) : la vérification en base et
+     * l'insertion ne peuvent pas s'entrelacer entre deux requêtes. Au-delà de
+     * booking.create.lock-timeout-ms d'attente, PessimisticLockingFailureException
+     * est levée et l'appelant peut réessayer.
+     */
+    @Transactional
+    public Booking create(Booking booking) {
+        // Rejet rapide sans verrou si l'index mémoire voit déjà un conflit
+        if (conflictIndex.hasConflict(booking.getRoomId(), booking.getCheckInDate(), booking.getCheckOutDate())
+                .orElse(false)) {
+            throw new RoomNotAvailableException(
+                "Room is already booked for the selected dates"
+            );
+        }
+        
+        bookingRepository.setLockTimeout(lockTimeoutMs + "ms");
+        bookingRepository.lockRoom(booking.getRoomId());
+        
+        // Sous le verrou, la base fait foi : l'index n'est mis à jour qu'après le commit
+        // de la réservation précédente et peut encore l'ignorer
+        boolean hasConflict = !bookingRepository.findConflictingBookings(
+            booking.getRoomId(),
+            booking.getCheckInDate(),
+            booking.getCheckOutDate()
+        ).isEmpty();
+        
+        if (hasConflict) {
+            throw new RoomNotAvailableException(
+                "Room is already booked for the selected dates"
+            );
+        }
+        
+        Booking savedBooking = bookingRepository.save(booking);
+        conflictIndex.update(savedBooking);
+        statusCounters.changed(null, savedBooking.getStatus());
+        eventPublisher.publishBookingCreated(toEvent(savedBooking));
+        return savedBooking;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<RoomOccupancyDTO> findOccupancy(LocalDate from) {
+        return bookingRepository.findOccupancy(BookingConflictIndex.ACTIVE_STATUSES, from);
+    }
+    
+    // Le planning montre aussi les séjours terminés sur la partie passée de la fenêtre
+    private static final Set<BookingStatus> TAPE_CHART_STATUSES =
+        EnumSet.of(BookingStatus.PENDING, BookingStatus.CONFIRMED, BookingStatus.COMPLETED);
+    
+    @Transactional(readOnly = true)
+    public List<TapeChartStayDTO> findStaysInWindow(Collection<Long> roomIds, LocalDate from, LocalDate to) {
+        return bookingRepository.findStaysInWindow(roomIds, TAPE_CHART_STATUSES, from, to);
+    }
+    
+    /**
+     * Relit la réservation, revalide la transition (le statut a pu changer
+     * pendant les appels distants) et enregistre le nouveau statut.
+     * Les événements pour le Billing Service sont écrits dans l'outbox
+     * dans la même transaction.
+     */
+    @Transactional
+    public Booking changeStatus(Long bookingId, BookingStatus target) {
+        Booking booking = bookingRepository.findById(bookingId)
+            .orElseThrow(() -> new BookingNotFoundException("Booking not found with id: " + bookingId));
+        
+        BookingStatus previous = booking.getStatus();
+        checkTransition(previous, target);
+        
+        booking.setStatus(target);
+        Booking savedBooking = bookingRepository.save(booking);
+        conflictIndex.update(savedBooking);
+        statusCounters.changed(previous, target);
+        
+        if (target == BookingStatus.CONFIRMED) {
+            eventPublisher.publishBookingConfirmed(toEvent(savedBooking));
+        } else if (target == BookingStatus.COMPLETED) {
+            eventPublisher.publishBookingCompleted(toEvent(savedBooking));
+        } else if (target == BookingStatus.CANCELLED) {
+            eventPublisher.publishBookingCancelled(toEvent(savedBooking));
+        }
+        return savedBooking;
+    }
+    
+    private BookingEventDTO toEvent(Booking booking) {
+        return new BookingEventDTO(
+            booking.getId(),
+            booking.getCustomerId(),
+            booking.getRoomId(),
+            booking.getCheckInDate(),
+            booking.getCheckOutDate(),
+            booking.getTotalPrice(),
+            booking.getStatus().name(),
+            LocalDateTime.now()
+        );
+    }
+    
+    /**
+     * Règles de transition entre statuts
+     */
+    static void checkTransition(BookingStatus current, BookingStatus target) {
+        switch (target) {
+            case CONFIRMED -> {
+                if (current != BookingStatus.PENDING) {
+                    throw new InvalidBookingException("Only pending bookings can be confirmed");
+                }
+            }
+            case CANCELLED -> {
+                if (current == BookingStatus.COMPLETED || current == BookingStatus.CANCELLED) {
+                    throw new InvalidBookingException("Cannot cancel a " + current + " booking");
+                }
+            }
+            case COMPLETED -> {
+                if (current != BookingStatus.CONFIRMED) {
+                    throw new InvalidBookingException("Only confirmed bookings can be completed");
+                }
+            }
+            default -> throw new InvalidBookingException("Unsupported status transition to " + target);
+        }
+    }
+}
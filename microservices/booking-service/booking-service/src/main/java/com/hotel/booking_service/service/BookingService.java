@@ -1,41 +1,61 @@
 package com.hotel.booking_service.service;
 
-import com.hotel.booking_service.client.CustomerServiceClient;
 import com.hotel.booking_service.client.RoomServiceClient;
 import com.hotel.booking_service.dto.BookingRequestDTO;
 import com.hotel.booking_service.dto.BookingResponseDTO;
-import com.hotel.booking_service.dto.BookingEventDTO;
+import com.hotel.booking_service.dto.BookingStatsDTO;
 import com.hotel.booking_service.dto.CustomerDTO;
+import com.hotel.booking_service.dto.InventoryHoldRequestDTO;
 import com.hotel.booking_service.dto.RoomDTO;
-import com.hotel.booking_service.exception.BookingNotFoundException;
+import com.hotel.booking_service.dto.RoomOccupancyDTO;
+import com.hotel.booking_service.dto.RoomSummaryDTO;
+import com.hotel.booking_service.dto.TapeChartDTO;
+import com.hotel.booking_service.dto.TapeChartRowDTO;
+import com.hotel.booking_service.dto.TapeChartStayDTO;
 import com.hotel.booking_service.exception.InvalidBookingException;
 import com.hotel.booking_service.exception.RoomNotAvailableException;
-import com.hotel.booking_service.messaging.BookingEventPublisher;
 import com.hotel.booking_service.model.Booking;
 import com.hotel.booking_service.model.BookingStatus;
 import com.hotel.booking_service.repository.BookingRepository;
+import com.hotel.common.dto.CursorPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
-@Transactional
 @Slf4j
 public class BookingService {
     
     private final BookingRepository bookingRepository;
+    private final BookingPersistenceService persistenceService;
     private final RoomServiceClient roomServiceClient;
-    private final CustomerServiceClient customerServiceClient;
-    private final BookingEventPublisher eventPublisher;
+    private final RoomSnapshotCache roomCache;
+    private final CustomerSnapshotCache customerCache;
+    private final BookingStatusCounters statusCounters;
+    
+    private static final int DEFAULT_TAPE_CHART_DAYS = 60;
+    private static final int MAX_TAPE_CHART_DAYS = 120;
+    private static final int MAX_CREATE_ATTEMPTS = 3;
+    private static final List<String> RESERVABLE_ROOM_STATUSES = List.of("AVAILABLE", "RESERVED");
+    private static final List<String> RELEASABLE_ROOM_STATUSES = List.of("RESERVED", "OCCUPIED");
+    
+    // ⚠️ Pas de @Transactional sur la classe : les appels Feign se font hors transaction,
+    // seules les écritures (et l'outbox des événements) passent par BookingPersistenceService
     
     public BookingResponseDTO createBooking(BookingRequestDTO request) {
         log.info("Creating booking for customer: {} and room: {}", 
@@ -44,18 +64,18 @@ public class BookingService {
         // Validation des dates
         validateBookingDates(request.getCheckInDate(), request.getCheckOutDate());
         
-        // Vérifier que le client existe
+        // Vérifier que le client existe (lecture directe : un client supprimé ne peut plus réserver)
         CustomerDTO customer;
         try {
-            customer = customerServiceClient.getCustomerById(request.getCustomerId());
+            customer = customerCache.getFresh(request.getCustomerId());
         } catch (Exception e) {
             throw new InvalidBookingException("Customer not found with id: " + request.getCustomerId());
         }
         
-        // Vérifier que la chambre existe et est disponible
+        // Vérifier que la chambre existe et est disponible (lecture directe : statut et prix à jour)
         RoomDTO room;
         try {
-            room = roomServiceClient.getRoomById(request.getRoomId());
+            room = roomCache.getFresh(request.getRoomId());
         } catch (Exception e) {
             throw new InvalidBookingException("Room not found with id: " + request.getRoomId());
         }
@@ -71,19 +91,6 @@ public class BookingService {
             );
         }
         
-        // Vérifier les conflits de réservation
-        List<Booking> conflicts = bookingRepository.findConflictingBookings(
-            request.getRoomId(),
-            request.getCheckInDate(),
-            request.getCheckOutDate()
-        );
-        
-        if (!conflicts.isEmpty()) {
-            throw new RoomNotAvailableException(
-                "Room is already booked for the selected dates"
-            );
-        }
-        
         // Calculer le prix total
         long numberOfNights = ChronoUnit.DAYS.between(
             request.getCheckInDate(),
@@ -102,163 +109,205 @@ public class BookingService {
         booking.setStatus(BookingStatus.PENDING);
         booking.setSpecialRequests(request.getSpecialRequests());
         
-        Booking savedBooking = bookingRepository.save(booking);
+        // Transaction courte : verrou de la chambre, vérification des conflits + insertion
+        Booking savedBooking = createWithRetry(booking);
         log.info("Booking created with id: {}", savedBooking.getId());
         
         return convertToDTO(savedBooking, customer, room);
     }
     
+    /**
+     * Réessaie la création si le verrou de la chambre n'a pas pu être obtenu à temps
+     * (forte contention sur une même chambre). Chaque tentative est une nouvelle transaction.
+     */
+    private Booking createWithRetry(Booking booking) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return persistenceService.create(booking);
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= MAX_CREATE_ATTEMPTS) {
+                    log.warn("Room {} still locked after {} attempts", booking.getRoomId(), attempt);
+                    throw new RoomNotAvailableException("Room is being booked by another request, please retry");
+                }
+                log.debug("Room {} lock timeout, retrying (attempt {})", booking.getRoomId(), attempt);
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(10, 50L * attempt));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+    
     public BookingResponseDTO confirmBooking(Long bookingId) {
         log.info("Confirming booking: {}", bookingId);
         
-        Booking booking = bookingRepository.findById(bookingId)
-            .orElseThrow(() -> new BookingNotFoundException("Booking not found with id: " + bookingId));
-        
-        if (booking.getStatus() != BookingStatus.PENDING) {
-            throw new InvalidBookingException("Only pending bookings can be confirmed");
-        }
+        Booking booking = persistenceService.getBooking(bookingId);
+        BookingPersistenceService.checkTransition(booking.getStatus(), BookingStatus.CONFIRMED);
         
         // Mettre à jour le statut de la chambre
         try {
-            roomServiceClient.updateRoomStatus(booking.getRoomId(), "RESERVED");
+            // Jamais par-dessus une maintenance ou une occupation en cours
+            roomServiceClient.transitionRoomStatus(booking.getRoomId(), RESERVABLE_ROOM_STATUSES, "RESERVED");
         } catch (Exception e) {
             log.error("Failed to update room status", e);
             throw new InvalidBookingException("Failed to reserve room");
+        } finally {
+            roomCache.evict(booking.getRoomId());
         }
         
-        // Confirmer la réservation
-        booking.setStatus(BookingStatus.CONFIRMED);
-        Booking confirmedBooking = bookingRepository.save(booking);
-        
-        // Publier l'événement pour le Billing Service
-        BookingEventDTO event = new BookingEventDTO(
-            confirmedBooking.getId(),
-            confirmedBooking.getCustomerId(),
-            confirmedBooking.getRoomId(),
-            confirmedBooking.getCheckInDate(),
-            confirmedBooking.getCheckOutDate(),
-            confirmedBooking.getTotalPrice(),
-            confirmedBooking.getStatus().name(),
-            LocalDateTime.now()
-        );
-        eventPublisher.publishBookingConfirmed(event);
+        // Décompter les nuits dans l'inventaire par type de room-service
+        try {
+            RoomDTO room = roomCache.get(booking.getRoomId());
+            roomServiceClient.reserveInventory(new InventoryHoldRequestDTO(
+                bookingId, room.getRoomType(), booking.getCheckInDate(), booking.getCheckOutDate(), 1));
+        } catch (Exception e) {
+            log.error("Failed to reserve room inventory for booking {}", bookingId, e);
+            releaseRoom(booking.getRoomId());
+            throw new InvalidBookingException("Failed to reserve room inventory");
+        }
         
-        log.info("Booking confirmed: {}", bookingId);
+        // Confirmer la réservation (l'événement pour le Billing Service part via l'outbox)
+        Booking confirmedBooking;
+        try {
+            confirmedBooking = persistenceService.changeStatus(bookingId, BookingStatus.CONFIRMED);
+        } catch (RuntimeException e) {
+            // Compenser : la chambre a été réservée mais la réservation n'a pas été confirmée
+            releaseInventory(bookingId);
+            releaseRoom(booking.getRoomId());
+            throw e;
+        }
         
-        CustomerDTO customer = customerServiceClient.getCustomerById(booking.getCustomerId());
-        RoomDTO room = roomServiceClient.getRoomById(booking.getRoomId());
+        log.info("Booking confirmed: {}", bookingId);
         
-        return convertToDTO(confirmedBooking, customer, room);
+        return enrich(confirmedBooking);
     }
     
-    public BookingResponseDTO getBookingById(Long id) {
-        Booking booking = bookingRepository.findById(id)
-            .orElseThrow(() -> new BookingNotFoundException("Booking not found with id: " + id));
+    /**
+     * Séjours PENDING / CONFIRMED non terminés à la date donnée (chargement de l'index d'occupation de room-service)
+     */
+    public List<RoomOccupancyDTO> getOccupancy(LocalDate from) {
+        return persistenceService.findOccupancy(from != null ? from : LocalDate.now().minusDays(1));
+    }
+    
+    /**
+     * Planning réception chambres × nuits : un appel à room-service pour la liste des chambres
+     * filtrées, une requête indexée pour les séjours de la fenêtre, aucun enrichissement par ligne
+     */
+    public TapeChartDTO getTapeChart(LocalDate from, Integer days, Integer floor, String roomType) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        int window = days != null ? days : DEFAULT_TAPE_CHART_DAYS;
+        if (window < 1 || window > MAX_TAPE_CHART_DAYS) {
+            throw new InvalidBookingException("Tape chart window must be between 1 and " + MAX_TAPE_CHART_DAYS + " days");
+        }
         
-        CustomerDTO customer = customerServiceClient.getCustomerById(booking.getCustomerId());
-        RoomDTO room = roomServiceClient.getRoomById(booking.getRoomId());
+        List<RoomSummaryDTO> rooms = roomServiceClient.getRoomSummaries(floor, roomType);
+        if (rooms.isEmpty()) {
+            return new TapeChartDTO(start, window, List.of(), Map.of());
+        }
         
-        return convertToDTO(booking, customer, room);
+        Set<Long> roomIds = rooms.stream().map(RoomSummaryDTO::getId).collect(Collectors.toSet());
+        Map<Long, List<TapeChartStayDTO>> staysByRoom = new LinkedHashMap<>();
+        Map<Long, String> statuses = new LinkedHashMap<>();
+        for (TapeChartStayDTO stay : persistenceService.findStaysInWindow(roomIds, start, start.plusDays(window))) {
+            staysByRoom.computeIfAbsent(stay.getRoomId(), id -> new ArrayList<>()).add(stay);
+            statuses.put(stay.getBookingId(), stay.getStatus().name());
+        }
+        
+        List<TapeChartRowDTO> rows = rooms.stream()
+            .map(room -> new TapeChartRowDTO(
+                room.getId(),
+                room.getRoomNumber(),
+                room.getRoomType(),
+                room.getFloor(),
+                TapeChartEncoder.encode(start, window, staysByRoom.getOrDefault(room.getId(), List.of()))))
+            .toList();
+        return new TapeChartDTO(start, window, rows, statuses);
+    }
+    
+    public BookingResponseDTO getBookingById(Long id) {
+        Booking booking = persistenceService.getBooking(id);
+        return enrich(booking);
     }
     
-    public List<BookingResponseDTO> getAllBookings() {
-        return bookingRepository.findAll().stream()
-            .map(booking -> {
-                CustomerDTO customer = customerServiceClient.getCustomerById(booking.getCustomerId());
-                RoomDTO room = roomServiceClient.getRoomById(booking.getRoomId());
-                return convertToDTO(booking, customer, room);
-            })
-            .collect(Collectors.toList());
+    public CursorPage<BookingResponseDTO> getAllBookings(String cursor, Integer size) {
+        CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+        int pageSize = CursorPage.size(size);
+        return withNames(persistenceService.findPage(after, pageSize), pageSize);
     }
     
-    public List<BookingResponseDTO> getBookingsByCustomer(Long customerId) {
-        return bookingRepository.findByCustomerId(customerId).stream()
-            .map(booking -> {
-                CustomerDTO customer = customerServiceClient.getCustomerById(booking.getCustomerId());
-                RoomDTO room = roomServiceClient.getRoomById(booking.getRoomId());
-                return convertToDTO(booking, customer, room);
-            })
-            .collect(Collectors.toList());
+    public CursorPage<BookingResponseDTO> getBookingsByCustomer(Long customerId, String cursor, Integer size) {
+        CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+        int pageSize = CursorPage.size(size);
+        return withNames(persistenceService.findPageByCustomerId(customerId, after, pageSize), pageSize);
     }
     
-    public List<BookingResponseDTO> getBookingsByRoom(Long roomId) {
-        return bookingRepository.findByRoomId(roomId).stream()
-            .map(booking -> {
-                CustomerDTO customer = customerServiceClient.getCustomerById(booking.getCustomerId());
-                RoomDTO room = roomServiceClient.getRoomById(booking.getRoomId());
-                return convertToDTO(booking, customer, room);
-            })
-            .collect(Collectors.toList());
+    public CursorPage<BookingResponseDTO> getBookingsByRoom(Long roomId, String cursor, Integer size) {
+        CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+        int pageSize = CursorPage.size(size);
+        return withNames(persistenceService.findPageByRoomId(roomId, after, pageSize), pageSize);
     }
     
     public BookingResponseDTO cancelBooking(Long bookingId) {
         log.info("Cancelling booking: {}", bookingId);
         
-        Booking booking = bookingRepository.findById(bookingId)
-            .orElseThrow(() -> new BookingNotFoundException("Booking not found with id: " + bookingId));
+        Booking booking = persistenceService.getBooking(bookingId);
+        BookingPersistenceService.checkTransition(booking.getStatus(), BookingStatus.CANCELLED);
         
-        if (booking.getStatus() == BookingStatus.COMPLETED || 
-            booking.getStatus() == BookingStatus.CANCELLED) {
-            throw new InvalidBookingException("Cannot cancel a " + booking.getStatus() + " booking");
-        }
+        // Statut d'abord : si l'écriture échoue, la chambre et ses nuits restent tenues
+        // par une réservation toujours active (pas de double réservation possible)
+        Booking cancelledBooking = persistenceService.changeStatus(bookingId, BookingStatus.CANCELLED);
         
-        // Libérer la chambre
-        try {
-            roomServiceClient.updateRoomStatus(booking.getRoomId(), "AVAILABLE");
-        } catch (Exception e) {
-            log.error("Failed to update room status", e);
-        }
+        // Libérer la chambre et ses nuits (sans effet pour une réservation non confirmée)
+        releaseRoom(booking.getRoomId());
+        releaseInventory(bookingId);
+        
+        return enrich(cancelledBooking);
+    }
+    
+    public BookingResponseDTO completeBooking(Long bookingId) {
+        log.info("Completing booking: {}", bookingId);
+        
+        Booking booking = persistenceService.getBooking(bookingId);
+        BookingPersistenceService.checkTransition(booking.getStatus(), BookingStatus.COMPLETED);
         
-        booking.setStatus(BookingStatus.CANCELLED);
-        Booking cancelledBooking = bookingRepository.save(booking);
+        // L'événement qui déclenche la facture est écrit dans l'outbox avec le statut,
+        // avant de libérer la chambre : un échec ne la rend pas disponible pour rien
+        Booking completedBooking = persistenceService.changeStatus(bookingId, BookingStatus.COMPLETED);
         
-        CustomerDTO customer = customerServiceClient.getCustomerById(booking.getCustomerId());
-        RoomDTO room = roomServiceClient.getRoomById(booking.getRoomId());
+        // Libérer la chambre (les nuits restent décomptées : elles ont été vendues)
+        releaseRoom(booking.getRoomId());
         
-        return convertToDTO(cancelledBooking, customer, room);
+        log.info("Booking completed and invoice event queued: {}", bookingId);
+        
+        return enrich(completedBooking);
     }
     
-   public BookingResponseDTO completeBooking(Long bookingId) {
-    log.info("Completing booking: {}", bookingId);
-    
-    Booking booking = bookingRepository.findById(bookingId)
-        .orElseThrow(() -> new BookingNotFoundException("Booking not found with id: " + bookingId));
-    
-    if (booking.getStatus() != BookingStatus.CONFIRMED) {
-        throw new InvalidBookingException("Only confirmed bookings can be completed");
+    private void releaseRoom(Long roomId) {
+        try {
+            // Ne libère que ce qu'une réservation a posé : une maintenance reste en place
+            roomServiceClient.transitionRoomStatus(roomId, RELEASABLE_ROOM_STATUSES, "AVAILABLE");
+        } catch (Exception e) {
+            log.error("Failed to update room status", e);
+        } finally {
+            roomCache.evict(roomId);
+        }
     }
     
-    // Libérer la chambre
-    try {
-        roomServiceClient.updateRoomStatus(booking.getRoomId(), "AVAILABLE");
-    } catch (Exception e) {
-        log.error("Failed to update room status", e);
+    private void releaseInventory(Long bookingId) {
+        try {
+            roomServiceClient.releaseInventory(bookingId);
+        } catch (Exception e) {
+            log.error("Failed to release room inventory for booking {}", bookingId, e);
+        }
     }
     
-    booking.setStatus(BookingStatus.COMPLETED);
-    Booking completedBooking = bookingRepository.save(booking);
-    
-    // 🔥 AJOUTER CETTE PARTIE - Publier l'événement pour créer la facture
-    BookingEventDTO event = new BookingEventDTO(
-        completedBooking.getId(),
-        completedBooking.getCustomerId(),
-        completedBooking.getRoomId(),
-        completedBooking.getCheckInDate(),
-        completedBooking.getCheckOutDate(),
-        completedBooking.getTotalPrice(),
-        completedBooking.getStatus().name(),
-        LocalDateTime.now()
-    );
-    eventPublisher.publishBookingCompleted(event); // ou publishBookingConfirmed(event)
-    
-    log.info("Booking completed and invoice event published: {}", bookingId);
-    // 🔥 FIN DE L'AJOUT
-    
-    CustomerDTO customer = customerServiceClient.getCustomerById(booking.getCustomerId());
-    RoomDTO room = roomServiceClient.getRoomById(booking.getRoomId());
-    
-    return convertToDTO(completedBooking, customer, room);
-}
+    private BookingResponseDTO enrich(Booking booking) {
+        CustomerDTO customer = customerCache.get(booking.getCustomerId());
+        RoomDTO room = roomCache.get(booking.getRoomId());
+        return convertToDTO(booking, customer, room);
+    }
     
     private void validateBookingDates(LocalDate checkIn, LocalDate checkOut) {
         LocalDate today = LocalDate.now();
@@ -272,13 +321,44 @@ public class BookingService {
         }
     }
     
+    /**
+     * Complète une page de réservations avec un seul appel groupé par service
+     * (au lieu de 2 appels Feign par réservation), puis fait la jointure en mémoire
+     */
+    private CursorPage<BookingResponseDTO> withNames(List<BookingResponseDTO> rows, int size) {
+        CursorPage<BookingResponseDTO> page = CursorPage.of(
+            rows, size, BookingResponseDTO::getCreatedAt, BookingResponseDTO::getId);
+        List<BookingResponseDTO> bookings = page.items();
+        if (bookings.isEmpty()) {
+            return page;
+        }
+        
+        Set<Long> customerIds = bookings.stream()
+            .map(BookingResponseDTO::getCustomerId)
+            .collect(Collectors.toSet());
+        Set<Long> roomIds = bookings.stream()
+            .map(BookingResponseDTO::getRoomId)
+            .collect(Collectors.toSet());
+        
+        Map<Long, CustomerDTO> customers = customerCache.getAll(customerIds);
+        Map<Long, RoomDTO> rooms = roomCache.getAll(roomIds);
+        
+        for (BookingResponseDTO booking : bookings) {
+            CustomerDTO customer = customers.get(booking.getCustomerId());
+            RoomDTO room = rooms.get(booking.getRoomId());
+            booking.setCustomerName(customer != null ? customer.getFirstName() + " " + customer.getLastName() : null);
+            booking.setRoomNumber(room != null ? room.getRoomNumber() : null);
+        }
+        return page;
+    }
+    
     private BookingResponseDTO convertToDTO(Booking booking, CustomerDTO customer, RoomDTO room) {
         return new BookingResponseDTO(
             booking.getId(),
             booking.getCustomerId(),
-            customer.getFirstName() + " " + customer.getLastName(),
+            customer != null ? customer.getFirstName() + " " + customer.getLastName() : null,
             booking.getRoomId(),
-            room.getRoomNumber(),
+            room != null ? room.getRoomNumber() : null,
             booking.getCheckInDate(),
             booking.getCheckOutDate(),
             booking.getNumberOfGuests(),
@@ -288,11 +368,37 @@ public class BookingService {
             booking.getCreatedAt()
         );
     }
-public Long countAll() {
-    return bookingRepository.count();
-}
-
-public Long countByStatus(String statusStr) {
-    BookingStatus status = BookingStatus.valueOf(statusStr);
-    return bookingRepository.countByStatus(status);
-}}
\ No newline at end of file
+    
+    // Comptages servis par les compteurs en mémoire, la base en repli tant qu'ils ne sont pas chargés :
+    // hors transaction (NOT_SUPPORTED), le cas nominal ne prend aucune connexion
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Long countAll() {
+        return statusCounters.counts()
+            .map(counts -> counts.values().stream().mapToLong(Long::longValue).sum())
+            .orElseGet(bookingRepository::count);
+    }
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Long countByStatus(String statusStr) {
+        BookingStatus status = BookingStatus.valueOf(statusStr);
+        return statusCounters.counts()
+            .map(counts -> counts.get(status))
+            .orElseGet(() -> bookingRepository.countByStatus(status));
+    }
+    
+    /**
+     * Nombre de réservations par statut (tous les statuts, 0 inclus) et total
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BookingStatsDTO getStats() {
+        Map<BookingStatus, Long> counts = statusCounters.counts().orElseGet(statusCounters::countInDatabase);
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        long total = 0;
+        for (BookingStatus status : BookingStatus.values()) {
+            byStatus.put(status.name(), counts.get(status));
+            total += counts.get(status);
+        }
+        return new BookingStatsDTO(total, byStatus);
+    }
+}
\ No newline at end of file
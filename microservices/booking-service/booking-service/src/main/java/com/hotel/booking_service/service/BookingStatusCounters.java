@@ -0,0 +1,42 @@
+package com.hotel.booking_service.service;
+
+import com.hotel.booking_service.model.BookingStatus;
+import com.hotel.booking_service.repository.BookingRepository;
+import com.hotel.common.status.StatusCounters;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+/**
+ * Nombre de réservations par statut tenu en mémoire (métriques booking.status.counter.*),
+ * pour les endpoints de comptage et les statistiques sans COUNT(*) sur une table qui ne fait
+ * que grandir. Recompté par countGroupedByStatus au démarrage puis toutes les
+ * booking.status-counters.reconcile-interval-ms.
+ */
+@Component
+public class BookingStatusCounters extends StatusCounters<BookingStatus> {
+
+    public BookingStatusCounters(BookingRepository bookingRepository, MeterRegistry meterRegistry) {
+        super(BookingStatus.class, "booking", () -> bookingRepository.countGroupedByStatus().stream()
+            .collect(Collectors.toMap(BookingRepository.StatusCount::getStatus, BookingRepository.StatusCount::getCount)),
+            meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    @Override
+    @Scheduled(
+        initialDelayString = "${booking.status-counters.reconcile-interval-ms:60000}",
+        fixedDelayString = "${booking.status-counters.reconcile-interval-ms:60000}"
+    )
+    public void reconcile() {
+        super.reconcile();
+    }
+}
@@ -0,0 +1,26 @@
+package com.hotel.booking_service.service;
+
+import com.hotel.booking_service.client.CustomerServiceClient;
+import com.hotel.booking_service.dto.CustomerDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Données d'affichage des clients (nom, contact) lues dans customer-service (tag cache=customers),
+ * évincées par CustomerChangeListener. Lecture directe (getFresh) pour vérifier l'existence du
+ * client à la création d'une réservation.
+ */
+@Component
+public class CustomerSnapshotCache extends RemoteSnapshotCache<Long, CustomerDTO> {
+    
+    public CustomerSnapshotCache(CustomerServiceClient customerServiceClient,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${booking.customer-cache.ttl:30m}") Duration ttl,
+                                 @Value("${booking.customer-cache.max-size:50000}") long maxSize) {
+        super("customers", customerServiceClient::getCustomerById, customerServiceClient::getCustomersByIds,
+            CustomerDTO::getId, meterRegistry, ttl, maxSize);
+    }
+}
@@ -0,0 +1,88 @@
+package com.hotel.booking_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cache local de données lues dans un autre service, borné en taille et en durée.
+ * Les entrées sont évincées par les notifications du service propriétaire ; le TTL couvre
+ * les notifications perdues. Les métriques cache.gets / cache.evictions / cache.size sont
+ * exportées avec le tag cache=name. Configuré par RoomSnapshotCache et CustomerSnapshotCache.
+ *
+ * @param <K> identifiant de l'entité distante
+ * @param <V> DTO renvoyé par le service distant
+ */
+public class RemoteSnapshotCache<K, V> {
+    
+    private final Function<K, V> loader;
+    private final Function<Set<K>, ? extends Collection<V>> batchLoader;
+    private final Function<V, K> idOf;
+    private final Cache<K, V> cache;
+    
+    /**
+     * @param loader      lecture unitaire (null si inconnu)
+     * @param batchLoader lecture groupée ; les identifiants inconnus sont absents du résultat
+     * @param idOf        identifiant d'un DTO renvoyé par batchLoader
+     */
+    public RemoteSnapshotCache(String name,
+                               Function<K, V> loader,
+                               Function<Set<K>, ? extends Collection<V>> batchLoader,
+                               Function<V, K> idOf,
+                               MeterRegistry meterRegistry,
+                               Duration ttl,
+                               long maxSize) {
+        this.loader = loader;
+        this.batchLoader = batchLoader;
+        this.idOf = idOf;
+        this.cache = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maxSize)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+    
+    /**
+     * Valeur depuis le cache, chargée depuis le service distant si absente
+     */
+    public V get(K id) {
+        return cache.get(id, loader);
+    }
+    
+    /**
+     * Contourne le cache (vérifications au moment d'une écriture) et le met à jour avec la valeur lue
+     */
+    public V getFresh(K id) {
+        V value = loader.apply(id);
+        if (value != null) {
+            cache.put(id, value);
+        }
+        return value;
+    }
+    
+    /**
+     * Plusieurs valeurs, les absentes du cache étant chargées en un seul appel groupé.
+     * Les identifiants inconnus du service distant sont absents du résultat.
+     */
+    public Map<K, V> getAll(Set<K> ids) {
+        return cache.getAll(ids, missing -> batchLoader.apply(Set.copyOf(missing)).stream()
+            .collect(Collectors.toMap(idOf, Function.identity(), (a, b) -> a)));
+    }
+    
+    public void evict(K id) {
+        cache.invalidate(id);
+    }
+    
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
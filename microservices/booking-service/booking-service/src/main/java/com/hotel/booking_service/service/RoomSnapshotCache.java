@@ -0,0 +1,25 @@
+package com.hotel.booking_service.service;
+
+import com.hotel.booking_service.client.RoomServiceClient;
+import com.hotel.booking_service.dto.RoomDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Chambres lues dans room-service (tag cache=rooms), évincées par RoomChangeListener.
+ * Lecture directe (getFresh) pour les vérifications de statut et de prix.
+ */
+@Component
+public class RoomSnapshotCache extends RemoteSnapshotCache<Long, RoomDTO> {
+    
+    public RoomSnapshotCache(RoomServiceClient roomServiceClient,
+                             MeterRegistry meterRegistry,
+                             @Value("${booking.room-cache.ttl:5m}") Duration ttl,
+                             @Value("${booking.room-cache.max-size:10000}") long maxSize) {
+        super("rooms", roomServiceClient::getRoomById, roomServiceClient::getRoomsByIds, RoomDTO::getId,
+            meterRegistry, ttl, maxSize);
+    }
+}
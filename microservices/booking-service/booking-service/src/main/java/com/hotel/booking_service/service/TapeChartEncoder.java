@@ -0,0 +1,49 @@
+package com.hotel.booking_service.service;
+
+import com.hotel.booking_service.dto.TapeChartStayDTO;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encode l'occupation d'une chambre sur une fenêtre de nuits en plages [bookingId, longueur].
+ * Une chambre libre sur 90 nuits tient en deux nombres au lieu de 90 cellules.
+ */
+final class TapeChartEncoder {
+    
+    static final long FREE = 0L;
+    
+    private TapeChartEncoder() {
+    }
+    
+    /**
+     * Nuits [checkIn, checkOut) de chaque séjour, tronquées à [from, from + days).
+     * Si deux séjours se chevauchent, le dernier de la liste l'emporte.
+     */
+    static long[] encode(LocalDate from, int days, List<TapeChartStayDTO> stays) {
+        long[] nights = new long[days];
+        long origin = from.toEpochDay();
+        for (TapeChartStayDTO stay : stays) {
+            int start = (int) Math.max(0, stay.getCheckInDate().toEpochDay() - origin);
+            int end = (int) Math.min(days, stay.getCheckOutDate().toEpochDay() - origin);
+            if (start < end) {
+                Arrays.fill(nights, start, end, stay.getBookingId());
+            }
+        }
+        
+        long[] runs = new long[2 * days];
+        int size = 0;
+        for (int night = 0; night < days; ) {
+            long bookingId = nights[night];
+            int length = 1;
+            while (night + length < days && nights[night + length] == bookingId) {
+                length++;
+            }
+            runs[size++] = bookingId;
+            runs[size++] = length;
+            night += length;
+        }
+        return Arrays.copyOf(runs, size);
+    }
+}
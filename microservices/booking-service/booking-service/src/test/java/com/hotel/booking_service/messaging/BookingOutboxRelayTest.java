@@ -0,0 +1,58 @@
+package com.hotel.booking_service.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.booking_service.dto.BookingEventDTO;
+import com.hotel.booking_service.model.OutboxEvent;
+import com.hotel.booking_service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Conversion des lignes de l'outbox ; l'envoi ordonné est couvert dans hotel-common (OutboxRelayTest)
+ */
+class BookingOutboxRelayTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private BookingOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        when(rabbitTemplate.getMessageConverter()).thenReturn(new Jackson2JsonMessageConverter());
+        relay = new BookingOutboxRelay(mock(OutboxEventRepository.class), rabbitTemplate, objectMapper,
+            new SimpleMeterRegistry(), "booking.exchange", 100, 1000, 1000, 1000, 60000, 20);
+    }
+
+    private static OutboxEvent event(String payload) {
+        LocalDateTime created = LocalDateTime.now();
+        return new OutboxEvent(1L, 10L, "booking.confirmed", payload, 0, created, created, null);
+    }
+
+    @Test
+    void payloadIsSentAsTypedJson() throws Exception {
+        Message message = relay.toMessage(event("{\"bookingId\":10}"));
+
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo("application/json");
+        assertThat(message.getMessageProperties().getHeaders())
+            .containsEntry("__TypeId__", BookingEventDTO.class.getName());
+        assertThat(objectMapper.readValue(message.getBody(), BookingEventDTO.class).getBookingId()).isEqualTo(10L);
+    }
+
+    @Test
+    void unreadablePayloadFailsTheSend() {
+        assertThatThrownBy(() -> relay.toMessage(event("not json")))
+            .isInstanceOf(JsonProcessingException.class);
+    }
+}
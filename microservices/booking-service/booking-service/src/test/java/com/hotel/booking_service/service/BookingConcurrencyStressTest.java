@@ -0,0 +1,183 @@
+package com.hotel.booking_service.service;
+
+import com.hotel.booking_service.client.CustomerServiceClient;
+import com.hotel.booking_service.client.RoomServiceClient;
+import com.hotel.booking_service.dto.BookingRequestDTO;
+import com.hotel.booking_service.dto.CustomerDTO;
+import com.hotel.booking_service.dto.RoomDTO;
+import com.hotel.booking_service.exception.RoomNotAvailableException;
+import com.hotel.booking_service.messaging.BookingEventPublisher;
+import com.hotel.booking_service.model.Booking;
+import com.hotel.booking_service.model.BookingStatus;
+import com.hotel.booking_service.repository.BookingRepository;
+import com.hotel.booking_service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Milliers de créations concurrentes sur peu de chambres et des dates qui se chevauchent,
+ * contre un vrai Postgres : aucune paire de séjours actifs ne doit se chevaucher.
+ * Ignoré si Docker n'est pas disponible.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({BookingPersistenceService.class, BookingConflictIndex.class, BookingStatusCounters.class,
+         BookingEventPublisher.class, BookingConcurrencyStressTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class BookingConcurrencyStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingConcurrencyStressTest.class);
+
+    private static final int REQUESTS = 4000;
+    private static final int THREADS = 64;
+    private static final int ROOMS = 20;
+    private static final int DATE_SPREAD_DAYS = 60;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private BookingPersistenceService persistenceService;
+
+    @Autowired
+    private BookingStatusCounters statusCounters;
+
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        bookingRepository.deleteAll();
+        statusCounters.reconcile();
+
+        RoomServiceClient roomServiceClient = mock(RoomServiceClient.class);
+        CustomerServiceClient customerServiceClient = mock(CustomerServiceClient.class);
+        when(customerServiceClient.getCustomerById(anyLong()))
+            .thenReturn(new CustomerDTO(1L, "Jane", "Doe", "jane@example.com", null));
+        when(roomServiceClient.getRoomById(anyLong())).thenAnswer(inv ->
+            new RoomDTO(inv.getArgument(0), "R" + inv.getArgument(0), "STANDARD", BigDecimal.valueOf(100), "AVAILABLE", 4));
+
+        bookingService = new BookingService(
+            bookingRepository, persistenceService, roomServiceClient,
+            new RoomSnapshotCache(roomServiceClient, new SimpleMeterRegistry(), Duration.ofMinutes(5), 1000),
+            new CustomerSnapshotCache(customerServiceClient, new SimpleMeterRegistry(), Duration.ofMinutes(5), 1000),
+            statusCounters
+        );
+    }
+
+    @Test
+    void concurrentOverlappingRequestsNeverDoubleBook() throws Exception {
+        LocalDate base = LocalDate.now().plusDays(10);
+        SplittableRandom random = new SplittableRandom(7);
+        List<BookingRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            LocalDate checkIn = base.plusDays(random.nextInt(DATE_SPREAD_DAYS));
+            requests.add(new BookingRequestDTO(
+                1L, 1L + random.nextInt(ROOMS), checkIn, checkIn.plusDays(1 + random.nextInt(5)), 2, null));
+        }
+
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (BookingRequestDTO request : requests) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        bookingService.createBooking(request);
+                        created.incrementAndGet();
+                    } catch (RoomNotAvailableException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            long startNanos = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+            log.info("{} concurrent requests on {} rooms ({} threads): {} created, {} rejected, {} req/s",
+                REQUESTS, ROOMS, THREADS, created.get(), rejected.get(), Math.round(REQUESTS / seconds));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Booking> active = bookingRepository.findByStatusIn(List.of(BookingStatus.PENDING, BookingStatus.CONFIRMED));
+        assertThat(active).hasSize(created.get());
+        assertThat(created.get() + rejected.get()).isEqualTo(REQUESTS);
+        assertThat(statusCounters.counts().orElseThrow().get(BookingStatus.PENDING)).isEqualTo((long) created.get());
+
+        Map<Long, List<Booking>> byRoom = active.stream().collect(Collectors.groupingBy(Booking::getRoomId));
+        for (List<Booking> stays : byRoom.values()) {
+            for (int i = 0; i < stays.size(); i++) {
+                for (int j = i + 1; j < stays.size(); j++) {
+                    Booking a = stays.get(i);
+                    Booking b = stays.get(j);
+                    // Mêmes bornes inclusives que BookingRepository.findConflictingBookings
+                    boolean overlap = !a.getCheckInDate().isAfter(b.getCheckOutDate())
+                        && !a.getCheckOutDate().isBefore(b.getCheckInDate());
+                    assertThat(overlap)
+                        .as("bookings %d and %d overlap on room %d", a.getId(), b.getId(), a.getRoomId())
+                        .isFalse();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.hotel.booking_service.service;
+
+import com.hotel.booking_service.model.Booking;
+import com.hotel.booking_service.model.BookingStatus;
+import com.hotel.booking_service.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingConflictIndexTest {
+
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 10);
+
+    private BookingRepository bookingRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private BookingConflictIndex index;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        index = new BookingConflictIndex(bookingRepository, meterRegistry, true);
+    }
+
+    @Test
+    void fallsBackToDatabaseUntilLoaded() {
+        assertThat(index.hasConflict(1L, BASE, BASE.plusDays(2))).isEmpty();
+        assertThat(meterRegistry.counter("booking.conflict.index.checks", "result", "unavailable").count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void detectsOverlapsWithSameBoundsAsRepositoryQuery() {
+        when(bookingRepository.findByStatusIn(any()))
+            .thenReturn(List.of(booking(1L, 7L, BASE, BASE.plusDays(3), BookingStatus.CONFIRMED)));
+        index.load();
+
+        assertThat(index.hasConflict(7L, BASE.plusDays(1), BASE.plusDays(2))).contains(true);
+        // Bornes inclusives : un départ le jour d'une arrivée est un conflit
+        assertThat(index.hasConflict(7L, BASE.plusDays(3), BASE.plusDays(5))).contains(true);
+        assertThat(index.hasConflict(7L, BASE.minusDays(2), BASE)).contains(true);
+        assertThat(index.hasConflict(7L, BASE.plusDays(4), BASE.plusDays(6))).contains(false);
+        assertThat(index.hasConflict(8L, BASE, BASE.plusDays(3))).contains(false);
+        assertThat(meterRegistry.counter("booking.conflict.index.checks", "result", "rejected").count())
+            .isEqualTo(3.0);
+        assertThat(meterRegistry.counter("booking.conflict.index.checks", "result", "passed").count())
+            .isEqualTo(2.0);
+    }
+
+    @Test
+    void cancelledOrCompletedBookingsLeaveTheIndex() {
+        when(bookingRepository.findByStatusIn(any())).thenReturn(List.of());
+        index.load();
+
+        Booking booking = booking(1L, 7L, BASE, BASE.plusDays(3), BookingStatus.PENDING);
+        index.update(booking);
+        assertThat(index.hasConflict(7L, BASE, BASE.plusDays(1))).contains(true);
+
+        booking.setStatus(BookingStatus.CANCELLED);
+        index.update(booking);
+        assertThat(index.hasConflict(7L, BASE, BASE.plusDays(1))).contains(false);
+    }
+
+    @Test
+    void reconciliationReplacesADriftedIndex() {
+        when(bookingRepository.findByStatusIn(any())).thenReturn(List.of());
+        index.load();
+        index.update(booking(1L, 7L, BASE, BASE.plusDays(3), BookingStatus.PENDING));
+
+        index.reconcile();
+
+        assertThat(index.hasConflict(7L, BASE, BASE.plusDays(1))).contains(false);
+        assertThat(meterRegistry.counter("booking.conflict.index.drift").count()).isEqualTo(1.0);
+    }
+
+    private static Booking booking(Long id, Long roomId, LocalDate checkIn, LocalDate checkOut,
+                                   BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setCustomerId(1L);
+        booking.setRoomId(roomId);
+        booking.setCheckInDate(checkIn);
+        booking.setCheckOutDate(checkOut);
+        booking.setNumberOfGuests(1);
+        booking.setTotalPrice(BigDecimal.TEN);
+        booking.setStatus(status);
+        return booking;
+    }
+}
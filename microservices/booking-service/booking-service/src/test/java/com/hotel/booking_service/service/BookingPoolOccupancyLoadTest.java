@@ -0,0 +1,183 @@
+package com.hotel.booking_service.service;
+
+import com.hotel.booking_service.client.CustomerServiceClient;
+import com.hotel.booking_service.client.RoomServiceClient;
+import com.hotel.booking_service.dto.BookingRequestDTO;
+import com.hotel.booking_service.dto.BookingResponseDTO;
+import com.hotel.booking_service.dto.CustomerDTO;
+import com.hotel.booking_service.dto.RoomDTO;
+import com.hotel.booking_service.messaging.BookingEventPublisher;
+import com.hotel.booking_service.repository.BookingRepository;
+import com.hotel.booking_service.repository.OutboxEventRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Créations concurrentes face à un room-service lent, contre un vrai Postgres et le vrai
+ * pool Hikari, plus petit que le nombre de requêtes : tant que les requêtes attendent
+ * room-service, aucune connexion n'est tenue (hikaricp.connections.active) ni attendue
+ * (hikaricp.connections.pending), et une lecture obtient une connexion.
+ * Ignoré si Docker n'est pas disponible.
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.hikari.pool-name=" + BookingPoolOccupancyLoadTest.POOL_NAME,
+    "spring.datasource.hikari.maximum-pool-size=4",
+    "spring.datasource.hikari.connection-timeout=2000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({BookingPersistenceService.class, BookingConflictIndex.class, BookingStatusCounters.class,
+         BookingEventPublisher.class, BookingPoolOccupancyLoadTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class BookingPoolOccupancyLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingPoolOccupancyLoadTest.class);
+
+    static final String POOL_NAME = "booking-load-test";
+    private static final int CONCURRENT_REQUESTS = 20;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private BookingPersistenceService persistenceService;
+
+    @Autowired
+    private BookingStatusCounters statusCounters;
+
+    private RoomServiceClient roomServiceClient;
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        if (hikari.getMetricsTrackerFactory() == null) {
+            hikari.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        }
+        outboxEventRepository.deleteAll();
+        bookingRepository.deleteAll();
+        statusCounters.reconcile();
+
+        roomServiceClient = mock(RoomServiceClient.class);
+        CustomerServiceClient customerServiceClient = mock(CustomerServiceClient.class);
+        when(customerServiceClient.getCustomerById(anyLong()))
+            .thenReturn(new CustomerDTO(1L, "Jane", "Doe", "jane@example.com", null));
+
+        bookingService = new BookingService(
+            bookingRepository, persistenceService, roomServiceClient,
+            new RoomSnapshotCache(roomServiceClient, new SimpleMeterRegistry(), Duration.ofMinutes(5), 1000),
+            new CustomerSnapshotCache(customerServiceClient, new SimpleMeterRegistry(), Duration.ofMinutes(5), 1000),
+            statusCounters
+        );
+    }
+
+    @Test
+    void slowRoomServiceDoesNotHoldPoolConnections() throws Exception {
+        // room-service ne répond que lorsque le test le libère
+        CountDownLatch allWaitingOnRoomService = new CountDownLatch(CONCURRENT_REQUESTS);
+        CountDownLatch roomServiceReleased = new CountDownLatch(1);
+        when(roomServiceClient.getRoomById(anyLong())).thenAnswer(inv -> {
+            allWaitingOnRoomService.countDown();
+            roomServiceReleased.await(30, TimeUnit.SECONDS);
+            return new RoomDTO(inv.getArgument(0), "R" + inv.getArgument(0), "STANDARD", BigDecimal.valueOf(100),
+                "AVAILABLE", 4);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        try {
+            List<Future<BookingResponseDTO>> writes = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                long roomId = i + 1;
+                writes.add(executor.submit(() -> bookingService.createBooking(request(roomId))));
+            }
+
+            assertThat(allWaitingOnRoomService.await(30, TimeUnit.SECONDS)).isTrue();
+            // Premières lectures des jauges : Hikari calcule alors ses statistiques, sans valeur en cache
+            double active = gauge("hikaricp.connections.active");
+            double pending = gauge("hikaricp.connections.pending");
+
+            // Plus de requêtes que de connexions : la lecture échouerait (connection-timeout) si elles en tenaient
+            assertThat(bookingService.getAllBookings(null, null).items()).isEmpty();
+            roomServiceReleased.countDown();
+
+            for (Future<BookingResponseDTO> write : writes) {
+                assertThat(write.get(30, TimeUnit.SECONDS).getId()).isNotNull();
+            }
+            log.info("{} bookings waiting on room-service with a pool of {}: {} active, {} pending connections",
+                CONCURRENT_REQUESTS, dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize(), active, pending);
+
+            assertThat(active).isZero();
+            assertThat(pending).isZero();
+        } finally {
+            roomServiceReleased.countDown();
+            executor.shutdownNow();
+        }
+        assertThat(bookingRepository.count()).isEqualTo(CONCURRENT_REQUESTS);
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("pool", POOL_NAME).gauge().value();
+    }
+
+    private static BookingRequestDTO request(long roomId) {
+        return new BookingRequestDTO(
+            1L, roomId, LocalDate.now().plusDays(10), LocalDate.now().plusDays(12), 2, null
+        );
+    }
+}
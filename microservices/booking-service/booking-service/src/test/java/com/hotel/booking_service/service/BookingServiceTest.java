@@ -0,0 +1,220 @@
+package com.hotel.booking_service.service;
+
+import com.hotel.booking_service.client.CustomerServiceClient;
+import com.hotel.booking_service.client.RoomServiceClient;
+import com.hotel.booking_service.dto.BookingResponseDTO;
+import com.hotel.booking_service.dto.BookingStatsDTO;
+import com.hotel.booking_service.dto.CustomerDTO;
+import com.hotel.booking_service.dto.RoomDTO;
+import com.hotel.booking_service.model.Booking;
+import com.hotel.booking_service.model.BookingStatus;
+import com.hotel.booking_service.repository.BookingRepository;
+import com.hotel.common.dto.CursorPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingPersistenceService persistenceService;
+
+    @Mock
+    private RoomServiceClient roomServiceClient;
+
+    @Mock
+    private CustomerServiceClient customerServiceClient;
+
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        bookingService = new BookingService(
+            bookingRepository, persistenceService, roomServiceClient,
+            new RoomSnapshotCache(roomServiceClient, new SimpleMeterRegistry(), Duration.ofMinutes(5), 1000),
+            new CustomerSnapshotCache(customerServiceClient, new SimpleMeterRegistry(), Duration.ofMinutes(5), 1000),
+            mock(BookingStatusCounters.class)
+        );
+    }
+
+    @Test
+    void getAllBookingsMakesOneBatchCallPerServiceRegardlessOfSize() {
+        // Page pleine (taille max + 1 ligne de détection) répartie sur 50 clients et 20 chambres
+        List<BookingResponseDTO> rows = new ArrayList<>();
+        for (long i = CursorPage.MAX_SIZE + 1; i >= 1; i--) {
+            rows.add(row(i, i % 50 + 1, i % 20 + 1));
+        }
+        when(persistenceService.findPage(CursorPage.Cursor.FIRST, CursorPage.MAX_SIZE)).thenReturn(rows);
+        when(customerServiceClient.getCustomersByIds(any())).thenAnswer(inv -> {
+            Set<Long> ids = inv.getArgument(0);
+            return ids.stream().map(id -> new CustomerDTO(id, "First" + id, "Last" + id, null, null))
+                .collect(Collectors.toList());
+        });
+        when(roomServiceClient.getRoomsByIds(any())).thenAnswer(inv -> {
+            Set<Long> ids = inv.getArgument(0);
+            return ids.stream().map(id -> new RoomDTO(id, "R" + id, "STANDARD", BigDecimal.TEN, "AVAILABLE", 2))
+                .collect(Collectors.toList());
+        });
+
+        CursorPage<BookingResponseDTO> page = bookingService.getAllBookings(null, CursorPage.MAX_SIZE);
+        List<BookingResponseDTO> result = page.items();
+
+        assertThat(result).hasSize(CursorPage.MAX_SIZE);
+        assertThat(result.get(0).getCustomerName()).isEqualTo("First2 Last2");
+        assertThat(result.get(0).getRoomNumber()).isEqualTo("R2");
+        assertThat(CursorPage.Cursor.decode(page.nextCursor()).id()).isEqualTo(2L);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Set<Long>> customerIds = ArgumentCaptor.forClass(Set.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Set<Long>> roomIds = ArgumentCaptor.forClass(Set.class);
+        verify(customerServiceClient, times(1)).getCustomersByIds(customerIds.capture());
+        verify(roomServiceClient, times(1)).getRoomsByIds(roomIds.capture());
+        assertThat(customerIds.getValue()).hasSize(50);
+        assertThat(roomIds.getValue()).hasSize(20);
+        verify(customerServiceClient, never()).getCustomerById(anyLong());
+        verify(roomServiceClient, never()).getRoomById(anyLong());
+    }
+
+    @Test
+    void getBookingsByRoomToleratesMissingRemoteEntries() {
+        when(persistenceService.findPageByRoomId(7L, CursorPage.Cursor.FIRST, CursorPage.DEFAULT_SIZE))
+            .thenReturn(List.of(row(1L, 3L, 7L)));
+        when(customerServiceClient.getCustomersByIds(Set.of(3L))).thenReturn(List.of());
+        when(roomServiceClient.getRoomsByIds(Set.of(7L))).thenReturn(List.of());
+
+        CursorPage<BookingResponseDTO> page = bookingService.getBookingsByRoom(7L, null, null);
+        List<BookingResponseDTO> result = page.items();
+
+        assertThat(result).hasSize(1);
+        assertThat(page.nextCursor()).isNull();
+        assertThat(result.get(0).getCustomerName()).isNull();
+        assertThat(result.get(0).getRoomNumber()).isNull();
+    }
+
+    @Test
+    void emptyListMakesNoRemoteCalls() {
+        when(persistenceService.findPageByCustomerId(1L, CursorPage.Cursor.FIRST, CursorPage.DEFAULT_SIZE))
+            .thenReturn(List.of());
+
+        assertThat(bookingService.getBookingsByCustomer(1L, null, null).items()).isEmpty();
+
+        verifyNoInteractions(customerServiceClient, roomServiceClient);
+    }
+
+    @Test
+    void statsFillMissingStatusesWithZeroAndSumTotal() {
+        when(bookingRepository.countGroupedByStatus()).thenReturn(List.of(
+            statusCount(BookingStatus.PENDING, 3),
+            statusCount(BookingStatus.CONFIRMED, 4)
+        ));
+
+        BookingStatsDTO stats = bookingService.getStats();
+
+        assertThat(stats.getTotal()).isEqualTo(7L);
+        assertThat(stats.getByStatus())
+            .containsEntry("PENDING", 3L)
+            .containsEntry("CONFIRMED", 4L)
+            .containsEntry("NO_SHOW", 0L)
+            .hasSize(BookingStatus.values().length);
+        verify(bookingRepository, never()).countByStatus(any());
+    }
+
+    private static BookingRepository.StatusCount statusCount(BookingStatus status, long count) {
+        return new BookingRepository.StatusCount() {
+            @Override
+            public BookingStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+
+    @Test
+    void cursorRoundTripsAndRejectsGarbage() {
+        CursorPage.Cursor cursor = new CursorPage.Cursor(LocalDateTime.of(2026, 5, 1, 12, 30, 15, 123_456_000), 42L);
+
+        assertThat(CursorPage.Cursor.decode(cursor.encode())).isEqualTo(cursor);
+        assertThat(CursorPage.Cursor.decode(null)).isEqualTo(CursorPage.Cursor.FIRST);
+        assertThatThrownBy(() -> CursorPage.Cursor.decode("not-a-cursor"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorPage.size(CursorPage.MAX_SIZE + 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cancelChangesStatusBeforeReleasingRoomAndNights() {
+        Booking confirmed = booking(BookingStatus.CONFIRMED);
+        Booking cancelled = booking(BookingStatus.CANCELLED);
+        when(persistenceService.getBooking(9L)).thenReturn(confirmed);
+        when(persistenceService.changeStatus(9L, BookingStatus.CANCELLED)).thenReturn(cancelled);
+        when(customerServiceClient.getCustomerById(7L)).thenReturn(new CustomerDTO(7L, "Ada", "L", null, null));
+        when(roomServiceClient.getRoomById(5L))
+            .thenReturn(new RoomDTO(5L, "105", "STANDARD", BigDecimal.TEN, "AVAILABLE", 2));
+
+        bookingService.cancelBooking(9L);
+
+        InOrder order = inOrder(persistenceService, roomServiceClient);
+        order.verify(persistenceService).changeStatus(9L, BookingStatus.CANCELLED);
+        order.verify(roomServiceClient).transitionRoomStatus(eq(5L), any(), eq("AVAILABLE"));
+        order.verify(roomServiceClient).releaseInventory(9L);
+    }
+
+    @Test
+    void failedStatusChangeKeepsRoomHeld() {
+        when(persistenceService.getBooking(9L)).thenReturn(booking(BookingStatus.CONFIRMED));
+        when(persistenceService.changeStatus(eq(9L), any())).thenThrow(new IllegalStateException("database down"));
+
+        assertThatThrownBy(() -> bookingService.cancelBooking(9L)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> bookingService.completeBooking(9L)).isInstanceOf(IllegalStateException.class);
+
+        verify(roomServiceClient, never()).transitionRoomStatus(anyLong(), any(), any());
+        verify(roomServiceClient, never()).releaseInventory(anyLong());
+    }
+
+    private static Booking booking(BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setId(9L);
+        booking.setCustomerId(7L);
+        booking.setRoomId(5L);
+        booking.setCheckInDate(LocalDate.now().plusDays(1));
+        booking.setCheckOutDate(LocalDate.now().plusDays(3));
+        booking.setNumberOfGuests(1);
+        booking.setTotalPrice(BigDecimal.valueOf(200));
+        booking.setStatus(status);
+        return booking;
+    }
+
+    private static BookingResponseDTO row(Long id, Long customerId, Long roomId) {
+        return new BookingResponseDTO(id, customerId, roomId, LocalDate.now().plusDays(1), LocalDate.now().plusDays(3),
+            1, BigDecimal.valueOf(200), BookingStatus.PENDING, LocalDateTime.of(2026, 1, 1, 0, 0).plusMinutes(id));
+    }
+}
@@ -0,0 +1,81 @@
+package com.hotel.booking_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RemoteSnapshotCacheTest {
+
+    record Item(Long id, String status) {
+    }
+
+    // Service distant simulé : contenu et appels reçus
+    private final Map<Long, Item> remote = new HashMap<>();
+    private final List<Long> singleReads = new ArrayList<>();
+    private final List<Set<Long>> batchReads = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RemoteSnapshotCache<Long, Item> cache;
+
+    @BeforeEach
+    void setUp() {
+        remote.put(1L, new Item(1L, "AVAILABLE"));
+        remote.put(2L, new Item(2L, "AVAILABLE"));
+        cache = new RemoteSnapshotCache<>("items",
+            id -> {
+                singleReads.add(id);
+                return remote.get(id);
+            },
+            ids -> {
+                batchReads.add(ids);
+                return ids.stream().map(remote::get).filter(Objects::nonNull).toList();
+            },
+            Item::id, meterRegistry, Duration.ofMinutes(5), 100);
+    }
+
+    @Test
+    void repeatedReadsHitTheCacheUntilEvicted() {
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(1L);
+        assertThat(singleReads).containsExactly(1L);
+
+        cache.evict(1L);
+        cache.get(1L);
+        assertThat(singleReads).containsExactly(1L, 1L);
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "items").tag("result", "hit")
+            .functionCounter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "items").tag("result", "miss")
+            .functionCounter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void freshReadBypassesAndRefreshesTheCache() {
+        cache.get(1L);
+        remote.put(1L, new Item(1L, "OCCUPIED"));
+
+        assertThat(cache.getFresh(1L).status()).isEqualTo("OCCUPIED");
+        assertThat(cache.get(1L).status()).isEqualTo("OCCUPIED");
+        assertThat(singleReads).containsExactly(1L, 1L);
+    }
+
+    @Test
+    void batchReadOnlyFetchesMissingEntries() {
+        cache.get(1L);
+
+        Map<Long, Item> items = cache.getAll(Set.of(1L, 2L, 3L));
+
+        assertThat(items).containsOnlyKeys(1L, 2L);
+        assertThat(batchReads).containsExactly(Set.of(2L, 3L));
+    }
+}
@@ -0,0 +1,38 @@
+package com.hotel.booking_service.service;
+
+import com.hotel.booking_service.dto.TapeChartStayDTO;
+import com.hotel.booking_service.model.BookingStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TapeChartEncoderTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 5, 1);
+
+    private static TapeChartStayDTO stay(long bookingId, int checkIn, int checkOut) {
+        return new TapeChartStayDTO(bookingId, 1L, FROM.plusDays(checkIn), FROM.plusDays(checkOut), BookingStatus.CONFIRMED);
+    }
+
+    @Test
+    void emptyRoomIsOneFreeRun() {
+        assertThat(TapeChartEncoder.encode(FROM, 90, List.of())).containsExactly(0L, 90L);
+    }
+
+    @Test
+    void backToBackStaysKeepCheckOutNightFree() {
+        long[] runs = TapeChartEncoder.encode(FROM, 10, List.of(stay(7, 1, 3), stay(8, 3, 5)));
+
+        assertThat(runs).containsExactly(0L, 1L, 7L, 2L, 8L, 2L, 0L, 5L);
+    }
+
+    @Test
+    void staysAreClippedToTheWindow() {
+        long[] runs = TapeChartEncoder.encode(FROM, 5, List.of(stay(3, -4, 2), stay(4, 4, 20)));
+
+        assertThat(runs).containsExactly(3L, 2L, 0L, 2L, 4L, 1L);
+    }
+}
@@ -0,0 +1,37 @@
+package com.hotel.customer_service.config;
+
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+    
+    @Value("${rabbitmq.exchange.customer}")
+    private String customerExchange;
+    
+    // Exchange : chaque service abonné y lie sa propre queue
+    @Bean
+    public TopicExchange customerExchange() {
+        return new TopicExchange(customerExchange, true, false);
+    }
+    
+    // Message converter pour JSON
+    @Bean
+    public MessageConverter messageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+    
+    // RabbitTemplate pour ENVOYER des messages
+    @Bean
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+        RabbitTemplate template = new RabbitTemplate(connectionFactory);
+        template.setMessageConverter(messageConverter());
+        return template;
+    }
+}
@@ -1,34 +1,46 @@
 package com.hotel.customer_service.config;
 
+import com.hotel.customer_service.security.JwtAuthenticationFilter;
+import com.hotel.customer_service.security.JwtService;
+import com.hotel.customer_service.security.ServiceAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
     
+    // Coût bcrypt : les hash plus faibles sont recalculés au login suivant
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${customer.password-hashing.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
     
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtService jwtService,
+                                                   @Value("${security.service-token}") String serviceToken) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 // Routes publiques pour authentification
-                .requestMatchers("/api/customers/register", "/api/customers/login").permitAll()
+                .requestMatchers("/api/customers/register", "/api/customers/login",
+                                 "/api/customers/refresh", "/api/customers/logout").permitAll()
                 
                 // Routes pour les appels inter-services (IMPORTANT !)
                 // Permettre GET /api/customers/{id} pour que le Booking Service puisse récupérer les infos
                 .requestMatchers("GET", "/api/customers/**").permitAll()
+                // Lookup groupé (données personnelles en masse) : Booking Service (X-Service-Token)
+                // ou utilisateur authentifié uniquement
+                .requestMatchers(HttpMethod.POST, "/api/customers/batch").authenticated()
                 
                 // Actuator endpoints
                 .requestMatchers("/actuator/**").permitAll()
@@ -36,6 +48,9 @@ public class SecurityConfig {
                 // Toutes les autres routes nécessitent une authentification
                 .anyRequest().authenticated()
             )
+            // JWT revérifié localement (cache des tokens déjà vérifiés dans JwtService)
+            .addFilterBefore(new JwtAuthenticationFilter(jwtService), UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(new ServiceAuthenticationFilter(serviceToken), UsernamePasswordAuthenticationFilter.class)
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             );
@@ -9,6 +9,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/customers")
@@ -29,9 +30,32 @@ public class CustomerController {
         return ResponseEntity.ok(response);
     }
     
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponseDTO> refresh(@Valid @RequestBody RefreshTokenRequestDTO request) {
+        AuthResponseDTO response = customerService.refresh(request);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequestDTO request) {
+        customerService.logout(request);
+        return ResponseEntity.noContent().build();
+    }
+    
+    /**
+     * Liste paginée : passer l'en-tête X-Next-Cursor de la réponse en paramètre cursor
+     * GET /api/customers?cursor=...&size=50
+     */
     @GetMapping
-    public ResponseEntity<List<CustomerResponseDTO>> getAllCustomers() {
-        List<CustomerResponseDTO> customers = customerService.getAllCustomers();
+    public ResponseEntity<List<CustomerResponseDTO>> getAllCustomers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return customerService.getAllCustomers(cursor, size).toResponseEntity();
+    }
+    
+    @PostMapping("/batch")
+    public ResponseEntity<List<CustomerResponseDTO>> getCustomersByIds(@RequestBody Set<Long> ids) {
+        List<CustomerResponseDTO> customers = customerService.getCustomersByIds(ids);
         return ResponseEntity.ok(customers);
     }
     
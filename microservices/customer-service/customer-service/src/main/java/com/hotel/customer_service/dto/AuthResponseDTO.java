@@ -12,4 +12,7 @@ public class AuthResponseDTO {
     private String email;
     private String firstName;
     private String lastName;
+    private String refreshToken;
+    // Durée de validité du token d'accès, en secondes
+    private long expiresIn;
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.hotel.customer_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerChangedEvent {
+    private Long customerId;
+    private String changeType;   // UPDATED, DELETED
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,7 @@
+package com.hotel.customer_service.exception;
+
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,54 @@
+package com.hotel.customer_service.messaging;
+
+import com.hotel.customer_service.dto.CustomerChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notifie les autres services qu'un client a été modifié ou supprimé, pour
+ * qu'ils invalident leur cache. Envoi après commit et sans garantie : un
+ * message perdu est rattrapé par le TTL des caches.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerEventPublisher {
+    
+    private final RabbitTemplate rabbitTemplate;
+    
+    @Value("${rabbitmq.exchange.customer}")
+    private String customerExchange;
+    
+    @Value("${rabbitmq.routing-key.customer-changed}")
+    private String customerChangedRoutingKey;
+    
+    public void publishCustomerChanged(Long customerId, String changeType) {
+        CustomerChangedEvent event = new CustomerChangedEvent(customerId, changeType, LocalDateTime.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+    
+    private void send(CustomerChangedEvent event) {
+        try {
+            rabbitTemplate.convertAndSend(customerExchange, customerChangedRoutingKey, event);
+            log.debug("Customer change published: {}", event);
+        } catch (Exception e) {
+            log.warn("Failed to publish customer change for customer {}: {}", event.getCustomerId(), e.getMessage());
+        }
+    }
+}
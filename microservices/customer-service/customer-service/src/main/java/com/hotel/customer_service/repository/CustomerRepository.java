@@ -1,9 +1,15 @@
 package com.hotel.customer_service.repository;
 
+import com.hotel.customer_service.dto.CustomerResponseDTO;
 import com.hotel.customer_service.model.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +18,12 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByEmail(String email);
     
     boolean existsByEmail(String email);
+    
+    // Liste paginée par clé (createdAt, id) : projection en DTO, le mot de passe n'est jamais chargé
+    @Query("SELECT new com.hotel.customer_service.dto.CustomerResponseDTO(" +
+           "c.id, c.firstName, c.lastName, c.email, c.phoneNumber, c.address, c.city, c.country, c.createdAt) " +
+           "FROM Customer c WHERE c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CustomerResponseDTO> findPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                       Pageable limit);
 }
\ No newline at end of file
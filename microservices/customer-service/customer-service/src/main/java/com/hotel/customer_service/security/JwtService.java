@@ -1,27 +1,88 @@
 package com.hotel.customer_service.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
     
-    @Value("${jwt.secret}")
-    private String secretKey;
+    private final long jwtExpiration;
+    private final Clock clock;
     
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    // Clé HMAC et parser construits une seule fois (thread-safe)
+    private final SecretKey signInKey;
+    private final JwtParser parser;
+    
+    // Tokens déjà vérifiés, indexés par empreinte SHA-256 : chaque entrée expire à l'exp du token
+    private final Cache<String, Claims> verifiedTokens;
+    
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+    
+    public JwtService(@Value("${jwt.secret}") String secretKey,
+                      @Value("${jwt.expiration}") long jwtExpiration,
+                      @Value("${jwt.verified-cache.max-size:10000}") long maxCachedTokens,
+                      MeterRegistry meterRegistry) {
+        this(secretKey, jwtExpiration, maxCachedTokens, Clock.systemUTC());
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "verified-tokens");
+    }
+    
+    JwtService(String secretKey, long jwtExpiration, long maxCachedTokens, Clock clock) {
+        this.jwtExpiration = jwtExpiration;
+        this.clock = clock;
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parser()
+                .verifyWith(signInKey)
+                .clock(() -> Date.from(clock.instant()))
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxCachedTokens)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        return remainingNanos(claims);
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return remainingNanos(claims);
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
     
     public String extractEmail(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -45,40 +106,57 @@ public class JwtService {
             String email,
             long expiration
     ) {
+        long now = clock.millis();
         return Jwts
                 .builder()
-                .setClaims(extraClaims)
-                .setSubject(email)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .claims(extraClaims)
+                .subject(email)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signInKey, Jwts.SIG.HS256)
                 .compact();
     }
     
+    public long getExpirationSeconds() {
+        return TimeUnit.MILLISECONDS.toSeconds(jwtExpiration);
+    }
+    
     public boolean isTokenValid(String token, String email) {
-        final String tokenEmail = extractEmail(token);
-        return (tokenEmail.equals(email)) && !isTokenExpired(token);
+        // Un seul parsing pour le sujet et l'expiration
+        final Claims claims = extractAllClaims(token);
+        return claims.getSubject().equals(email) && !isExpired(claims);
     }
     
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Claims d'un token signé. Un token déjà vérifié et non expiré est servi depuis le cache
+     * sans recalculer la signature ; sinon il est vérifié puis mis en cache jusqu'à son exp.
+     */
+    private Claims extractAllClaims(String token) {
+        String key = fingerprint(token);
+        Claims cached = verifiedTokens.getIfPresent(key);
+        // L'expiration Caffeine est approximative : on revérifie l'exp à la lecture
+        if (cached != null && !isExpired(cached)) {
+            return cached;
+        }
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(key, claims);
+        }
+        return claims;
     }
     
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && !expiration.toInstant().isAfter(clock.instant());
     }
     
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private long remainingNanos(Claims claims) {
+        long remainingMillis = claims.getExpiration().getTime() - clock.millis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
     }
     
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);  // Correction ici : hmacShaKeyFor au lieu de hmacShafeOf
+    private static String fingerprint(String token) {
+        MessageDigest digest = SHA_256.get();
+        return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
     }
-}
\ No newline at end of file
+}
@@ -1,29 +1,39 @@
 package com.hotel.customer_service.service;
 
+import com.hotel.common.dto.CursorPage;
 import com.hotel.customer_service.dto.*;
 import com.hotel.customer_service.exception.CustomerAlreadyExistsException;
 import com.hotel.customer_service.exception.CustomerNotFoundException;
 import com.hotel.customer_service.exception.InvalidCredentialsException;
+import com.hotel.customer_service.messaging.CustomerEventPublisher;
 import com.hotel.customer_service.model.Customer;
 import com.hotel.customer_service.repository.CustomerRepository;
 import com.hotel.customer_service.security.JwtService;
+import com.hotel.customer_service.security.PasswordHashingService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 @Transactional
 public class CustomerService {
     
     private final CustomerRepository customerRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
+    private final CustomerEventPublisher customerEventPublisher;
+    private final RefreshTokenService refreshTokenService;
     
+    // Hors transaction : pas de connexion JDBC retenue pendant le hachage bcrypt
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponseDTO register(RegisterRequestDTO request) {
         if (customerRepository.existsByEmail(request.getEmail())) {
             throw new CustomerAlreadyExistsException("Email already registered: " + request.getEmail());
@@ -33,39 +43,44 @@ public class CustomerService {
         customer.setFirstName(request.getFirstName());
         customer.setLastName(request.getLastName());
         customer.setEmail(request.getEmail());
-        customer.setPassword(passwordEncoder.encode(request.getPassword()));
+        customer.setPassword(passwordHashingService.encode(request.getPassword()));
         customer.setPhoneNumber(request.getPhoneNumber());
         customer.setAddress(request.getAddress());
         customer.setCity(request.getCity());
         customer.setCountry(request.getCountry());
         
         Customer savedCustomer = customerRepository.save(customer);
-        String token = jwtService.generateToken(savedCustomer.getEmail());
-        
-        return new AuthResponseDTO(
-            token,
-            savedCustomer.getEmail(),
-            savedCustomer.getFirstName(),
-            savedCustomer.getLastName()
-        );
+        return authResponse(savedCustomer, refreshTokenService.issue(savedCustomer.getId()));
     }
     
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponseDTO login(LoginRequestDTO request) {
         Customer customer = customerRepository.findByEmail(request.getEmail())
             .orElseThrow(() -> new InvalidCredentialsException("Invalid email or password"));
         
-        if (!passwordEncoder.matches(request.getPassword(), customer.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), customer.getPassword())) {
             throw new InvalidCredentialsException("Invalid email or password");
         }
+        rehashIfNeeded(customer, request.getPassword());
         
-        String token = jwtService.generateToken(customer.getEmail());
-        
-        return new AuthResponseDTO(
-            token,
-            customer.getEmail(),
-            customer.getFirstName(),
-            customer.getLastName()
-        );
+        return authResponse(customer, refreshTokenService.issue(customer.getId()));
+    }
+    
+    /**
+     * Nouveau token d'accès sans vérification du mot de passe : le refresh token est tourné
+     * (usage unique), pour un coût d'une requête indexée au lieu d'un bcrypt.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AuthResponseDTO refresh(RefreshTokenRequestDTO request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        Customer customer = customerRepository.findById(rotation.customerId())
+            .orElseThrow(() -> new InvalidCredentialsException("Invalid refresh token"));
+        return authResponse(customer, rotation.refreshToken());
+    }
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void logout(RefreshTokenRequestDTO request) {
+        refreshTokenService.revoke(request.getRefreshToken());
     }
     
     public CustomerResponseDTO getCustomerById(Long id) {
@@ -80,12 +95,28 @@ public class CustomerService {
         return convertToDTO(customer);
     }
     
-    public List<CustomerResponseDTO> getAllCustomers() {
-        return customerRepository.findAll().stream()
+    /**
+     * Récupère plusieurs clients en une seule requête (utilisé par le booking-service)
+     * Les IDs inconnus sont simplement ignorés
+     */
+    public List<CustomerResponseDTO> getCustomersByIds(Set<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return customerRepository.findAllById(ids).stream()
             .map(this::convertToDTO)
             .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
+    public CursorPage<CustomerResponseDTO> getAllCustomers(String cursor, Integer size) {
+        CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+        int pageSize = CursorPage.size(size);
+        List<CustomerResponseDTO> rows = customerRepository.findPage(
+            after.createdAt(), after.id(), CursorPage.limit(pageSize));
+        return CursorPage.of(rows, pageSize, CustomerResponseDTO::getCreatedAt, CustomerResponseDTO::getId);
+    }
+    
     public CustomerResponseDTO updateCustomer(Long id, RegisterRequestDTO request) {
         Customer customer = customerRepository.findById(id)
             .orElseThrow(() -> new CustomerNotFoundException("Customer not found with id: " + id));
@@ -98,10 +129,11 @@ public class CustomerService {
         customer.setCountry(request.getCountry());
         
         if (request.getPassword() != null && !request.getPassword().isEmpty()) {
-            customer.setPassword(passwordEncoder.encode(request.getPassword()));
+            customer.setPassword(passwordHashingService.encode(request.getPassword()));
         }
         
         Customer updatedCustomer = customerRepository.save(customer);
+        customerEventPublisher.publishCustomerChanged(id, "UPDATED");
         return convertToDTO(updatedCustomer);
     }
     
@@ -110,6 +142,35 @@ public class CustomerService {
             throw new CustomerNotFoundException("Customer not found with id: " + id);
         }
         customerRepository.deleteById(id);
+        refreshTokenService.deleteForCustomer(id);
+        customerEventPublisher.publishCustomerChanged(id, "DELETED");
+    }
+    
+    /**
+     * Recalcule le hash au coût bcrypt courant après un login réussi.
+     * Best effort : en cas de surcharge, le hash sera mis à jour à un prochain login.
+     */
+    private void rehashIfNeeded(Customer customer, String rawPassword) {
+        if (!passwordHashingService.needsRehash(customer.getPassword())) {
+            return;
+        }
+        try {
+            customer.setPassword(passwordHashingService.encode(rawPassword));
+            customerRepository.save(customer);
+        } catch (RuntimeException e) {
+            log.warn("Could not rehash password for customer {}: {}", customer.getId(), e.getMessage());
+        }
+    }
+    
+    private AuthResponseDTO authResponse(Customer customer, String refreshToken) {
+        return new AuthResponseDTO(
+            jwtService.generateToken(customer.getEmail()),
+            customer.getEmail(),
+            customer.getFirstName(),
+            customer.getLastName(),
+            refreshToken,
+            jwtService.getExpirationSeconds()
+        );
     }
     
     private CustomerResponseDTO convertToDTO(Customer customer) {
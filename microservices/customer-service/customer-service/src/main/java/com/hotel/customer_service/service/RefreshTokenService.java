@@ -0,0 +1,126 @@
+package com.hotel.customer_service.service;
+
+import com.hotel.customer_service.exception.InvalidCredentialsException;
+import com.hotel.customer_service.model.RefreshToken;
+import com.hotel.customer_service.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Refresh tokens opaques et tournants. Un token aléatoire de 256 bits n'a pas besoin
+ * d'un hachage lent : une empreinte SHA-256 suffit, et la recherche se fait par index unique.
+ * Le renouvellement coûte donc une requête indexée au lieu d'une vérification bcrypt.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+    
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration refreshExpiration;
+    
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh-expiration:30d}") Duration refreshExpiration) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshExpiration = refreshExpiration;
+    }
+    
+    public record Rotation(Long customerId, String refreshToken) {}
+    
+    /**
+     * Nouveau token, début d'une nouvelle famille (login, inscription)
+     */
+    @Transactional
+    public String issue(Long customerId) {
+        return save(customerId, UUID.randomUUID().toString());
+    }
+    
+    /**
+     * Échange un refresh token contre un nouveau de la même famille.
+     * Un token déjà tourné qui est représenté (vol probable) révoque toute la famille.
+     */
+    @Transactional(noRollbackFor = InvalidCredentialsException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+            .orElseThrow(() -> new InvalidCredentialsException("Invalid refresh token"));
+        
+        LocalDateTime now = LocalDateTime.now();
+        if (current.getRevokedAt() == null && current.getExpiresAt().isBefore(now)) {
+            throw new InvalidCredentialsException("Refresh token expired");
+        }
+        // revokeIfActive échoue si une requête concurrente vient de tourner le même token
+        if (current.getRevokedAt() != null || refreshTokenRepository.revokeIfActive(current.getId(), now) == 0) {
+            log.warn("Refresh token reuse detected for customer {}, revoking family {}",
+                     current.getCustomerId(), current.getFamilyId());
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            throw new InvalidCredentialsException("Invalid refresh token");
+        }
+        
+        return new Rotation(current.getCustomerId(), save(current.getCustomerId(), current.getFamilyId()));
+    }
+    
+    /**
+     * Logout : révoque toute la famille du token présenté
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+            .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+    
+    @Transactional
+    public void deleteForCustomer(Long customerId) {
+        refreshTokenRepository.deleteByCustomerId(customerId);
+    }
+    
+    @Scheduled(cron = "${jwt.refresh-purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired refresh tokens", deleted);
+        }
+    }
+    
+    public long getExpirationSeconds() {
+        return refreshExpiration.toSeconds();
+    }
+    
+    private String save(Long customerId, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = ENCODER.encodeToString(bytes);
+        
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setCustomerId(customerId);
+        token.setFamilyId(familyId);
+        token.setExpiresAt(LocalDateTime.now().plus(refreshExpiration));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+    
+    static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
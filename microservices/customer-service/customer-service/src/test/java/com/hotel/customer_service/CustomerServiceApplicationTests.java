@@ -3,7 +3,10 @@ package com.hotel.customer_service;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+		"security.service-token=test-service-token",
+		"jwt.secret=5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437"
+})
 class CustomerServiceApplicationTests {
 
 	@Test
@@ -0,0 +1,59 @@
+package com.hotel.customer_service.security;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTest {
+
+    private final JwtService jwtService = new JwtService(JwtServiceTest.SECRET, Duration.ofHours(1).toMillis(), 100,
+        Clock.systemUTC());
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication authenticate(MockHttpServletRequest request) throws Exception {
+        Authentication[] seen = new Authentication[1];
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                seen[0] = SecurityContextHolder.getContext().getAuthentication();
+            }
+        });
+        return seen[0];
+    }
+
+    @Test
+    void validTokenAuthenticatesItsSubject() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/customers/1");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.generateToken("alice@example.com"));
+
+        assertThat(authenticate(request).getName()).isEqualTo("alice@example.com");
+    }
+
+    @Test
+    void identityHeaderWithoutSignedTokenIsIgnored() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/customers/1");
+        request.addHeader("X-Authenticated-User", "mallory@example.com");
+
+        assertThat(authenticate(request)).isNull();
+
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer not-a-jwt");
+        assertThat(authenticate(request)).isNull();
+    }
+}
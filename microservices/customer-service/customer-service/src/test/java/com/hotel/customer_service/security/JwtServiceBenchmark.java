@@ -0,0 +1,68 @@
+package com.hotel.customer_service.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit de vérification des JWT (JMH) : ancienne implémentation (clé et parser reconstruits,
+ * token parsé deux fois) contre la version avec clé/parser uniques et cache des tokens vérifiés.
+ * Lancer la méthode main depuis l'IDE ou via exec:java avec le classpath de test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class JwtServiceBenchmark {
+    
+    private static final String EMAIL = "alice@example.com";
+    
+    private JwtService jwtService;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(JwtServiceTest.SECRET, TimeUnit.HOURS.toMillis(1), 10_000, Clock.systemUTC());
+        token = jwtService.generateToken(EMAIL);
+    }
+    
+    @Benchmark
+    public boolean cachedVerification() {
+        return jwtService.isTokenValid(token, EMAIL);
+    }
+    
+    // Ancienne vérification, pour comparaison
+    @Benchmark
+    public boolean legacyVerification() {
+        String subject = legacyClaims(token).getSubject();
+        return subject.equals(EMAIL) && !legacyClaims(token).getExpiration().before(new Date());
+    }
+    
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(JwtServiceTest.SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(JwtServiceBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,84 @@
+package com.hotel.customer_service.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+    private static final long ONE_HOUR = Duration.ofHours(1).toMillis();
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-03-15T10:00:00Z"));
+    private final JwtService jwtService = new JwtService(SECRET, ONE_HOUR, 100, clock);
+
+    @Test
+    void validatesTokenAndServesRepeatedChecksFromCache() {
+        String token = jwtService.generateToken("alice@example.com");
+
+        assertThat(jwtService.isTokenValid(token, "alice@example.com")).isTrue();
+        assertThat(jwtService.isTokenValid(token, "alice@example.com")).isTrue();
+        assertThat(jwtService.isTokenValid(token, "bob@example.com")).isFalse();
+        assertThat(jwtService.extractEmail(token)).isEqualTo("alice@example.com");
+    }
+
+    @Test
+    void cachedTokenIsRejectedOnceExpired() {
+        String token = jwtService.generateToken("alice@example.com");
+        assertThat(jwtService.isTokenValid(token, "alice@example.com")).isTrue();
+
+        clock.advance(Duration.ofHours(1).plusSeconds(1));
+
+        // L'entrée peut encore être en cache : le token doit malgré tout être revérifié et refusé
+        assertThatThrownBy(() -> jwtService.isTokenValid(token, "alice@example.com"))
+            .isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void tamperedTokenIsNeverAccepted() {
+        String token = jwtService.generateToken("alice@example.com");
+        jwtService.isTokenValid(token, "alice@example.com");
+
+        String tampered = token.substring(0, token.length() - 2)
+            + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtService.extractEmail(tampered))
+            .isInstanceOf(SignatureException.class);
+    }
+
+    static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
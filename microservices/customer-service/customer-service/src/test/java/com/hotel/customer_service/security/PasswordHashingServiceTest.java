@@ -0,0 +1,83 @@
+package com.hotel.customer_service.security;
+
+import com.hotel.customer_service.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void saturatedPoolShedsLoadImmediately() throws Exception {
+        service = new PasswordHashingService(blockingEncoder(), meterRegistry, 1, 1, Duration.ofSeconds(5));
+
+        // Un hachage en cours, un en file : le suivant est refusé sans attendre
+        CompletableFuture.runAsync(() -> service.encode("a"));
+        CompletableFuture.runAsync(() -> service.encode("b"));
+        waitForQueueDepth(1);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> service.encode("c")).isInstanceOf(ServiceOverloadedException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void weakerHashesAreFlaggedForRehash() {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(5), meterRegistry, 1, 4, Duration.ofSeconds(5));
+        String weak = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertThat(service.matches("secret", weak)).isTrue();
+        assertThat(service.needsRehash(weak)).isTrue();
+        assertThat(service.needsRehash(service.encode("secret"))).isFalse();
+        assertThat(meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count())
+            .isEqualTo(1);
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("password.hashing.queue.depth").gauge().value() < depth
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.hotel.customer_service.security;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceAuthenticationFilterTest {
+
+    private final ServiceAuthenticationFilter filter = new ServiceAuthenticationFilter("s3cret");
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/customers/batch");
+        if (token != null) {
+            request.addHeader(ServiceAuthenticationFilter.SERVICE_TOKEN_HEADER, token);
+        }
+        Authentication[] seen = new Authentication[1];
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                seen[0] = SecurityContextHolder.getContext().getAuthentication();
+            }
+        });
+        return seen[0];
+    }
+
+    @Test
+    void onlyTheSharedSecretAuthenticatesAsService() throws Exception {
+        assertThat(authenticate("s3cret").getAuthorities()).extracting(Object::toString).containsExactly("ROLE_SERVICE");
+        assertThat(authenticate("guess")).isNull();
+        assertThat(authenticate(null)).isNull();
+    }
+}
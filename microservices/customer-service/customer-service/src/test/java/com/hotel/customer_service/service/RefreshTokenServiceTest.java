@@ -0,0 +1,82 @@
+package com.hotel.customer_service.service;
+
+import com.hotel.customer_service.exception.InvalidCredentialsException;
+import com.hotel.customer_service.model.RefreshToken;
+import com.hotel.customer_service.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    private final RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+    private final RefreshTokenService service = new RefreshTokenService(repository, Duration.ofDays(30));
+
+    @BeforeEach
+    void setUp() {
+        when(repository.save(any(RefreshToken.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void issuedTokenIsStoredOnlyAsHash() {
+        String raw = service.issue(7L);
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository).save(saved.capture());
+        assertThat(saved.getValue().getTokenHash()).isEqualTo(RefreshTokenService.hash(raw)).isNotEqualTo(raw);
+        assertThat(saved.getValue().getCustomerId()).isEqualTo(7L);
+    }
+
+    @Test
+    void rotationRevokesPresentedTokenAndKeepsFamily() {
+        RefreshToken current = stored("raw-1", null);
+        when(repository.revokeIfActive(eq(1L), any())).thenReturn(1);
+
+        RefreshTokenService.Rotation rotation = service.rotate("raw-1");
+
+        assertThat(rotation.customerId()).isEqualTo(7L);
+        assertThat(rotation.refreshToken()).isNotEqualTo("raw-1");
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository).save(saved.capture());
+        assertThat(saved.getValue().getFamilyId()).isEqualTo(current.getFamilyId());
+        verify(repository, never()).revokeFamily(any(), any());
+    }
+
+    @Test
+    void reusedTokenRevokesWholeFamily() {
+        stored("raw-1", LocalDateTime.now().minusMinutes(1));
+
+        assertThatThrownBy(() -> service.rotate("raw-1")).isInstanceOf(InvalidCredentialsException.class);
+
+        verify(repository).revokeFamily(eq("family-1"), any());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void concurrentRotationOfSameTokenIsTreatedAsReuse() {
+        stored("raw-1", null);
+        when(repository.revokeIfActive(anyLong(), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> service.rotate("raw-1")).isInstanceOf(InvalidCredentialsException.class);
+
+        verify(repository).revokeFamily(eq("family-1"), any());
+    }
+
+    private RefreshToken stored(String raw, LocalDateTime revokedAt) {
+        RefreshToken token = new RefreshToken(1L, RefreshTokenService.hash(raw), 7L, "family-1",
+            LocalDateTime.now().plusDays(1), revokedAt, LocalDateTime.now());
+        when(repository.findByTokenHash(RefreshTokenService.hash(raw))).thenReturn(Optional.of(token));
+        return token;
+    }
+}
@@ -0,0 +1,70 @@
+package com.hotel.customer_service.service;
+
+import com.hotel.customer_service.security.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût CPU d'un renouvellement (empreinte SHA-256 + nouveau JWT) comparé à un login
+ * (vérification bcrypt au coût par défaut + nouveau JWT). Les accès base, équivalents
+ * (une lecture indexée dans les deux cas), sont exclus.
+ * Lancer la méthode main depuis l'IDE ou via exec:java avec le classpath de test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RefreshVsLoginBenchmark {
+    
+    private static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+    private static final String EMAIL = "alice@example.com";
+    private static final String PASSWORD = "correct horse battery staple";
+    
+    private BCryptPasswordEncoder passwordEncoder;
+    private JwtService jwtService;
+    private String passwordHash;
+    private String refreshToken;
+    private String refreshTokenHash;
+    
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder(10);
+        jwtService = new JwtService(SECRET, TimeUnit.MINUTES.toMillis(15), 1000, new SimpleMeterRegistry());
+        passwordHash = passwordEncoder.encode(PASSWORD);
+        refreshToken = "dGhpcy1pcy1hLTI1Ni1iaXQtcmFuZG9tLXJlZnJlc2gtdG9rZW4";
+        refreshTokenHash = RefreshTokenService.hash(refreshToken);
+    }
+    
+    @Benchmark
+    public String passwordLogin() {
+        if (!passwordEncoder.matches(PASSWORD, passwordHash)) {
+            throw new IllegalStateException();
+        }
+        return jwtService.generateToken(EMAIL);
+    }
+    
+    @Benchmark
+    public String refresh() {
+        if (!RefreshTokenService.hash(refreshToken).equals(refreshTokenHash)) {
+            throw new IllegalStateException();
+        }
+        return jwtService.generateToken(EMAIL);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(RefreshVsLoginBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,31 @@
+package com.hotel.common.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ligne d'outbox envoyée par OutboxRelay : les événements d'un même agrégat (chambre,
+ * réservation) partent dans l'ordre de leur id
+ */
+public interface OutboxMessage {
+    
+    Long getId();
+    
+    /**
+     * Identifiant de l'agrégat dont les événements sont ordonnés
+     */
+    Long getAggregateId();
+    
+    String getRoutingKey();
+    
+    String getPayload();
+    
+    Integer getAttempts();
+    
+    void setAttempts(Integer attempts);
+    
+    void setNextAttemptAt(LocalDateTime nextAttemptAt);
+    
+    LocalDateTime getCreatedAt();
+    
+    void setParkedAt(LocalDateTime parkedAt);
+}
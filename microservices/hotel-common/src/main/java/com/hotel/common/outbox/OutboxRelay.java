@@ -0,0 +1,221 @@
+package com.hotel.common.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envoie les événements de l'outbox vers RabbitMQ, par lots, avec publisher confirms.
+ * Chaque passage verrouille le premier événement en attente de chaque agrégat prêt
+ * (FOR UPDATE SKIP LOCKED : deux instances ne prennent jamais le même agrégat), puis envoie
+ * tous les événements de ces agrégats par vagues : une vague contient l'événement suivant de
+ * chaque agrégat et n'est envoyée qu'une fois la précédente confirmée. L'ordre est donc garanti
+ * par agrégat ; un agrégat s'arrête à son premier échec et ceux en backoff sortent de la fenêtre.
+ * Après max-attempts échecs, l'événement est mis de côté (parked_at) : il n'est plus retenté et
+ * ne bloque plus la suite de son agrégat. Chaque service en déclare un, avec sa conversion en
+ * message et la planification de drain().
+ *
+ * @param <E> ligne d'outbox
+ */
+public abstract class OutboxRelay<E extends OutboxMessage> {
+    
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    
+    /**
+     * @param batchSize        agrégats pris par passage
+     * @param maxEventsPerPass nombre max d'événements envoyés par passage
+     * @param maxAttempts      échecs avant la mise de côté
+     */
+    public record Settings(int batchSize, int maxEventsPerPass, long confirmTimeoutMs,
+                           long initialBackoffMs, long maxBackoffMs, int maxAttempts) {
+    }
+    
+    private final String aggregate;
+    private final OutboxStore<E> store;
+    private final RabbitTemplate rabbitTemplate;
+    private final String exchange;
+    private final Settings settings;
+    
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter published;
+    private final Counter failed;
+    private final Counter parked;
+    
+    /**
+     * @param aggregate préfixe des métriques et des message ids, nom dans les journaux (room, booking)
+     */
+    protected OutboxRelay(String aggregate, OutboxStore<E> store, RabbitTemplate rabbitTemplate,
+                          String exchange, Settings settings, MeterRegistry meterRegistry) {
+        this.aggregate = aggregate;
+        this.store = store;
+        this.rabbitTemplate = rabbitTemplate;
+        this.exchange = exchange;
+        this.settings = settings;
+        this.published = Counter.builder(aggregate + ".outbox.published")
+            .description("Outbox events confirmed by the broker")
+            .register(meterRegistry);
+        this.failed = Counter.builder(aggregate + ".outbox.failed")
+            .description("Outbox publish attempts that were nacked or timed out")
+            .register(meterRegistry);
+        this.parked = Counter.builder(aggregate + ".outbox.parked")
+            .description("Outbox events set aside after reaching the maximum number of attempts")
+            .register(meterRegistry);
+        Gauge.builder(aggregate + ".outbox.depth", depth, AtomicLong::get)
+            .description("Events waiting in the outbox")
+            .register(meterRegistry);
+        Gauge.builder(aggregate + ".outbox.lag.seconds", lagMillis, value -> value.get() / 1000.0)
+            .description("Age of the oldest event waiting in the outbox")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Message AMQP de l'événement (le message id est ajouté par le relais) ; une exception
+     * compte comme un échec d'envoi
+     */
+    protected abstract Message toMessage(E event) throws Exception;
+    
+    /**
+     * Les verrous des têtes d'agrégat sont tenus jusqu'à la fin du passage (suppressions
+     * et reports de backoff compris)
+     */
+    @Transactional
+    public void drain() {
+        LocalDateTime now = LocalDateTime.now();
+        List<E> heads = store.lockReadyHeads(now, settings.batchSize());
+        updateGauges(now);
+        if (heads.isEmpty()) {
+            return;
+        }
+        
+        Map<Long, List<E>> byAggregate = new LinkedHashMap<>();
+        for (E head : heads) {
+            byAggregate.put(head.getAggregateId(), new ArrayList<>(List.of(head)));
+        }
+        // Suite de chaque agrégat, bornée : les premiers événements par id sont un préfixe de chaque agrégat
+        List<E> following = store.findPendingByAggregateIdIn(
+            byAggregate.keySet(), PageRequest.of(0, settings.maxEventsPerPass()));
+        for (E event : following) {
+            List<E> events = byAggregate.get(event.getAggregateId());
+            if (event.getId() > events.get(events.size() - 1).getId()) {
+                events.add(event);
+            }
+        }
+        publish(byAggregate, now);
+    }
+    
+    private void publish(Map<Long, List<E>> byAggregate, LocalDateTime now) {
+        Map<Long, Iterator<E>> remaining = new LinkedHashMap<>();
+        byAggregate.forEach((aggregateId, events) -> remaining.put(aggregateId, events.iterator()));
+        List<Long> confirmed = new ArrayList<>();
+        List<E> failures = new ArrayList<>();
+        
+        while (!remaining.isEmpty()) {
+            List<E> wave = new ArrayList<>();
+            for (Iterator<Iterator<E>> aggregates = remaining.values().iterator(); aggregates.hasNext(); ) {
+                Iterator<E> events = aggregates.next();
+                if (events.hasNext()) {
+                    wave.add(events.next());
+                } else {
+                    aggregates.remove();
+                }
+            }
+            for (E failure : sendAndConfirm(wave, confirmed)) {
+                // Les événements suivants de l'agrégat attendent le prochain essai de celui-ci
+                failures.add(failure);
+                remaining.remove(failure.getAggregateId());
+            }
+        }
+        
+        if (!confirmed.isEmpty()) {
+            store.deleteAllByIdInBatch(confirmed);
+            published.increment(confirmed.size());
+            log.debug("Published {} {} events from outbox", confirmed.size(), aggregate);
+        }
+        
+        if (!failures.isEmpty()) {
+            for (E event : failures) {
+                int attempts = event.getAttempts() + 1;
+                event.setAttempts(attempts);
+                if (attempts >= settings.maxAttempts()) {
+                    event.setParkedAt(now);
+                    parked.increment();
+                    log.error("Outbox event {} for {} {} parked after {} attempts",
+                              event.getId(), aggregate, event.getAggregateId(), attempts);
+                } else {
+                    event.setNextAttemptAt(now.plus(backoff(attempts)));
+                }
+            }
+            store.saveAll(failures);
+            failed.increment(failures.size());
+        }
+    }
+    
+    /**
+     * Envoie une vague (au plus un événement par agrégat) et attend tous ses confirms ;
+     * ajoute les ids confirmés à confirmed et renvoie les événements en échec
+     */
+    private List<E> sendAndConfirm(List<E> wave, List<Long> confirmed) {
+        Map<E, CorrelationData> inFlight = new LinkedHashMap<>();
+        List<E> failures = new ArrayList<>();
+        
+        for (E event : wave) {
+            CorrelationData correlation = new CorrelationData(String.valueOf(event.getId()));
+            try {
+                Message message = toMessage(event);
+                message.getMessageProperties().setMessageId(aggregate + "-outbox-" + event.getId());
+                rabbitTemplate.send(exchange, event.getRoutingKey(), message, correlation);
+                inFlight.put(event, correlation);
+            } catch (Exception e) {
+                log.warn("Failed to send outbox event {} for {} {}: {}",
+                         event.getId(), aggregate, event.getAggregateId(), e.getMessage());
+                failures.add(event);
+            }
+        }
+        
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.confirmTimeoutMs());
+        for (Map.Entry<E, CorrelationData> entry : inFlight.entrySet()) {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                CorrelationData.Confirm confirm = entry.getValue().getFuture().get(remaining, TimeUnit.NANOSECONDS);
+                if (confirm.isAck()) {
+                    confirmed.add(entry.getKey().getId());
+                } else {
+                    log.warn("Outbox event {} nacked: {}", entry.getKey().getId(), confirm.getReason());
+                    failures.add(entry.getKey());
+                }
+            } catch (Exception e) {
+                log.warn("No confirm for outbox event {}: {}", entry.getKey().getId(), e.getMessage());
+                failures.add(entry.getKey());
+            }
+        }
+        return failures;
+    }
+    
+    /**
+     * Backoff exponentiel borné : initial, x2, x4... jusqu'à max-backoff-ms
+     */
+    Duration backoff(int attempts) {
+        long delay = settings.initialBackoffMs() << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, settings.maxBackoffMs()));
+    }
+    
+    private void updateGauges(LocalDateTime now) {
+        Optional<E> oldest = store.findFirstByParkedAtIsNullOrderByIdAsc();
+        depth.set(oldest.isPresent() ? store.countByParkedAtIsNull() : 0);
+        lagMillis.set(oldest.map(event -> Math.max(0, Duration.between(event.getCreatedAt(), now).toMillis())).orElse(0L));
+    }
+}
@@ -0,0 +1,36 @@
+package com.hotel.common.outbox;
+
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Accès à la table d'outbox utilisé par OutboxRelay, implémenté par le repository de chaque service
+ * (deleteAllByIdInBatch et saveAll viennent de JpaRepository)
+ *
+ * @param <E> ligne d'outbox
+ */
+public interface OutboxStore<E extends OutboxMessage> {
+    
+    /**
+     * Premier événement non mis de côté de chaque agrégat, dont l'essai est dû, verrouillé pour ce
+     * relais (FOR UPDATE SKIP LOCKED). Un agrégat en backoff ne prend pas de place dans la limite.
+     */
+    List<E> lockReadyHeads(LocalDateTime now, int limit);
+    
+    /**
+     * Événements non mis de côté de ces agrégats, par id croissant
+     */
+    List<E> findPendingByAggregateIdIn(Collection<Long> aggregateIds, Pageable pageable);
+    
+    Optional<E> findFirstByParkedAtIsNullOrderByIdAsc();
+    
+    long countByParkedAtIsNull();
+    
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+    
+    <S extends E> List<S> saveAll(Iterable<S> events);
+}
@@ -0,0 +1,181 @@
+package com.hotel.common.status;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Nombre d'entités par statut tenu en mémoire, pour les endpoints de comptage et les
+ * statistiques sans COUNT(*). Chaque écriture applique son delta après commit, sous verrou,
+ * et publie un nouvel instantané immuable (lecture cohérente entre statuts). La base reste
+ * la source de vérité : chargement au démarrage et réconciliation périodique par la requête
+ * de comptage (un GROUP BY), qui mesure l'écart ({entity}.status.counter.drift) et rattrape
+ * les écritures des autres instances. Chaque service en déclare un par entité, avec sa
+ * requête et la planification de reconcile().
+ *
+ * @param <E> statuts de l'entité
+ */
+public class StatusCounters<E extends Enum<E>> {
+    
+    private static final Logger log = LoggerFactory.getLogger(StatusCounters.class);
+    
+    private final Class<E> statusType;
+    private final String entity;
+    private final Supplier<Map<E, Long>> countQuery;
+    private final Counter reconciliationsWithDrift;
+    
+    private volatile Map<E, Long> counts;
+    private final Map<E, AtomicLong> lastDrift;
+    private final AtomicLong modifications = new AtomicLong();
+    // Transactions entre leur commit et l'application de leur delta
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    /**
+     * @param entity     préfixe des métriques et nom dans les journaux (room, booking)
+     * @param countQuery nombre d'entités par statut en base (les statuts absents valent 0)
+     */
+    public StatusCounters(Class<E> statusType, String entity, Supplier<Map<E, Long>> countQuery,
+                          MeterRegistry meterRegistry) {
+        this.statusType = statusType;
+        this.entity = entity;
+        this.countQuery = countQuery;
+        this.lastDrift = new EnumMap<>(statusType);
+        this.reconciliationsWithDrift = Counter.builder(entity + ".status.counter.reconciliations")
+            .tag("result", "drift")
+            .description("Reconciliations that found the status counters out of sync with the database")
+            .register(meterRegistry);
+        for (E status : statusType.getEnumConstants()) {
+            AtomicLong drift = new AtomicLong();
+            lastDrift.put(status, drift);
+            Gauge.builder(entity + ".status.counter.drift", drift, AtomicLong::get)
+                .tag("status", status.name())
+                .description("In-memory count minus database count at the last reconciliation")
+                .register(meterRegistry);
+        }
+    }
+    
+    /**
+     * Comptes par statut (tous les statuts, 0 inclus), ou vide tant qu'ils ne sont pas
+     * chargés : l'appelant interroge alors la base
+     */
+    public Optional<Map<E, Long>> counts() {
+        return Optional.ofNullable(counts);
+    }
+    
+    /**
+     * Comptes par statut lus en base (tous les statuts, 0 inclus), sans toucher aux compteurs
+     */
+    public Map<E, Long> countInDatabase() {
+        Map<E, Long> fresh = new EnumMap<>(statusType);
+        for (E status : statusType.getEnumConstants()) {
+            fresh.put(status, 0L);
+        }
+        fresh.putAll(countQuery.get());
+        return fresh;
+    }
+    
+    /**
+     * Une entité passe de from à to (from null : création, to null : suppression),
+     * appliqué après le commit de la transaction en cours (ou immédiatement s'il n'y en a pas)
+     */
+    public void changed(E from, E to) {
+        if (from == to) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean committing;
+                
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    committing = true;
+                    inFlight.incrementAndGet();
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    if (!committing) {
+                        return;
+                    }
+                    try {
+                        if (status == STATUS_COMMITTED) {
+                            apply(from, to);
+                        }
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                }
+            });
+        } else {
+            apply(from, to);
+        }
+    }
+    
+    private synchronized void apply(E from, E to) {
+        modifications.incrementAndGet();
+        Map<E, Long> current = counts;
+        if (current == null) {
+            return;
+        }
+        Map<E, Long> next = new EnumMap<>(current);
+        if (from != null) {
+            next.merge(from, -1L, Long::sum);
+        }
+        if (to != null) {
+            next.merge(to, 1L, Long::sum);
+        }
+        counts = Collections.unmodifiableMap(next);
+    }
+    
+    /**
+     * Recompte en base et remplace les compteurs. Si une écriture a été validée ou appliquée
+     * pendant la requête, on réessaie au prochain passage : son delta serait sinon compté
+     * deux fois ou pas du tout.
+     */
+    public void reconcile() {
+        try {
+            long before = modifications.get();
+            if (inFlight.get() > 0) {
+                log.debug("{} status change being committed, retrying counter reconciliation later", entity);
+                return;
+            }
+            Map<E, Long> fresh = countInDatabase();
+            
+            synchronized (this) {
+                if (modifications.get() != before || inFlight.get() > 0) {
+                    log.debug("{} statuses changed during counter reconciliation, retrying later", entity);
+                    return;
+                }
+                Map<E, Long> current = counts;
+                if (current != null) {
+                    boolean drifted = false;
+                    for (E status : statusType.getEnumConstants()) {
+                        long drift = current.get(status) - fresh.get(status);
+                        lastDrift.get(status).set(drift);
+                        drifted |= drift != 0;
+                    }
+                    if (drifted) {
+                        reconciliationsWithDrift.increment();
+                        log.warn("{} status counters drifted from the database ({} vs {}), resetting",
+                            entity, current, fresh);
+                    }
+                }
+                counts = Collections.unmodifiableMap(fresh);
+            }
+        } catch (Exception e) {
+            log.error("Failed to reconcile {} status counters", entity, e);
+        }
+    }
+}
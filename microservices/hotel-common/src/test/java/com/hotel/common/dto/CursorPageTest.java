@@ -0,0 +1,39 @@
+package com.hotel.common.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorPageTest {
+
+    private record Row(long id, LocalDateTime createdAt) {
+    }
+
+    @Test
+    void cursorRoundTripsAndPointsAfterTheLastItem() {
+        LocalDateTime created = LocalDateTime.of(2026, 3, 15, 10, 0);
+        List<Row> rows = List.of(new Row(3, created), new Row(2, created), new Row(1, created.minusDays(1)));
+
+        CursorPage<Row> page = CursorPage.of(rows, 2, Row::createdAt, Row::id);
+
+        assertThat(page.items()).extracting(Row::id).containsExactly(3L, 2L);
+        assertThat(CursorPage.Cursor.decode(page.nextCursor())).isEqualTo(new CursorPage.Cursor(created, 2L));
+        assertThat(page.toResponseEntity().getHeaders().getFirst(CursorPage.NEXT_CURSOR_HEADER))
+            .isEqualTo(page.nextCursor());
+    }
+
+    @Test
+    void lastPageHasNoCursorAndSizeIsBounded() {
+        CursorPage<Row> page = CursorPage.of(List.of(new Row(1, LocalDateTime.now())), 2, Row::createdAt, Row::id);
+
+        assertThat(page.nextCursor()).isNull();
+        assertThat(page.toResponseEntity().getHeaders()).doesNotContainKey(CursorPage.NEXT_CURSOR_HEADER);
+        assertThat(CursorPage.size(null)).isEqualTo(CursorPage.DEFAULT_SIZE);
+        assertThatThrownBy(() -> CursorPage.size(CursorPage.MAX_SIZE + 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorPage.Cursor.decode("%%%")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
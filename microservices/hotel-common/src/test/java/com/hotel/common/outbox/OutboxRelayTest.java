@@ -0,0 +1,196 @@
+package com.hotel.common.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    static class Event implements OutboxMessage {
+        final Long id;
+        final Long aggregateId;
+        String payload;
+        Integer attempts = 0;
+        LocalDateTime nextAttemptAt;
+        final LocalDateTime createdAt = LocalDateTime.now().minusSeconds(1);
+        LocalDateTime parkedAt;
+
+        Event(long id, long aggregateId) {
+            this.id = id;
+            this.aggregateId = aggregateId;
+            this.payload = "{\"id\":" + aggregateId + "}";
+        }
+
+        @Override public Long getId() { return id; }
+        @Override public Long getAggregateId() { return aggregateId; }
+        @Override public String getRoutingKey() { return "item.changed"; }
+        @Override public String getPayload() { return payload; }
+        @Override public Integer getAttempts() { return attempts; }
+        @Override public void setAttempts(Integer attempts) { this.attempts = attempts; }
+        @Override public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+        @Override public LocalDateTime getCreatedAt() { return createdAt; }
+        @Override public void setParkedAt(LocalDateTime parkedAt) { this.parkedAt = parkedAt; }
+    }
+
+    static class Relay extends OutboxRelay<Event> {
+        Relay(OutboxStore<Event> store, RabbitTemplate rabbitTemplate) {
+            super("item", store, rabbitTemplate, "item.exchange",
+                new Settings(100, 1000, 1000, 1000, 60000, 5), new SimpleMeterRegistry());
+        }
+
+        @Override
+        protected Message toMessage(Event event) {
+            if (!event.getPayload().startsWith("{")) {
+                throw new IllegalArgumentException("not json");
+            }
+            return new Message(event.getPayload().getBytes(StandardCharsets.UTF_8), new MessageProperties());
+        }
+    }
+
+    private OutboxStore<Event> store;
+    private RabbitTemplate rabbitTemplate;
+    private Relay relay;
+
+    // Ids envoyés, dans l'ordre, et ids que le broker refuse (nack)
+    private final List<Long> sent = new ArrayList<>();
+    private final Set<Long> nacked = new HashSet<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        store = mock(OutboxStore.class);
+        rabbitTemplate = mock(RabbitTemplate.class);
+        relay = new Relay(store, rabbitTemplate);
+
+        doAnswer(invocation -> {
+            Message message = invocation.getArgument(2);
+            CorrelationData correlation = invocation.getArgument(3);
+            long id = Long.parseLong(correlation.getId());
+            assertThat(message.getMessageProperties().getMessageId()).isEqualTo("item-outbox-" + id);
+            sent.add(id);
+            correlation.getFuture().complete(new CorrelationData.Confirm(!nacked.contains(id), "nack"));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        when(store.findFirstByParkedAtIsNullOrderByIdAsc()).thenReturn(Optional.empty());
+    }
+
+    private void outbox(List<Event> heads, List<Event> all) {
+        when(store.lockReadyHeads(any(LocalDateTime.class), anyInt())).thenReturn(heads);
+        when(store.findPendingByAggregateIdIn(anyCollection(), any())).thenReturn(all);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> deleted() {
+        ArgumentCaptor<Iterable<Long>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(store).deleteAllByIdInBatch(captor.capture());
+        List<Long> ids = new ArrayList<>();
+        captor.getValue().forEach(ids::add);
+        return ids;
+    }
+
+    @Test
+    void sendsEveryEventOfAnAggregateInOrderInOnePass() {
+        Event a1 = new Event(1, 10), a2 = new Event(2, 10), b1 = new Event(3, 20), a3 = new Event(4, 10);
+        outbox(List.of(a1, b1), List.of(a1, a2, b1, a3));
+
+        relay.drain();
+
+        // Vague 1 : tête de chaque agrégat ; puis la suite de l'agrégat 10, une vague à la fois
+        assertThat(sent).containsExactly(1L, 3L, 2L, 4L);
+        assertThat(deleted()).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+        verify(store, never()).saveAll(any());
+    }
+
+    @Test
+    void aggregateStopsAtItsFirstFailureWithoutBlockingOthers() {
+        Event a1 = new Event(1, 10), a2 = new Event(2, 10), a3 = new Event(3, 10);
+        Event b1 = new Event(4, 20), b2 = new Event(5, 20);
+        a2.attempts = 2;
+        outbox(List.of(a1, b1), List.of(a1, a2, a3, b1, b2));
+        nacked.add(2L);
+
+        LocalDateTime before = LocalDateTime.now();
+        relay.drain();
+
+        // L'événement 3 n'est pas envoyé avant que 2 soit passé
+        assertThat(sent).containsExactly(1L, 4L, 2L, 5L);
+        assertThat(deleted()).containsExactlyInAnyOrder(1L, 4L, 5L);
+        assertThat(a2.attempts).isEqualTo(3);
+        assertThat(a2.nextAttemptAt).isAfterOrEqualTo(before.plusSeconds(4));
+        assertThat(a2.parkedAt).isNull();
+        assertThat(a3.attempts).isZero();
+        verify(store).saveAll(List.of(a2));
+    }
+
+    @Test
+    void failedSendIsRetriedLaterWithBackoff() {
+        Event head = new Event(1, 10);
+        head.attempts = 2;
+        outbox(List.of(head), List.of(head));
+        doAnswer(invocation -> {
+            throw new AmqpConnectException(new ConnectException("down"));
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        LocalDateTime before = LocalDateTime.now();
+        relay.drain();
+
+        assertThat(head.attempts).isEqualTo(3);
+        assertThat(head.nextAttemptAt).isAfterOrEqualTo(before.plusSeconds(4));
+        verify(store, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void eventIsParkedAfterMaxAttempts() {
+        Event poison = new Event(1, 10);
+        poison.payload = "not json";
+        poison.attempts = 4;
+        outbox(List.of(poison), List.of(poison));
+
+        relay.drain();
+
+        assertThat(sent).isEmpty();
+        assertThat(poison.attempts).isEqualTo(5);
+        assertThat(poison.parkedAt).isNotNull();
+        verify(store).saveAll(List.of(poison));
+    }
+
+    @Test
+    void nothingReadyMeansNoPublish() {
+        outbox(List.of(), List.of());
+
+        relay.drain();
+
+        verify(rabbitTemplate, never()).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        verify(store, never()).findPendingByAggregateIdIn(anyCollection(), any());
+    }
+
+    @Test
+    void backoffDoublesUpToTheMaximum() {
+        assertThat(relay.backoff(1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(relay.backoff(3)).isEqualTo(Duration.ofSeconds(4));
+        assertThat(relay.backoff(30)).isEqualTo(Duration.ofSeconds(60));
+    }
+}
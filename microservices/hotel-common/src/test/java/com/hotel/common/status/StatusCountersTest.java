@@ -0,0 +1,97 @@
+package com.hotel.common.status;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatusCountersTest {
+
+    enum Status { OPEN, ACTIVE, CLOSED }
+
+    // Comptes renvoyés par la "base"
+    private Map<Status, Long> database = Map.of();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StatusCounters<Status> counters =
+        new StatusCounters<>(Status.class, "item", () -> database, meterRegistry);
+
+    private double drift(Status status) {
+        return meterRegistry.get("item.status.counter.drift").tag("status", status.name()).gauge().value();
+    }
+
+    @Test
+    void emptyUntilLoadedThenFollowsTransitions() {
+        assertThat(counters.counts()).isEmpty();
+
+        database = Map.of(Status.OPEN, 10L, Status.ACTIVE, 4L);
+        counters.reconcile();
+
+        counters.changed(Status.OPEN, Status.ACTIVE);
+        counters.changed(null, Status.CLOSED);
+        counters.changed(Status.ACTIVE, null);
+        counters.changed(Status.OPEN, Status.OPEN);
+
+        assertThat(counters.counts()).hasValueSatisfying(counts -> {
+            assertThat(counts.get(Status.OPEN)).isEqualTo(9L);
+            assertThat(counts.get(Status.ACTIVE)).isEqualTo(4L);
+            assertThat(counts.get(Status.CLOSED)).isEqualTo(1L);
+        });
+    }
+
+    @Test
+    void reconciliationReportsDriftAndResetsToDatabase() {
+        database = Map.of(Status.OPEN, 10L);
+        counters.reconcile();
+        assertThat(drift(Status.OPEN)).isZero();
+
+        // Deux passages à ACTIVE écrits par une autre instance
+        database = Map.of(Status.OPEN, 8L, Status.ACTIVE, 2L);
+        counters.reconcile();
+
+        assertThat(drift(Status.OPEN)).isEqualTo(2.0);
+        assertThat(drift(Status.ACTIVE)).isEqualTo(-2.0);
+        assertThat(meterRegistry.get("item.status.counter.reconciliations").counter().count()).isEqualTo(1.0);
+        assertThat(counters.counts().orElseThrow())
+            .containsEntry(Status.OPEN, 8L)
+            .containsEntry(Status.CLOSED, 0L);
+    }
+
+    @Test
+    void deltaIsAppliedOnlyWhenTheTransactionCommits() {
+        database = Map.of(Status.OPEN, 1L);
+        counters.reconcile();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counters.changed(Status.OPEN, Status.CLOSED);
+            assertThat(counters.counts().orElseThrow()).containsEntry(Status.OPEN, 1L);
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+            assertThat(counters.counts().orElseThrow()).containsEntry(Status.OPEN, 1L);
+
+            counters.changed(Status.OPEN, Status.CLOSED);
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+            assertThat(counters.counts().orElseThrow())
+                .containsEntry(Status.OPEN, 0L)
+                .containsEntry(Status.CLOSED, 1L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // Fin de transaction simulée : les synchronisations enregistrées sont déclenchées puis retirées
+    private static void complete(int status) {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.beforeCommit(false);
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+}
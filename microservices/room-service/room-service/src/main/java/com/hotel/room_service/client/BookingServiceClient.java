@@ -0,0 +1,40 @@
+package com.hotel.room_service.client;
+
+import com.hotel.room_service.dto.BookingStatusDTO;
+import com.hotel.room_service.dto.RoomOccupancyDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class BookingServiceClient {
+    
+    private static final ParameterizedTypeReference<List<RoomOccupancyDTO>> OCCUPANCY_LIST =
+        new ParameterizedTypeReference<>() {};
+    
+    private final RestTemplate restTemplate;
+    
+    /**
+     * Séjours PENDING / CONFIRMED non terminés à la date donnée
+     */
+    public List<RoomOccupancyDTO> getOccupancy(LocalDate from) {
+        List<RoomOccupancyDTO> body = restTemplate.exchange(
+            "http://booking-service/api/bookings/occupancy?from={from}",
+            HttpMethod.GET, null, OCCUPANCY_LIST, from
+        ).getBody();
+        return body != null ? body : List.of();
+    }
+    
+    /**
+     * Statut courant d'une réservation
+     */
+    public BookingStatusDTO getBooking(Long bookingId) {
+        return restTemplate.getForObject("http://booking-service/api/bookings/{id}", BookingStatusDTO.class, bookingId);
+    }
+}
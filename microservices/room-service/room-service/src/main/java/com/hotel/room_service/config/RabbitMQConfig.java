@@ -0,0 +1,100 @@
+package com.hotel.room_service.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+    
+    @Value("${rabbitmq.exchange.room}")
+    private String roomExchange;
+    
+    @Value("${rabbitmq.routing-key.room-changed}")
+    private String roomChangedRoutingKey;
+    
+    @Value("${rabbitmq.exchange.booking}")
+    private String bookingExchange;
+    
+    @Value("${rabbitmq.routing-key.booking-events}")
+    private String bookingEventsRoutingKey;
+    
+    // Exchange : chaque service abonné y lie sa propre queue
+    @Bean
+    public TopicExchange roomExchange() {
+        return new TopicExchange(roomExchange, true, false);
+    }
+    
+    // Queue propre à chaque instance : recharge du catalogue en mémoire sur toute modification
+    @Bean
+    public Queue roomCatalogQueue() {
+        return new AnonymousQueue();
+    }
+    
+    @Bean
+    public Binding roomCatalogBinding() {
+        return BindingBuilder.bind(roomCatalogQueue()).to(roomExchange()).with(roomChangedRoutingKey);
+    }
+    
+    // Événements de réservation (création, confirmation, annulation...) pour l'index de disponibilité
+    @Bean
+    public TopicExchange bookingExchange() {
+        return new TopicExchange(bookingExchange, true, false);
+    }
+    
+    // Queue propre à chaque instance : chaque index de disponibilité reçoit tous les événements.
+    // Les événements émis pendant une déconnexion sont perdus : l'index est rechargé depuis
+    // booking-service à chaque (re)connexion (RoomAvailabilityService.onConsumerStarted)
+    @Bean
+    public Queue bookingEventsQueue() {
+        return new AnonymousQueue();
+    }
+    
+    @Bean
+    public Binding bookingEventsBinding() {
+        return BindingBuilder.bind(bookingEventsQueue()).to(bookingExchange()).with(bookingEventsRoutingKey);
+    }
+    
+    // Message converter pour JSON
+    @Bean
+    public MessageConverter messageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+    
+    // RabbitTemplate pour ENVOYER des messages
+    @Bean
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+        RabbitTemplate template = new RabbitTemplate(connectionFactory);
+        template.setMessageConverter(messageConverter());
+        return template;
+    }
+    
+    // Mode batch pour les notifications du catalogue : une rafale (mise à jour en masse)
+    // est reçue par lots de batch-size et déclenche une seule reconstruction par lot
+    @Bean
+    public SimpleRabbitListenerContainerFactory catalogListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            @Value("${room.catalog.listener.batch-size:500}") int batchSize,
+            @Value("${room.catalog.listener.batch-receive-timeout-ms:200}") long receiveTimeout) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeout); // Lot partiel si la queue est presque vide
+        factory.setPrefetchCount(batchSize);
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+}
@@ -1,18 +1,32 @@
 package com.hotel.room_service.controller;
 
+import com.hotel.room_service.dto.BulkStatusUpdateRequestDTO;
+import com.hotel.room_service.dto.BulkStatusUpdateResultDTO;
+import com.hotel.room_service.dto.RoomAvailabilityDTO;
+import com.hotel.room_service.dto.RoomFacetSearchDTO;
 import com.hotel.room_service.dto.RoomRequestDTO;
 import com.hotel.room_service.dto.RoomResponseDTO;
+import com.hotel.room_service.dto.RoomStatsDTO;
+import com.hotel.room_service.dto.RoomSummaryDTO;
 import com.hotel.room_service.model.RoomStatus;
 import com.hotel.room_service.model.RoomType;
+import com.hotel.room_service.service.RoomAvailabilityService;
+import com.hotel.room_service.service.RoomCatalog;
+import com.hotel.room_service.service.RoomCatalogService;
+import com.hotel.room_service.service.RoomFacetService;
 import com.hotel.room_service.service.RoomService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/rooms")
@@ -20,6 +34,9 @@ import java.util.List;
 public class RoomController {
     
     private final RoomService roomService;
+    private final RoomAvailabilityService availabilityService;
+    private final RoomCatalogService catalogService;
+    private final RoomFacetService facetService;
     
     // ✅ 1. METTRE TOUS LES ENDPOINTS SPÉCIFIQUES EN PREMIER
     
@@ -39,6 +56,11 @@ public class RoomController {
         return ResponseEntity.ok(count);
     }
     
+    @GetMapping("/stats")
+    public ResponseEntity<RoomStatsDTO> getRoomStats() {
+        return ResponseEntity.ok(roomService.getStats());
+    }
+    
     @GetMapping("/number/{roomNumber}")
     public ResponseEntity<RoomResponseDTO> getRoomByNumber(@PathVariable String roomNumber) {
         RoomResponseDTO room = roomService.getRoomByNumber(roomNumber);
@@ -46,34 +68,120 @@ public class RoomController {
     }
     
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<RoomResponseDTO>> getRoomsByStatus(@PathVariable RoomStatus status) {
-        List<RoomResponseDTO> rooms = roomService.getRoomsByStatus(status);
-        return ResponseEntity.ok(rooms);
+    public ResponseEntity<List<RoomResponseDTO>> getRoomsByStatus(
+            @PathVariable RoomStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest request) {
+        RoomCatalog catalog = catalogService.current();
+        if (request.checkNotModified(catalog.etag())) {
+            return null;
+        }
+        return catalog.byStatus(status, cursor, size).toResponseEntity();
     }
     
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<RoomResponseDTO>> getRoomsByType(@PathVariable RoomType type) {
-        List<RoomResponseDTO> rooms = roomService.getRoomsByType(type);
-        return ResponseEntity.ok(rooms);
+    public ResponseEntity<List<RoomResponseDTO>> getRoomsByType(
+            @PathVariable RoomType type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest request) {
+        RoomCatalog catalog = catalogService.current();
+        if (request.checkNotModified(catalog.etag())) {
+            return null;
+        }
+        return catalog.byType(type, cursor, size).toResponseEntity();
     }
     
     @GetMapping("/available/{type}")
-    public ResponseEntity<List<RoomResponseDTO>> getAvailableRoomsByType(@PathVariable RoomType type) {
-        List<RoomResponseDTO> rooms = roomService.getAvailableRoomsByType(type);
-        return ResponseEntity.ok(rooms);
+    public ResponseEntity<List<RoomResponseDTO>> getAvailableRoomsByType(
+            @PathVariable RoomType type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest request) {
+        RoomCatalog catalog = catalogService.current();
+        if (request.checkNotModified(catalog.etag())) {
+            return null;
+        }
+        return catalog.availableByType(type, cursor, size).toResponseEntity();
     }
     
     @GetMapping("/price-range")
     public ResponseEntity<List<RoomResponseDTO>> getRoomsByPriceRange(
             @RequestParam BigDecimal minPrice,
-            @RequestParam BigDecimal maxPrice) {
-        List<RoomResponseDTO> rooms = roomService.getRoomsByPriceRange(minPrice, maxPrice);
-        return ResponseEntity.ok(rooms);
+            @RequestParam BigDecimal maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest request) {
+        RoomCatalog catalog = catalogService.current();
+        if (request.checkNotModified(catalog.etag())) {
+            return null;
+        }
+        return catalog.byPriceRange(minPrice, maxPrice, cursor, size).toResponseEntity();
+    }
+    
+    /**
+     * Liste compacte non paginée (id, numéro, type, étage) pour les grilles d'occupation
+     * GET /api/rooms/summary?floor=2&type=SUITE
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<List<RoomSummaryDTO>> getRoomSummaries(
+            @RequestParam(required = false) Integer floor,
+            @RequestParam(required = false) RoomType type) {
+        return ResponseEntity.ok(roomService.getRoomSummaries(floor, type));
+    }
+    
+    /**
+     * Chambres libres sur tout le séjour, triées par prix total
+     * GET /api/rooms/search?checkIn=2026-05-01&checkOut=2026-05-04&guests=2&type=DELUXE&maxPrice=200
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<RoomAvailabilityDTO>> searchAvailableRooms(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestParam(required = false) Integer guests,
+            @RequestParam(required = false) RoomType type,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice) {
+        return ResponseEntity.ok(availabilityService.search(checkIn, checkOut, guests, type, minPrice, maxPrice));
     }
     
+    /**
+     * Recherche à facettes : plusieurs valeurs par facette (OU), facettes combinées (ET),
+     * avec le nombre de chambres par valeur pour l'interface
+     * GET /api/rooms/facets?type=DELUXE&type=SUITE&floor=3&priceBand=100-150&size=50
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<RoomFacetSearchDTO> searchByFacets(
+            @RequestParam(required = false) List<RoomType> type,
+            @RequestParam(required = false) List<RoomStatus> status,
+            @RequestParam(required = false) List<Integer> floor,
+            @RequestParam(required = false) List<Integer> capacity,
+            @RequestParam(required = false) List<String> priceBand,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(facetService.search(type, status, floor, capacity, priceBand, size));
+    }
+    
+    /**
+     * Liste paginée : passer l'en-tête X-Next-Cursor de la réponse en paramètre cursor
+     * GET /api/rooms?cursor=...&size=50
+     * Servie depuis le catalogue en mémoire ; If-None-Match avec l'ETag reçu donne un 304
+     */
     @GetMapping
-    public ResponseEntity<List<RoomResponseDTO>> getAllRooms() {
-        List<RoomResponseDTO> rooms = roomService.getAllRooms();
+    public ResponseEntity<List<RoomResponseDTO>> getAllRooms(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest request) {
+        RoomCatalog catalog = catalogService.current();
+        if (request.checkNotModified(catalog.etag())) {
+            return null;
+        }
+        return catalog.all(cursor, size).toResponseEntity();
+    }
+    
+    @PostMapping("/batch")
+    public ResponseEntity<List<RoomResponseDTO>> getRoomsByIds(@RequestBody Set<Long> ids) {
+        List<RoomResponseDTO> rooms = roomService.getRoomsByIds(ids);
         return ResponseEntity.ok(rooms);
     }
     
@@ -102,11 +210,38 @@ public class RoomController {
     @PutMapping("/{id}/status")
     public ResponseEntity<RoomResponseDTO> updateRoomStatus(
             @PathVariable Long id,
-            @RequestParam RoomStatus status) {
-        RoomResponseDTO response = roomService.updateRoomStatus(id, status);
+            @RequestParam RoomStatus status,
+            @RequestParam(required = false) Long version) {
+        // Avec version : écriture conditionnelle (409 si la chambre a changé depuis la lecture)
+        RoomResponseDTO response = version != null
+            ? roomService.transitionStatus(id, null, status, version)
+            : roomService.updateRoomStatus(id, status);
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Transition conditionnelle : 409 si le statut courant n'est pas dans from
+     * POST /api/rooms/12/status/transition?from=AVAILABLE&to=RESERVED[&version=4]
+     */
+    @PostMapping("/{id}/status/transition")
+    public ResponseEntity<RoomResponseDTO> transitionRoomStatus(
+            @PathVariable Long id,
+            @RequestParam List<RoomStatus> from,
+            @RequestParam RoomStatus to,
+            @RequestParam(required = false) Long version) {
+        return ResponseEntity.ok(roomService.transitionStatus(id, from, to, version));
+    }
+    
+    /**
+     * Changements de statut groupés, en une transaction, avec résultat par chambre
+     * POST /api/rooms/status/bulk {"changes":[{"roomId":12,"status":"AVAILABLE","expectedStatuses":["OCCUPIED"]}]}
+     */
+    @PostMapping("/status/bulk")
+    public ResponseEntity<BulkStatusUpdateResultDTO> updateRoomStatuses(
+            @Valid @RequestBody BulkStatusUpdateRequestDTO request) {
+        return ResponseEntity.ok(roomService.updateStatuses(request.getChanges()));
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteRoom(@PathVariable Long id) {
         roomService.deleteRoom(id);
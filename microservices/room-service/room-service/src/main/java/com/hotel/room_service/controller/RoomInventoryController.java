@@ -0,0 +1,48 @@
+package com.hotel.room_service.controller;
+
+import com.hotel.room_service.dto.InventoryHoldRequestDTO;
+import com.hotel.room_service.dto.RoomTypeInventoryDTO;
+import com.hotel.room_service.model.RoomType;
+import com.hotel.room_service.service.RoomInventoryService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/rooms/inventory")
+@RequiredArgsConstructor
+public class RoomInventoryController {
+    
+    private final RoomInventoryService inventoryService;
+    
+    /**
+     * Nuits vendues et disponibles par type sur [from, to)
+     * GET /api/rooms/inventory?from=2026-05-01&to=2026-05-04[&type=DELUXE]
+     */
+    @GetMapping
+    public ResponseEntity<List<RoomTypeInventoryDTO>> getAvailability(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) RoomType type) {
+        if (type != null) {
+            return ResponseEntity.ok(List.of(inventoryService.availability(type, from, to)));
+        }
+        return ResponseEntity.ok(inventoryService.availability(from, to));
+    }
+    
+    @PostMapping("/reserve")
+    public ResponseEntity<RoomTypeInventoryDTO> reserve(@Valid @RequestBody InventoryHoldRequestDTO request) {
+        return ResponseEntity.ok(inventoryService.reserve(request));
+    }
+    
+    @PostMapping("/release/{bookingId}")
+    public ResponseEntity<Void> release(@PathVariable Long bookingId) {
+        inventoryService.release(bookingId);
+        return ResponseEntity.noContent().build();
+    }
+}
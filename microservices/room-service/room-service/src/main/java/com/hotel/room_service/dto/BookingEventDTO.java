@@ -0,0 +1,23 @@
+package com.hotel.room_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Événement du cycle de vie d'une réservation publié par booking-service (champs utiles ici)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingEventDTO {
+    private Long bookingId;
+    private Long roomId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private String status;
+    private LocalDateTime eventTime;
+}
@@ -0,0 +1,16 @@
+package com.hotel.room_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Statut courant d'une réservation lu dans booking-service (GET /api/bookings/{id})
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingStatusDTO {
+    private Long id;
+    private String status;      // PENDING, CONFIRMED, CANCELLED, COMPLETED
+}
@@ -0,0 +1,20 @@
+package com.hotel.room_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateRequestDTO {
+    
+    @NotEmpty(message = "At least one status change is required")
+    @Size(max = 1000, message = "At most 1000 status changes per request")
+    private List<@Valid RoomStatusChangeDTO> changes;
+}
@@ -0,0 +1,18 @@
+package com.hotel.room_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResultDTO {
+    private Integer applied;
+    private Integer unchanged;
+    private Integer conflicts;
+    private Integer notFound;
+    private List<RoomStatusChangeResultDTO> results;
+}
@@ -0,0 +1,31 @@
+package com.hotel.room_service.dto;
+
+import com.hotel.room_service.model.RoomType;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryHoldRequestDTO {
+    
+    @NotNull(message = "Booking id is required")
+    private Long bookingId;
+    
+    @NotNull(message = "Room type is required")
+    private RoomType roomType;
+    
+    @NotNull(message = "Check-in date is required")
+    private LocalDate checkInDate;
+    
+    @NotNull(message = "Check-out date is required")
+    private LocalDate checkOutDate;
+    
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private int quantity = 1;
+}
@@ -0,0 +1,16 @@
+package com.hotel.room_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NightInventoryDTO {
+    private LocalDate date;
+    private int sold;
+    private int available;
+}
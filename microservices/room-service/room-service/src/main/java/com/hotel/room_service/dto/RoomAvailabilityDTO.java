@@ -0,0 +1,21 @@
+package com.hotel.room_service.dto;
+
+import com.hotel.room_service.model.RoomType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomAvailabilityDTO {
+    private Long roomId;
+    private String roomNumber;
+    private RoomType roomType;
+    private Integer capacity;
+    private BigDecimal pricePerNight;
+    private long nights;
+    private BigDecimal totalPrice;
+}
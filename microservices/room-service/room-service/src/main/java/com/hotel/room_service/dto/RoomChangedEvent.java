@@ -0,0 +1,24 @@
+package com.hotel.room_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Changement d'une chambre : version après modification et nouvelles valeurs des seuls
+ * champs modifiés (tous pour CREATED, aucun pour DELETED). Les événements d'une même
+ * chambre arrivent dans l'ordre des versions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomChangedEvent {
+    private Long roomId;
+    private String changeType;   // CREATED, UPDATED, STATUS_CHANGED, DELETED
+    private Long version;
+    private Map<String, Object> changes;
+    private LocalDateTime occurredAt;
+}
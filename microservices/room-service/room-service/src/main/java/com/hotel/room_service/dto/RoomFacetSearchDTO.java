@@ -0,0 +1,18 @@
+package com.hotel.room_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomFacetSearchDTO {
+    private Integer total;
+    private List<RoomResponseDTO> rooms;
+    // Facette (type, status, floor, capacity, priceBand) -> valeur -> nombre de chambres
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,24 @@
+package com.hotel.room_service.dto;
+
+import com.hotel.room_service.model.RoomStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomStatusChangeDTO {
+    
+    @NotNull(message = "Room id is required")
+    private Long roomId;
+    
+    @NotNull(message = "Status is required")
+    private RoomStatus status;
+    
+    // Garde optionnelle : n'appliquer que si le statut courant est l'un de ceux-ci
+    private List<RoomStatus> expectedStatuses;
+}
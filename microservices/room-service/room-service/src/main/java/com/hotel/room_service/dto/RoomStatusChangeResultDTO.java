@@ -0,0 +1,24 @@
+package com.hotel.room_service.dto;
+
+import com.hotel.room_service.model.RoomStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomStatusChangeResultDTO {
+    
+    public enum Outcome {
+        APPLIED,    // statut modifié
+        UNCHANGED,  // déjà dans le statut demandé
+        CONFLICT,   // statut courant hors de expectedStatuses
+        NOT_FOUND
+    }
+    
+    private Long roomId;
+    private Outcome outcome;
+    private RoomStatus status;   // statut après l'opération
+    private Long version;
+}
@@ -0,0 +1,19 @@
+package com.hotel.room_service.dto;
+
+import com.hotel.room_service.model.RoomType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Vue minimale d'une chambre pour les grilles d'occupation (planning de la réception)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomSummaryDTO {
+    private Long id;
+    private String roomNumber;
+    private RoomType roomType;
+    private Integer floor;
+}
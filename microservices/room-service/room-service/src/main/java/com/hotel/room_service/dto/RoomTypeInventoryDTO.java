@@ -0,0 +1,19 @@
+package com.hotel.room_service.dto;
+
+import com.hotel.room_service.model.RoomType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomTypeInventoryDTO {
+    private RoomType roomType;
+    private int capacity;
+    // Minimum de chambres libres sur toute la période
+    private int available;
+    private List<NightInventoryDTO> nights;
+}
@@ -0,0 +1,7 @@
+package com.hotel.room_service.exception;
+
+public class InventoryUnavailableException extends RuntimeException {
+    public InventoryUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hotel.room_service.exception;
+
+public class RoomStateConflictException extends RuntimeException {
+    public RoomStateConflictException(String message) {
+        super(message);
+    }
+}
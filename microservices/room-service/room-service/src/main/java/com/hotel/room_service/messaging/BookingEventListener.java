@@ -0,0 +1,25 @@
+package com.hotel.room_service.messaging;
+
+import com.hotel.room_service.dto.BookingEventDTO;
+import com.hotel.room_service.service.RoomAvailabilityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applique les événements de réservation à l'index de disponibilité de cette instance
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingEventListener {
+    
+    private final RoomAvailabilityService availabilityService;
+    
+    @RabbitListener(id = RoomAvailabilityService.LISTENER_ID, queues = "#{bookingEventsQueue.name}")
+    public void onBookingEvent(BookingEventDTO event) {
+        log.debug("Booking event: booking {} room {} -> {}", event.getBookingId(), event.getRoomId(), event.getStatus());
+        availabilityService.applyBookingEvent(event);
+    }
+}
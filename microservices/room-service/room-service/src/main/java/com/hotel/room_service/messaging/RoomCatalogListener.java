@@ -0,0 +1,58 @@
+package com.hotel.room_service.messaging;
+
+import com.hotel.room_service.dto.RoomChangedEvent;
+import com.hotel.room_service.service.RoomCatalogService;
+import com.hotel.room_service.service.RoomFacetService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.listener.AsyncConsumerStartedEvent;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Recharge le catalogue en mémoire et met à jour l'index à facettes quand une chambre change,
+ * y compris sur une autre instance. Les notifications arrivent par lots : une mise à jour en
+ * masse de 1000 chambres coûte quelques reconstructions du catalogue, pas 1000.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomCatalogListener {
+    
+    static final String LISTENER_ID = "roomCatalog";
+    
+    private final RoomCatalogService catalogService;
+    private final RoomFacetService facetService;
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    
+    @RabbitListener(id = LISTENER_ID, queues = "#{roomCatalogQueue.name}",
+                    containerFactory = "catalogListenerContainerFactory")
+    public void handleRoomsChanged(List<RoomChangedEvent> events) {
+        Set<Long> roomIds = new LinkedHashSet<>();
+        for (RoomChangedEvent event : events) {
+            roomIds.add(event.getRoomId());
+        }
+        log.debug("{} room change notifications for {} rooms, refreshing catalog", events.size(), roomIds.size());
+        catalogService.refresh();
+        facetService.roomsChanged(roomIds);
+    }
+    
+    /**
+     * La queue est exclusive à cette instance : les notifications émises pendant
+     * une déconnexion sont perdues, on recharge donc le catalogue et l'index à chaque (re)connexion
+     */
+    @EventListener
+    public void onConsumerStarted(AsyncConsumerStartedEvent event) {
+        if (event.getSource() != listenerRegistry.getListenerContainer(LISTENER_ID)) {
+            return;
+        }
+        catalogService.refresh();
+        facetService.rebuild();
+    }
+}
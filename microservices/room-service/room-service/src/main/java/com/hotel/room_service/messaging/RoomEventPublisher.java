@@ -0,0 +1,99 @@
+package com.hotel.room_service.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.room_service.dto.RoomChangedEvent;
+import com.hotel.room_service.model.OutboxEvent;
+import com.hotel.room_service.model.Room;
+import com.hotel.room_service.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Les changements de chambre sont écrits dans l'outbox, dans la transaction de la
+ * modification, puis envoyés par RoomOutboxRelay : pas de perte si RabbitMQ est indisponible
+ * et ordre garanti par chambre, pour que les consommateurs tiennent une réplique locale.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomEventPublisher {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${rabbitmq.routing-key.room-changed}")
+    private String roomChangedRoutingKey;
+    
+    /**
+     * Champs publiés d'une chambre, pour CREATED et pour calculer les différences
+     */
+    public static Map<String, Object> fields(Room room) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("roomNumber", room.getRoomNumber());
+        fields.put("roomType", room.getRoomType());
+        fields.put("pricePerNight", room.getPricePerNight());
+        fields.put("status", room.getStatus());
+        fields.put("floor", room.getFloor());
+        fields.put("capacity", room.getCapacity());
+        fields.put("description", room.getDescription());
+        fields.put("imageUrl", room.getImageUrl());
+        return fields;
+    }
+    
+    /**
+     * Nouvelles valeurs des champs qui diffèrent de l'état précédent
+     */
+    public static Map<String, Object> changes(Map<String, Object> before, Room after) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        fields(after).forEach((field, value) -> {
+            if (!Objects.equals(before.get(field), value)) {
+                changes.put(field, value);
+            }
+        });
+        return changes;
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishRoomChanged(Long roomId, String changeType, Long version, Map<String, Object> changes) {
+        RoomChangedEvent event = new RoomChangedEvent(roomId, changeType, version, changes, LocalDateTime.now());
+        outboxEventRepository.save(toOutbox(event));
+        log.debug("Room event {} v{} queued in outbox for room: {}", changeType, version, roomId);
+    }
+    
+    /**
+     * Plusieurs changements écrits ensemble dans l'outbox (mise à jour groupée) ; chaque chambre
+     * garde son propre événement pour que l'ordre par chambre reste garanti
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishRoomsChanged(List<RoomChangedEvent> events) {
+        outboxEventRepository.saveAll(events.stream().map(this::toOutbox).toList());
+        log.debug("{} room events queued in outbox", events.size());
+    }
+    
+    private OutboxEvent toOutbox(RoomChangedEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize room event", e);
+            throw new RuntimeException("Failed to publish room event", e);
+        }
+        
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setRoomId(event.getRoomId());
+        outboxEvent.setRoutingKey(roomChangedRoutingKey);
+        outboxEvent.setPayload(payload);
+        return outboxEvent;
+    }
+}
@@ -0,0 +1,58 @@
+package com.hotel.room_service.messaging;
+
+import com.hotel.common.outbox.OutboxRelay;
+import com.hotel.room_service.dto.RoomChangedEvent;
+import com.hotel.room_service.model.OutboxEvent;
+import com.hotel.room_service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Relais de l'outbox des chambres (métriques room.outbox.*), ordonné par chambre.
+ * Le JSON stocké est envoyé tel quel (pas de reconversion des valeurs de changes).
+ */
+@Component
+public class RoomOutboxRelay extends OutboxRelay<OutboxEvent> {
+    
+    public RoomOutboxRelay(OutboxEventRepository outboxEventRepository,
+                           RabbitTemplate rabbitTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${rabbitmq.exchange.room}") String roomExchange,
+                           @Value("${room.outbox.batch-size:100}") int batchSize,
+                           @Value("${room.outbox.max-events-per-pass:1000}") int maxEventsPerPass,
+                           @Value("${room.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+                           @Value("${room.outbox.initial-backoff-ms:1000}") long initialBackoffMs,
+                           @Value("${room.outbox.max-backoff-ms:60000}") long maxBackoffMs,
+                           @Value("${room.outbox.max-attempts:20}") int maxAttempts) {
+        super("room", outboxEventRepository, rabbitTemplate, roomExchange,
+            new Settings(batchSize, maxEventsPerPass, confirmTimeoutMs, initialBackoffMs, maxBackoffMs, maxAttempts),
+            meterRegistry);
+    }
+    
+    @Override
+    @Scheduled(fixedDelayString = "${room.outbox.poll-interval-ms:500}")
+    @Transactional
+    public void drain() {
+        super.drain();
+    }
+    
+    @Override
+    protected Message toMessage(OutboxEvent event) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, RoomChangedEvent.class.getName());
+        return new Message(event.getPayload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
@@ -0,0 +1,65 @@
+package com.hotel.room_service.model;
+
+import com.hotel.common.outbox.OutboxMessage;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement en attente d'envoi vers RabbitMQ, écrit dans la même transaction
+ * que la modification de la chambre
+ */
+@Entity
+@Table(name = "room_outbox", indexes = {
+    @Index(name = "idx_room_outbox_room", columnList = "roomId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent implements OutboxMessage {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long roomId;
+    
+    @Column(nullable = false)
+    private String routingKey;
+    
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+    
+    @Column(nullable = false)
+    private Integer attempts;
+    
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Renseigné après max-attempts échecs : l'événement n'est plus envoyé (reprise manuelle)
+    @Column(name = "parked_at")
+    private LocalDateTime parkedAt;
+    
+    @Override
+    public Long getAggregateId() {
+        return roomId;
+    }
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+        if (attempts == null) {
+            attempts = 0;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.hotel.room_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Réservation d'inventaire d'une réservation du booking-service : rend reserve / release
+ * idempotents (un seul hold par bookingId, libéré au plus une fois).
+ */
+@Entity
+@Table(name = "room_inventory_holds")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomInventoryHold {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, unique = true)
+    private Long bookingId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RoomType roomType;
+    
+    @Column(nullable = false)
+    private LocalDate checkInDate;
+    
+    @Column(nullable = false)
+    private LocalDate checkOutDate;
+    
+    @Column(nullable = false)
+    private int quantity;
+    
+    private LocalDateTime releasedAt;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,37 @@
+package com.hotel.room_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Nuits vendues par type de chambre et par date (une ligne par couple).
+ * Mise à jour incrémentale par upsert (sold = sold + delta) ; la disponibilité
+ * est la capacité du type moins sold.
+ */
+@Entity
+@Table(name = "room_night_inventory",
+       uniqueConstraints = @UniqueConstraint(name = "uk_room_night_inventory_type_date",
+                                             columnNames = {"room_type", "stay_date"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomNightInventory {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "room_type", nullable = false)
+    private RoomType roomType;
+    
+    @Column(name = "stay_date", nullable = false)
+    private LocalDate stayDate;
+    
+    @Column(nullable = false)
+    private int sold;
+}
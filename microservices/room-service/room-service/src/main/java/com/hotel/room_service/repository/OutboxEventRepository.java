@@ -0,0 +1,40 @@
+package com.hotel.room_service.repository;
+
+import com.hotel.common.outbox.OutboxStore;
+import com.hotel.room_service.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxStore<OutboxEvent> {
+    
+    /**
+     * Premier événement non mis de côté de chaque chambre, dont l'essai est dû, verrouillé pour ce
+     * relais. Une autre instance saute ces lignes et ne voit les suivants d'une chambre comme têtes
+     * qu'une fois la suppression de celui-ci validée. Une chambre en backoff ne prend pas de place.
+     */
+    @Query(value = "SELECT o.* FROM room_outbox o WHERE o.parked_at IS NULL AND o.next_attempt_at <= :now "
+        + "AND NOT EXISTS (SELECT 1 FROM room_outbox p "
+        + "WHERE p.room_id = o.room_id AND p.id < o.id AND p.parked_at IS NULL) "
+        + "ORDER BY o.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    @Override
+    List<OutboxEvent> lockReadyHeads(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    @Query("SELECT o FROM OutboxEvent o WHERE o.roomId IN :roomIds AND o.parkedAt IS NULL ORDER BY o.id")
+    @Override
+    List<OutboxEvent> findPendingByAggregateIdIn(@Param("roomIds") Collection<Long> roomIds, Pageable pageable);
+    
+    @Override
+    Optional<OutboxEvent> findFirstByParkedAtIsNullOrderByIdAsc();
+    
+    @Override
+    long countByParkedAtIsNull();
+}
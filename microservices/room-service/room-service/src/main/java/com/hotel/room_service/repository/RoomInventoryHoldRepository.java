@@ -0,0 +1,28 @@
+package com.hotel.room_service.repository;
+
+import com.hotel.room_service.model.RoomInventoryHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+public interface RoomInventoryHoldRepository extends JpaRepository<RoomInventoryHold, Long> {
+    
+    Optional<RoomInventoryHold> findByBookingId(Long bookingId);
+    
+    // Réservations ayant déjà un hold (actif ou libéré) parmi celles données
+    @Query("SELECT h.bookingId FROM RoomInventoryHold h WHERE h.bookingId IN :bookingIds")
+    Set<Long> findHeldBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+    
+    // Libération conditionnelle : 0 ligne si le hold a déjà été libéré
+    @Modifying
+    @Query("UPDATE RoomInventoryHold h SET h.releasedAt = :now WHERE h.id = :id AND h.releasedAt IS NULL")
+    int releaseIfActive(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
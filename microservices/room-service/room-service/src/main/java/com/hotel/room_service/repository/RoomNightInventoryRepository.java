@@ -0,0 +1,62 @@
+package com.hotel.room_service.repository;
+
+import com.hotel.room_service.model.RoomNightInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RoomNightInventoryRepository extends JpaRepository<RoomNightInventory, Long> {
+    
+    /**
+     * Ajoute delta aux nuits vendues de chaque nuit de [checkIn, checkOut), en une seule requête
+     */
+    @Modifying
+    @Query(value = "INSERT INTO room_night_inventory (room_type, stay_date, sold) " +
+                   "SELECT :roomType, CAST(night AS date), :delta " +
+                   "FROM generate_series(CAST(:checkIn AS date), CAST(:checkOut AS date) - 1, INTERVAL '1 day') AS night " +
+                   "ON CONFLICT (room_type, stay_date) " +
+                   "DO UPDATE SET sold = GREATEST(0, room_night_inventory.sold + EXCLUDED.sold)",
+           nativeQuery = true)
+    int addSold(@Param("roomType") String roomType,
+                @Param("checkIn") LocalDate checkIn,
+                @Param("checkOut") LocalDate checkOut,
+                @Param("delta") int delta);
+    
+    /**
+     * Crée à 0 les nuits absentes de [checkIn, checkOut), pour que addSoldWithinCapacity les trouve
+     */
+    @Modifying
+    @Query(value = "INSERT INTO room_night_inventory (room_type, stay_date, sold) " +
+                   "SELECT :roomType, CAST(night AS date), 0 " +
+                   "FROM generate_series(CAST(:checkIn AS date), CAST(:checkOut AS date) - 1, INTERVAL '1 day') AS night " +
+                   "ON CONFLICT (room_type, stay_date) DO NOTHING",
+           nativeQuery = true)
+    int createMissingNights(@Param("roomType") String roomType,
+                            @Param("checkIn") LocalDate checkIn,
+                            @Param("checkOut") LocalDate checkOut);
+    
+    /**
+     * Ajoute quantity aux nuits de [checkIn, checkOut) qui ont encore la place, la capacité étant
+     * le nombre de chambres du type hors maintenance. Chaque ligne est verrouillée et sa condition
+     * réévaluée après une écriture concurrente : moins de lignes que de nuits signifie qu'une nuit
+     * est complète, et la transaction doit être annulée.
+     */
+    @Modifying
+    @Query(value = "UPDATE room_night_inventory SET sold = sold + :quantity " +
+                   "WHERE room_type = :roomType AND stay_date >= :checkIn AND stay_date < :checkOut " +
+                   "AND sold + :quantity <= (SELECT COUNT(*) FROM rooms r " +
+                   "WHERE r.room_type = :roomType AND r.status <> 'MAINTENANCE')",
+           nativeQuery = true)
+    int addSoldWithinCapacity(@Param("roomType") String roomType,
+                              @Param("checkIn") LocalDate checkIn,
+                              @Param("checkOut") LocalDate checkOut,
+                              @Param("quantity") int quantity);
+    
+    List<RoomNightInventory> findByStayDateGreaterThanEqualAndSoldGreaterThan(LocalDate from, int sold);
+}
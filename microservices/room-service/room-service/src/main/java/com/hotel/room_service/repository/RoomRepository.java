@@ -1,18 +1,67 @@
 package com.hotel.room_service.repository;
 
+import com.hotel.room_service.dto.RoomResponseDTO;
+import com.hotel.room_service.dto.RoomSummaryDTO;
 import com.hotel.room_service.model.Room;
 import com.hotel.room_service.model.RoomStatus;
 import com.hotel.room_service.model.RoomType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long> {
     
+    // Catalogue complet en projection directe, sans entité gérée (instantané RoomCatalog)
+    @Query("SELECT new com.hotel.room_service.dto.RoomResponseDTO(" +
+           "r.id, r.roomNumber, r.roomType, r.pricePerNight, r.status, r.floor, r.capacity, " +
+           "r.description, r.imageUrl, r.createdAt, r.updatedAt, r.version) FROM Room r")
+    List<RoomResponseDTO> findCatalog();
+    
+    // Même projection pour quelques chambres (mise à jour incrémentale de l'index à facettes)
+    @Query("SELECT new com.hotel.room_service.dto.RoomResponseDTO(" +
+           "r.id, r.roomNumber, r.roomType, r.pricePerNight, r.status, r.floor, r.capacity, " +
+           "r.description, r.imageUrl, r.createdAt, r.updatedAt, r.version) FROM Room r WHERE r.id IN :ids")
+    List<RoomResponseDTO> findCatalogEntries(@Param("ids") Collection<Long> ids);
+    
+    // Chambres d'un étage et/ou d'un type (filtres null ignorés), triées par étage puis numéro
+    @Query("SELECT new com.hotel.room_service.dto.RoomSummaryDTO(r.id, r.roomNumber, r.roomType, r.floor) " +
+           "FROM Room r WHERE (:floor IS NULL OR r.floor = :floor) AND (:type IS NULL OR r.roomType = :type) " +
+           "ORDER BY r.floor, r.roomNumber")
+    List<RoomSummaryDTO> findSummaries(@Param("floor") Integer floor, @Param("type") RoomType type);
+    
+    // Transition conditionnelle en une seule requête : la sous-requête verrouille la ligne et fournit le
+    // statut d'origine (compteurs), renvoyé par RETURNING. Vide si le statut (ou la version attendue) a changé
+    @Query(value = "UPDATE rooms r SET status = :target, version = r.version + 1, updated_at = :now " +
+                   "FROM (SELECT id, status FROM rooms WHERE id = :id FOR UPDATE) previous " +
+                   "WHERE r.id = previous.id AND previous.status IN (:expected) " +
+                   "AND (CAST(:version AS bigint) IS NULL OR r.version = :version) " +
+                   "RETURNING previous.status",
+           nativeQuery = true)
+    Optional<String> transitionStatus(@Param("id") Long id, @Param("expected") Collection<String> expected,
+                                      @Param("target") String target, @Param("version") Long version,
+                                      @Param("now") LocalDateTime now);
+    
+    // Verrouille les chambres (dans l'ordre des ids, sans interblocage entre lots) et lit leur statut
+    @Query(value = "SELECT id, status, version FROM rooms WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+           nativeQuery = true)
+    List<StatusSnapshot> lockStatuses(@Param("ids") Collection<Long> ids);
+    
+    // Mise à jour groupée : un seul UPDATE pour toutes les chambres qui passent au même statut
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Room r SET r.status = :target, r.version = r.version + 1, r.updatedAt = :now " +
+           "WHERE r.id IN :ids")
+    int updateStatuses(@Param("ids") Collection<Long> ids, @Param("target") RoomStatus target,
+                       @Param("now") LocalDateTime now);
+    
     Optional<Room> findByRoomNumber(String roomNumber);
     
     List<Room> findByStatus(RoomStatus status);
@@ -28,4 +77,28 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
     boolean existsByRoomNumber(String roomNumber);
 
     long countByStatus(RoomStatus status);
-}
\ No newline at end of file
+
+    @Query("SELECT r.status AS status, COUNT(r) AS count FROM Room r GROUP BY r.status")
+    List<StatusCount> countGroupedByStatus();
+
+    // Chambres vendables par type (hors maintenance) : capacité de l'inventaire par nuit
+    @Query("SELECT r.roomType AS roomType, COUNT(r) AS count FROM Room r " +
+           "WHERE r.status <> com.hotel.room_service.model.RoomStatus.MAINTENANCE GROUP BY r.roomType")
+    List<TypeCount> countSellableGroupedByType();
+
+    interface StatusSnapshot {
+        Long getId();
+        String getStatus();
+        Long getVersion();
+    }
+
+    interface StatusCount {
+        RoomStatus getStatus();
+        long getCount();
+    }
+
+    interface TypeCount {
+        RoomType getRoomType();
+        long getCount();
+    }
+}
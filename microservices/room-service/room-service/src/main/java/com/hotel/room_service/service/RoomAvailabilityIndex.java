@@ -0,0 +1,178 @@
+package com.hotel.room_service.service;
+
+import com.hotel.room_service.model.RoomType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bitmap d'occupation par chambre : un bit par nuit depuis l'origine, dans un AtomicLongArray.
+ * Une recherche teste quelques mots de 64 nuits par chambre, sans verrou côté lecture.
+ * Les séjours de chaque chambre sont conservés pour qu'une annulation ne libère que ses propres
+ * nuits, même si les événements de réservations différentes arrivent dans le désordre.
+ */
+public class RoomAvailabilityIndex {
+    
+    private final long originDay;
+    private final int horizonDays;
+    private final int words;
+    
+    private final Map<Long, RoomEntry> rooms = new ConcurrentHashMap<>();
+    private final Map<Long, RoomNights> nights = new ConcurrentHashMap<>();
+    
+    public RoomAvailabilityIndex(LocalDate origin, int horizonDays) {
+        this.originDay = origin.toEpochDay();
+        this.horizonDays = horizonDays;
+        this.words = (horizonDays + 63) / 64;
+    }
+    
+    /**
+     * Attributs d'une chambre utiles à la recherche ; sellable = hors maintenance
+     */
+    public record RoomEntry(Long id, String roomNumber, RoomType roomType, BigDecimal pricePerNight,
+                            int capacity, boolean sellable) {}
+    
+    private record Stay(int start, int end) {}
+    
+    private final class RoomNights {
+        private final AtomicLongArray bits = new AtomicLongArray(words);
+        private final Map<Long, Stay> stays = new HashMap<>();
+    }
+    
+    public void upsertRoom(RoomEntry room) {
+        rooms.put(room.id(), room);
+    }
+    
+    public void removeRoom(Long roomId) {
+        rooms.remove(roomId);
+        nights.remove(roomId);
+    }
+    
+    /**
+     * Marque les nuits [checkIn, checkOut) d'une réservation (idempotent par bookingId).
+     * Les nuits hors de la fenêtre sont ignorées.
+     */
+    public void occupy(Long bookingId, Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        int start = clamp(checkIn);
+        int end = clamp(checkOut);
+        RoomNights room = nights.computeIfAbsent(roomId, id -> new RoomNights());
+        synchronized (room) {
+            Stay previous = room.stays.put(bookingId, new Stay(start, end));
+            if (previous != null) {
+                redraw(room, previous);
+            }
+            setBits(room.bits, start, end, true);
+        }
+    }
+    
+    /**
+     * Libère les nuits d'une réservation annulée ou terminée
+     */
+    public void vacate(Long bookingId, Long roomId) {
+        RoomNights room = nights.get(roomId);
+        if (room == null) {
+            return;
+        }
+        synchronized (room) {
+            Stay stay = room.stays.remove(bookingId);
+            if (stay != null) {
+                redraw(room, stay);
+            }
+        }
+    }
+    
+    /**
+     * Chambres vendables libres chaque nuit de [checkIn, checkOut) et correspondant aux filtres
+     * (type, capacité minimale, prix par nuit). Les filtres null sont ignorés.
+     */
+    public List<RoomEntry> search(LocalDate checkIn, LocalDate checkOut, int guests, RoomType type,
+                                  BigDecimal minPrice, BigDecimal maxPrice) {
+        int start = index(checkIn);
+        int end = index(checkOut);
+        if (end <= start) {
+            throw new IllegalArgumentException("Check-out date must be after check-in date");
+        }
+        
+        List<RoomEntry> result = new ArrayList<>();
+        for (RoomEntry room : rooms.values()) {
+            if (!room.sellable()
+                    || room.capacity() < guests
+                    || (type != null && room.roomType() != type)
+                    || (minPrice != null && room.pricePerNight().compareTo(minPrice) < 0)
+                    || (maxPrice != null && room.pricePerNight().compareTo(maxPrice) > 0)) {
+                continue;
+            }
+            RoomNights roomNights = nights.get(room.id());
+            if (roomNights == null || isFree(roomNights.bits, start, end)) {
+                result.add(room);
+            }
+        }
+        return result;
+    }
+    
+    public int roomCount() {
+        return rooms.size();
+    }
+    
+    private int index(LocalDate date) {
+        long offset = date.toEpochDay() - originDay;
+        if (offset < 0 || offset > horizonDays) {
+            throw new IllegalArgumentException("Dates must be within the availability horizon ("
+                + LocalDate.ofEpochDay(originDay) + " to " + LocalDate.ofEpochDay(originDay + horizonDays) + ")");
+        }
+        return (int) offset;
+    }
+    
+    private int clamp(LocalDate date) {
+        return (int) Math.max(0, Math.min(horizonDays, date.toEpochDay() - originDay));
+    }
+    
+    /**
+     * Efface les nuits d'un séjour retiré puis redessine les autres séjours qui les chevauchent
+     */
+    private static void redraw(RoomNights room, Stay removed) {
+        setBits(room.bits, removed.start(), removed.end(), false);
+        for (Stay other : room.stays.values()) {
+            if (other.start() < removed.end() && other.end() > removed.start()) {
+                setBits(room.bits, Math.max(other.start(), removed.start()), Math.min(other.end(), removed.end()), true);
+            }
+        }
+    }
+    
+    private static boolean isFree(AtomicLongArray bits, int start, int end) {
+        for (int word = start >>> 6; word <= (end - 1) >>> 6; word++) {
+            if ((bits.get(word) & mask(word, start, end)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static void setBits(AtomicLongArray bits, int start, int end, boolean value) {
+        if (end <= start) {
+            return;
+        }
+        for (int word = start >>> 6; word <= (end - 1) >>> 6; word++) {
+            long mask = mask(word, start, end);
+            if (value) {
+                bits.getAndAccumulate(word, mask, (current, m) -> current | m);
+            } else {
+                bits.getAndAccumulate(word, mask, (current, m) -> current & ~m);
+            }
+        }
+    }
+    
+    // Bits du mot word couverts par [start, end)
+    private static long mask(int word, int start, int end) {
+        int from = Math.max(start, word << 6) - (word << 6);
+        int to = Math.min(end, (word + 1) << 6) - (word << 6);
+        long high = to == 64 ? -1L : (1L << to) - 1;
+        return high & (-1L << from);
+    }
+}
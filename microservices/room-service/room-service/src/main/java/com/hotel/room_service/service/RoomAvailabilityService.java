@@ -0,0 +1,234 @@
+package com.hotel.room_service.service;
+
+import com.hotel.room_service.client.BookingServiceClient;
+import com.hotel.room_service.dto.BookingEventDTO;
+import com.hotel.room_service.dto.RoomAvailabilityDTO;
+import com.hotel.room_service.dto.RoomOccupancyDTO;
+import com.hotel.room_service.exception.IndexNotReadyException;
+import com.hotel.room_service.model.Room;
+import com.hotel.room_service.model.RoomStatus;
+import com.hotel.room_service.model.RoomType;
+import com.hotel.room_service.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.listener.AsyncConsumerStartedEvent;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Recherche de disponibilité servie depuis un index mémoire (RoomAvailabilityIndex).
+ * L'index est chargé depuis la base des chambres et les séjours actifs de booking-service,
+ * puis tenu à jour par les événements de réservation (queue propre à l'instance) et les
+ * modifications locales de chambres.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RoomAvailabilityService {
+    
+    public static final String LISTENER_ID = "bookingEvents";
+    
+    private static final Set<String> OCCUPYING_STATUSES = Set.of("PENDING", "CONFIRMED");
+    
+    private final RoomRepository roomRepository;
+    private final BookingServiceClient bookingServiceClient;
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    
+    @Value("${room.availability.horizon-days:400}")
+    private int horizonDays;
+    
+    private volatile RoomAvailabilityIndex index;
+    
+    // Événements reçus pendant une reconstruction, rejoués sur le nouvel index (null hors reconstruction)
+    private final Object replayLock = new Object();
+    private List<BookingEventDTO> replay;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (index == null) {
+            rebuildQuietly();
+        }
+    }
+    
+    /**
+     * La queue des événements est exclusive à cette instance : ceux émis pendant une déconnexion
+     * sont perdus, l'index est donc rechargé à chaque (re)connexion. L'événement est publié sur le
+     * thread du consumer avant sa première livraison : les messages attendent dans la queue.
+     */
+    @EventListener
+    public void onConsumerStarted(AsyncConsumerStartedEvent event) {
+        if (event.getSource() == listenerRegistry.getListenerContainer(LISTENER_ID)) {
+            rebuildQuietly();
+        }
+    }
+    
+    // Tant que booking-service n'a pas répondu, réessayer périodiquement
+    @Scheduled(fixedDelayString = "${room.availability.retry-interval-ms:30000}",
+               initialDelayString = "${room.availability.retry-interval-ms:30000}")
+    public void retryUntilReady() {
+        if (index == null) {
+            rebuildQuietly();
+        }
+    }
+    
+    // Reconstruction quotidienne : fait glisser la fenêtre et corrige une éventuelle dérive
+    @Scheduled(cron = "${room.availability.rebuild-cron:0 30 3 * * *}")
+    public void dailyRebuild() {
+        rebuildQuietly();
+    }
+    
+    /**
+     * Recharge l'index complet depuis les chambres et l'instantané d'occupation de booking-service.
+     * Les événements reçus pendant le chargement sont appliqués à l'ancien index et rejoués, dans
+     * l'ordre d'arrivée, sur le nouveau avant qu'il le remplace (occupy / vacate sont idempotents).
+     */
+    public synchronized void rebuild() {
+        synchronized (replayLock) {
+            replay = new ArrayList<>();
+        }
+        try {
+            LocalDate origin = LocalDate.now().minusDays(1);
+            RoomAvailabilityIndex fresh = new RoomAvailabilityIndex(origin, horizonDays);
+            for (Room room : roomRepository.findAll()) {
+                fresh.upsertRoom(toEntry(room));
+            }
+            List<RoomOccupancyDTO> stays = bookingServiceClient.getOccupancy(origin);
+            for (RoomOccupancyDTO stay : stays) {
+                fresh.occupy(stay.getBookingId(), stay.getRoomId(), stay.getCheckInDate(), stay.getCheckOutDate());
+            }
+            synchronized (replayLock) {
+                replay.forEach(event -> apply(fresh, event));
+                log.info("Availability index rebuilt: {} rooms, {} active stays, {} events replayed",
+                         fresh.roomCount(), stays.size(), replay.size());
+                index = fresh;
+            }
+        } finally {
+            synchronized (replayLock) {
+                replay = null;
+            }
+        }
+    }
+    
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Availability index rebuild failed, keeping previous state: {}", e.getMessage());
+        }
+    }
+    
+    public void applyBookingEvent(BookingEventDTO event) {
+        if (event.getBookingId() == null || event.getRoomId() == null) {
+            return;
+        }
+        RoomAvailabilityIndex current;
+        synchronized (replayLock) {
+            if (replay != null) {
+                replay.add(event);
+            }
+            current = index;
+        }
+        if (current != null) {
+            apply(current, event);
+        }
+    }
+    
+    private static void apply(RoomAvailabilityIndex target, BookingEventDTO event) {
+        if (OCCUPYING_STATUSES.contains(event.getStatus())) {
+            target.occupy(event.getBookingId(), event.getRoomId(), event.getCheckInDate(), event.getCheckOutDate());
+        } else {
+            target.vacate(event.getBookingId(), event.getRoomId());
+        }
+    }
+    
+    /**
+     * Reporte une création / modification / suppression de chambre dans l'index après commit
+     */
+    public void roomChanged(Long roomId) {
+        roomsChanged(List.of(roomId));
+    }
+    
+    /**
+     * Même chose pour un lot de chambres, rechargées en une seule requête
+     */
+    public void roomsChanged(Collection<Long> roomIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refreshRooms(roomIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refreshRooms(roomIds);
+            }
+        });
+    }
+    
+    private void refreshRooms(Collection<Long> roomIds) {
+        RoomAvailabilityIndex current = index;
+        if (current == null) {
+            return;
+        }
+        try {
+            Set<Long> missing = new HashSet<>(roomIds);
+            for (Room room : roomRepository.findAllById(roomIds)) {
+                current.upsertRoom(toEntry(room));
+                missing.remove(room.getId());
+            }
+            missing.forEach(current::removeRoom);
+        } catch (Exception e) {
+            log.warn("Failed to refresh rooms {} in availability index: {}", roomIds, e.getMessage());
+        }
+    }
+    
+    /**
+     * Chambres libres sur tout le séjour, triées par prix total croissant
+     */
+    public List<RoomAvailabilityDTO> search(LocalDate checkIn, LocalDate checkOut, Integer guests,
+                                            RoomType type, BigDecimal minPrice, BigDecimal maxPrice) {
+        RoomAvailabilityIndex current = index;
+        if (current == null) {
+            throw new IndexNotReadyException("Availability index is loading, retry shortly");
+        }
+        long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
+        BigDecimal nightsFactor = BigDecimal.valueOf(nights);
+        return current.search(checkIn, checkOut, guests != null ? guests : 1, type, minPrice, maxPrice).stream()
+            .map(room -> new RoomAvailabilityDTO(
+                room.id(),
+                room.roomNumber(),
+                room.roomType(),
+                room.capacity(),
+                room.pricePerNight(),
+                nights,
+                room.pricePerNight().multiply(nightsFactor)))
+            .sorted(Comparator.comparing(RoomAvailabilityDTO::getTotalPrice)
+                .thenComparing(RoomAvailabilityDTO::getRoomNumber))
+            .toList();
+    }
+    
+    private static RoomAvailabilityIndex.RoomEntry toEntry(Room room) {
+        return new RoomAvailabilityIndex.RoomEntry(
+            room.getId(),
+            room.getRoomNumber(),
+            room.getRoomType(),
+            room.getPricePerNight(),
+            room.getCapacity() != null ? room.getCapacity() : 0,
+            room.getStatus() != RoomStatus.MAINTENANCE);
+    }
+}
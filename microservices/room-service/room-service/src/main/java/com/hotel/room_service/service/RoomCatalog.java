@@ -0,0 +1,145 @@
+package com.hotel.room_service.service;
+
+import com.hotel.common.dto.CursorPage;
+import com.hotel.room_service.dto.RoomResponseDTO;
+import com.hotel.room_service.model.RoomStatus;
+import com.hotel.room_service.model.RoomType;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Instantané immuable du catalogue des chambres, avec des vues précalculées :
+ * toutes les chambres, par type, par statut, disponibles par type (du plus récent au
+ * plus ancien, même curseur (createdAt, id) que les listes paginées) et par prix croissant.
+ * Les DTO sont partagés entre requêtes et ne doivent pas être modifiés.
+ *
+ * La version est dérivée du contenu (ids et versions des chambres) : deux instances
+ * du service qui voient les mêmes données produisent le même ETag.
+ */
+public final class RoomCatalog {
+
+    private static final Comparator<RoomResponseDTO> NEWEST_FIRST = Comparator
+        .comparing(RoomResponseDTO::getCreatedAt, Comparator.reverseOrder())
+        .thenComparing(RoomResponseDTO::getId, Comparator.reverseOrder());
+
+    private static final Comparator<RoomResponseDTO> CHEAPEST_FIRST = Comparator
+        .comparing(RoomResponseDTO::getPricePerNight)
+        .thenComparing(RoomResponseDTO::getId);
+
+    private final long version;
+    private final String etag;
+    private final List<RoomResponseDTO> newestFirst;
+    private final List<RoomResponseDTO> cheapestFirst;
+    private final Map<RoomType, List<RoomResponseDTO>> byType;
+    private final Map<RoomStatus, List<RoomResponseDTO>> byStatus;
+    private final Map<RoomType, List<RoomResponseDTO>> availableByType;
+
+    private RoomCatalog(List<RoomResponseDTO> rooms) {
+        this.newestFirst = rooms.stream().sorted(NEWEST_FIRST).toList();
+        this.cheapestFirst = rooms.stream().sorted(CHEAPEST_FIRST).toList();
+        this.byType = group(newestFirst, RoomType.class, RoomResponseDTO::getRoomType, room -> true);
+        this.byStatus = group(newestFirst, RoomStatus.class, RoomResponseDTO::getStatus, room -> true);
+        this.availableByType = group(newestFirst, RoomType.class, RoomResponseDTO::getRoomType,
+            room -> room.getStatus() == RoomStatus.AVAILABLE);
+        this.version = contentVersion(rooms);
+        this.etag = "\"rooms-" + Long.toHexString(version) + "\"";
+    }
+
+    public static RoomCatalog of(Collection<RoomResponseDTO> rooms) {
+        return new RoomCatalog(List.copyOf(rooms));
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public String etag() {
+        return etag;
+    }
+
+    public int size() {
+        return newestFirst.size();
+    }
+
+    public CursorPage<RoomResponseDTO> all(String cursor, Integer size) {
+        return page(newestFirst, cursor, size);
+    }
+
+    public CursorPage<RoomResponseDTO> byType(RoomType type, String cursor, Integer size) {
+        return page(byType.getOrDefault(type, List.of()), cursor, size);
+    }
+
+    public CursorPage<RoomResponseDTO> byStatus(RoomStatus status, String cursor, Integer size) {
+        return page(byStatus.getOrDefault(status, List.of()), cursor, size);
+    }
+
+    public CursorPage<RoomResponseDTO> availableByType(RoomType type, String cursor, Integer size) {
+        return page(availableByType.getOrDefault(type, List.of()), cursor, size);
+    }
+
+    /**
+     * Chambres dont le prix est dans [minPrice, maxPrice] : bornes trouvées par recherche
+     * dichotomique dans la vue par prix, puis pagination dans l'ordre habituel
+     */
+    public CursorPage<RoomResponseDTO> byPriceRange(BigDecimal minPrice, BigDecimal maxPrice,
+                                                    String cursor, Integer size) {
+        int from = firstIndex(cheapestFirst, room -> room.getPricePerNight().compareTo(minPrice) >= 0);
+        int to = firstIndex(cheapestFirst, room -> room.getPricePerNight().compareTo(maxPrice) > 0);
+        List<RoomResponseDTO> range = from < to
+            ? cheapestFirst.subList(from, to).stream().sorted(NEWEST_FIRST).toList()
+            : List.of();
+        return page(range, cursor, size);
+    }
+
+    private static CursorPage<RoomResponseDTO> page(List<RoomResponseDTO> rooms, String cursor, Integer size) {
+        CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+        int pageSize = CursorPage.size(size);
+        // Première chambre strictement après le curseur dans l'ordre (createdAt, id) décroissant
+        int start = firstIndex(rooms, room -> room.getCreatedAt().isBefore(after.createdAt())
+            || (room.getCreatedAt().isEqual(after.createdAt()) && room.getId() < after.id()));
+        int end = Math.min(rooms.size(), start + pageSize);
+        List<RoomResponseDTO> items = rooms.subList(start, end);
+        if (end == rooms.size()) {
+            return new CursorPage<>(items, null);
+        }
+        RoomResponseDTO last = items.get(items.size() - 1);
+        return new CursorPage<>(items, new CursorPage.Cursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    // Recherche dichotomique du premier élément qui vérifie un prédicat monotone (faux puis vrai)
+    private static int firstIndex(List<RoomResponseDTO> rooms, Predicate<RoomResponseDTO> predicate) {
+        int low = 0;
+        int high = rooms.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (predicate.test(rooms.get(mid))) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static <K extends Enum<K>> Map<K, List<RoomResponseDTO>> group(
+            List<RoomResponseDTO> rooms, Class<K> keyType,
+            Function<RoomResponseDTO, K> key, Predicate<RoomResponseDTO> filter) {
+        Map<K, List<RoomResponseDTO>> groups = rooms.stream()
+            .filter(filter)
+            .collect(Collectors.groupingBy(key, () -> new EnumMap<>(keyType), Collectors.toUnmodifiableList()));
+        return Collections.unmodifiableMap(groups);
+    }
+
+    private static long contentVersion(List<RoomResponseDTO> rooms) {
+        long hash = 1125899906842597L;
+        for (RoomResponseDTO room : rooms.stream().sorted(Comparator.comparing(RoomResponseDTO::getId)).toList()) {
+            hash = 31 * hash + room.getId();
+            hash = 31 * hash + (room.getVersion() != null ? room.getVersion() : -1);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,98 @@
+package com.hotel.room_service.service;
+
+import com.hotel.room_service.repository.RoomRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tient l'instantané courant du catalogue (RoomCatalog). Les lectures ne touchent ni la
+ * base ni de verrou ; l'instantané est reconstruit après chaque écriture locale validée,
+ * sur les notifications room.changed des autres instances et périodiquement par sécurité.
+ */
+@Service
+@Slf4j
+public class RoomCatalogService {
+    
+    private final RoomRepository roomRepository;
+    private final Timer rebuildTimer;
+    
+    private volatile RoomCatalog current;
+    
+    // Demandes de reconstruction : une reconstruction couvre toutes celles reçues avant son chargement
+    private final AtomicLong requested = new AtomicLong();
+    private long built;
+    
+    public RoomCatalogService(RoomRepository roomRepository, MeterRegistry meterRegistry) {
+        this.roomRepository = roomRepository;
+        this.rebuildTimer = Timer.builder("room.catalog.rebuild")
+            .description("Time to reload the in-memory room catalog")
+            .register(meterRegistry);
+        Gauge.builder("room.catalog.rooms", this, service -> service.current != null ? service.current.size() : 0)
+            .description("Rooms in the current catalog snapshot")
+            .register(meterRegistry);
+    }
+    
+    public RoomCatalog current() {
+        RoomCatalog catalog = current;
+        if (catalog == null) {
+            refresh();
+            catalog = current;
+        }
+        return catalog;
+    }
+    
+    /**
+     * Recharge le catalogue ; les appels concurrents sont regroupés en une seule reconstruction
+     */
+    public void refresh() {
+        long ticket = requested.incrementAndGet();
+        synchronized (this) {
+            if (built >= ticket) {
+                return;
+            }
+            long target = requested.get();
+            RoomCatalog fresh = rebuildTimer.record(() -> RoomCatalog.of(roomRepository.findCatalog()));
+            current = fresh;
+            built = target;
+            log.debug("Room catalog rebuilt: {} rooms, etag {}", fresh.size(), fresh.etag());
+        }
+    }
+    
+    /**
+     * Reconstruit après le commit de la transaction en cours (ou immédiatement s'il n'y en a pas)
+     */
+    public void refreshAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    refresh();
+                } catch (Exception e) {
+                    log.warn("Room catalog refresh failed: {}", e.getMessage());
+                }
+            }
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${room.catalog.refresh-interval-ms:300000}",
+               initialDelayString = "${room.catalog.refresh-interval-ms:300000}")
+    public void periodicRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Periodic room catalog refresh failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.hotel.room_service.service;
+
+import com.hotel.room_service.dto.RoomResponseDTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Index de recherche à facettes : chaque chambre occupe un slot, et chaque valeur de facette
+ * (type, statut, étage, capacité, tranche de prix) a un BitSet de slots. Une requête fait
+ * l'union des valeurs demandées dans une facette puis l'intersection entre facettes.
+ * Les écritures ne modifient que les bits de la chambre concernée, sous verrou d'écriture ;
+ * les lectures partagent le verrou de lecture.
+ */
+public class RoomFacetIndex {
+
+    public enum Facet {
+        TYPE, STATUS, FLOOR, CAPACITY, PRICE_BAND
+    }
+
+    /**
+     * Résultat d'une recherche : chambres trouvées (limitées), total et nombre de chambres
+     * par valeur de facette. Le compte d'une facette applique les filtres des autres facettes
+     * mais pas le sien, pour que l'interface puisse afficher les alternatives.
+     */
+    public record Result(List<RoomResponseDTO> rooms, int total, Map<Facet, Map<String, Integer>> counts) {}
+
+    private static final Comparator<RoomResponseDTO> BY_ROOM_NUMBER = Comparator
+        .comparing(RoomResponseDTO::getRoomNumber)
+        .thenComparing(RoomResponseDTO::getId);
+
+    private final BigDecimal priceBandWidth;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final List<RoomResponseDTO> slots = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private final Map<Facet, Map<String, BitSet>> bits = new EnumMap<>(Facet.class);
+
+    public RoomFacetIndex(BigDecimal priceBandWidth) {
+        if (priceBandWidth.signum() <= 0) {
+            throw new IllegalArgumentException("Price band width must be positive");
+        }
+        this.priceBandWidth = priceBandWidth;
+        for (Facet facet : Facet.values()) {
+            bits.put(facet, new TreeMap<>(facetOrder(facet)));
+        }
+    }
+
+    /**
+     * Ajoute ou met à jour une chambre. Une version plus ancienne que celle indexée est ignorée
+     * (rechargements concurrents qui se terminent dans le désordre).
+     */
+    public void upsert(RoomResponseDTO room) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.get(room.getId());
+            if (slot == null) {
+                slot = freeSlots.isEmpty() ? slots.size() : freeSlots.pop();
+                if (slot == slots.size()) {
+                    slots.add(null);
+                }
+                slotsById.put(room.getId(), slot);
+            } else {
+                RoomResponseDTO previous = slots.get(slot);
+                if (isOlder(room, previous)) {
+                    return;
+                }
+                setFacets(previous, slot, false);
+            }
+            slots.set(slot, room);
+            setFacets(room, slot, true);
+            live.set(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long roomId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.remove(roomId);
+            if (slot == null) {
+                return;
+            }
+            setFacets(slots.get(slot), slot, false);
+            slots.set(slot, null);
+            live.clear(slot);
+            freeSlots.push(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Chambres qui ont, pour chaque facette filtrée, l'une des valeurs demandées.
+     * Une facette absente ou vide n'est pas filtrée.
+     */
+    public Result search(Map<Facet, Set<String>> filters, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<Facet, BitSet> selected = new EnumMap<>(Facet.class);
+            filters.forEach((facet, values) -> {
+                if (values != null && !values.isEmpty()) {
+                    selected.put(facet, union(facet, values));
+                }
+            });
+
+            BitSet matches = intersect(selected, null);
+            List<RoomResponseDTO> rooms = new ArrayList<>(matches.cardinality());
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                rooms.add(slots.get(slot));
+            }
+            rooms.sort(BY_ROOM_NUMBER);
+
+            Map<Facet, Map<String, Integer>> counts = new EnumMap<>(Facet.class);
+            for (Facet facet : Facet.values()) {
+                BitSet base = selected.containsKey(facet) ? intersect(selected, facet) : matches;
+                Map<String, Integer> facetCounts = new LinkedHashMap<>();
+                bits.get(facet).forEach((value, valueBits) -> {
+                    BitSet hits = (BitSet) valueBits.clone();
+                    hits.and(base);
+                    facetCounts.put(value, hits.cardinality());
+                });
+                counts.put(facet, facetCounts);
+            }
+            return new Result(List.copyOf(rooms.subList(0, Math.min(limit, rooms.size()))), rooms.size(), counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Valeur de facette d'une chambre, sous la forme utilisée dans les filtres et les comptes
+     */
+    public String valueOf(Facet facet, RoomResponseDTO room) {
+        return switch (facet) {
+            case TYPE -> room.getRoomType() != null ? room.getRoomType().name() : null;
+            case STATUS -> room.getStatus() != null ? room.getStatus().name() : null;
+            case FLOOR -> room.getFloor() != null ? room.getFloor().toString() : null;
+            case CAPACITY -> room.getCapacity() != null ? room.getCapacity().toString() : null;
+            case PRICE_BAND -> room.getPricePerNight() != null ? priceBand(room.getPricePerNight()) : null;
+        };
+    }
+
+    // Tranche [bas, haut) de largeur fixe, ex. "100-150"
+    private String priceBand(BigDecimal price) {
+        BigDecimal low = price.divide(priceBandWidth, 0, RoundingMode.FLOOR).multiply(priceBandWidth);
+        return plain(low) + "-" + plain(low.add(priceBandWidth));
+    }
+
+    private static String plain(BigDecimal value) {
+        return value.stripTrailingZeros().toPlainString();
+    }
+
+    private void setFacets(RoomResponseDTO room, int slot, boolean present) {
+        for (Facet facet : Facet.values()) {
+            String value = valueOf(facet, room);
+            if (value == null) {
+                continue;
+            }
+            Map<String, BitSet> values = bits.get(facet);
+            if (present) {
+                values.computeIfAbsent(value, v -> new BitSet()).set(slot);
+            } else {
+                BitSet valueBits = values.get(value);
+                if (valueBits != null) {
+                    valueBits.clear(slot);
+                    if (valueBits.isEmpty()) {
+                        values.remove(value);
+                    }
+                }
+            }
+        }
+    }
+
+    private BitSet union(Facet facet, Set<String> values) {
+        BitSet result = new BitSet();
+        Map<String, BitSet> facetBits = bits.get(facet);
+        for (String value : values) {
+            BitSet valueBits = facetBits.get(value);
+            if (valueBits != null) {
+                result.or(valueBits);
+            }
+        }
+        return result;
+    }
+
+    // Intersection des chambres vivantes et des facettes sélectionnées, sauf celle exclue
+    private BitSet intersect(Map<Facet, BitSet> selected, Facet excluded) {
+        BitSet result = (BitSet) live.clone();
+        selected.forEach((facet, facetBits) -> {
+            if (facet != excluded) {
+                result.and(facetBits);
+            }
+        });
+        return result;
+    }
+
+    private static boolean isOlder(RoomResponseDTO room, RoomResponseDTO previous) {
+        return room.getVersion() != null && previous.getVersion() != null
+            && room.getVersion() < previous.getVersion();
+    }
+
+    // Étages, capacités et tranches de prix dans l'ordre numérique, le reste dans l'ordre alphabétique
+    private static Comparator<String> facetOrder(Facet facet) {
+        Function<String, BigDecimal> number = value -> {
+            int dash = value.indexOf('-', 1);
+            return new BigDecimal(dash > 0 ? value.substring(0, dash) : value);
+        };
+        return switch (facet) {
+            case FLOOR, CAPACITY, PRICE_BAND -> Comparator.comparing(number);
+            default -> Comparator.naturalOrder();
+        };
+    }
+}
@@ -0,0 +1,184 @@
+package com.hotel.room_service.service;
+
+import com.hotel.common.dto.CursorPage;
+import com.hotel.room_service.dto.RoomFacetSearchDTO;
+import com.hotel.room_service.dto.RoomResponseDTO;
+import com.hotel.room_service.model.RoomStatus;
+import com.hotel.room_service.model.RoomType;
+import com.hotel.room_service.repository.RoomRepository;
+import com.hotel.room_service.service.RoomFacetIndex.Facet;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Recherche à facettes servie par RoomFacetIndex. L'index est chargé au démarrage puis tenu
+ * à jour chambre par chambre : après chaque écriture locale validée et sur les notifications
+ * room.changed des autres instances. Une reconstruction complète périodique corrige une
+ * éventuelle dérive.
+ */
+@Service
+@Slf4j
+public class RoomFacetService {
+
+    private static final Map<Facet, String> FACET_NAMES = Map.of(
+        Facet.TYPE, "type",
+        Facet.STATUS, "status",
+        Facet.FLOOR, "floor",
+        Facet.CAPACITY, "capacity",
+        Facet.PRICE_BAND, "priceBand");
+
+    private final RoomRepository roomRepository;
+    private final BigDecimal priceBandWidth;
+    private final Timer rebuildTimer;
+
+    private volatile RoomFacetIndex index;
+
+    // Chambres modifiées pendant une reconstruction, rejouées sur le nouvel index
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    public RoomFacetService(RoomRepository roomRepository, MeterRegistry meterRegistry,
+                            @Value("${room.facets.price-band-width:50}") BigDecimal priceBandWidth) {
+        this.roomRepository = roomRepository;
+        this.priceBandWidth = priceBandWidth;
+        this.rebuildTimer = Timer.builder("room.facets.rebuild")
+            .description("Time to rebuild the room facet index")
+            .register(meterRegistry);
+        Gauge.builder("room.facets.rooms", this, service -> service.index != null ? service.index.size() : 0)
+            .description("Rooms in the facet index")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        rebuildQuietly();
+    }
+
+    @Scheduled(fixedDelayString = "${room.facets.rebuild-interval-ms:300000}",
+               initialDelayString = "${room.facets.rebuild-interval-ms:300000}")
+    public void periodicRebuild() {
+        rebuildQuietly();
+    }
+
+    /**
+     * Recharge l'index complet puis rejoue les chambres modifiées pendant le chargement
+     */
+    public synchronized void rebuild() {
+        rebuilding = true;
+        try {
+            RoomFacetIndex fresh = rebuildTimer.record(() -> {
+                RoomFacetIndex built = new RoomFacetIndex(priceBandWidth);
+                roomRepository.findCatalog().forEach(built::upsert);
+                return built;
+            });
+            index = fresh;
+            log.debug("Room facet index rebuilt: {} rooms", fresh.size());
+        } finally {
+            rebuilding = false;
+        }
+        if (!changedDuringRebuild.isEmpty()) {
+            List<Long> changed = List.copyOf(changedDuringRebuild);
+            changedDuringRebuild.removeAll(changed);
+            refreshRooms(changed);
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Room facet index rebuild failed, keeping previous state: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reporte une création / modification / suppression de chambre dans l'index après commit
+     */
+    public void roomChanged(Long roomId) {
+        roomsChanged(List.of(roomId));
+    }
+
+    /**
+     * Même chose pour un lot de chambres, rechargées en une seule requête
+     */
+    public void roomsChanged(Collection<Long> roomIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refreshRooms(roomIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refreshRooms(roomIds);
+            }
+        });
+    }
+
+    private void refreshRooms(Collection<Long> roomIds) {
+        if (rebuilding) {
+            changedDuringRebuild.addAll(roomIds);
+        }
+        RoomFacetIndex current = index;
+        if (current == null) {
+            return;
+        }
+        try {
+            Set<Long> missing = new HashSet<>(roomIds);
+            for (RoomResponseDTO room : roomRepository.findCatalogEntries(roomIds)) {
+                current.upsert(room);
+                missing.remove(room.getId());
+            }
+            missing.forEach(current::remove);
+        } catch (Exception e) {
+            log.warn("Failed to refresh rooms {} in facet index: {}", roomIds, e.getMessage());
+        }
+    }
+
+    /**
+     * Chambres correspondant à toutes les facettes filtrées (une des valeurs par facette),
+     * triées par numéro, avec les comptes par valeur de facette
+     */
+    public RoomFacetSearchDTO search(Collection<RoomType> types, Collection<RoomStatus> statuses,
+                                     Collection<Integer> floors, Collection<Integer> capacities,
+                                     Collection<String> priceBands, Integer size) {
+        RoomFacetIndex current = index;
+        if (current == null) {
+            rebuild();
+            current = index;
+        }
+        Map<Facet, Set<String>> filters = new EnumMap<>(Facet.class);
+        filters.put(Facet.TYPE, names(types));
+        filters.put(Facet.STATUS, names(statuses));
+        filters.put(Facet.FLOOR, names(floors));
+        filters.put(Facet.CAPACITY, names(capacities));
+        filters.put(Facet.PRICE_BAND, names(priceBands));
+
+        RoomFacetIndex.Result result = current.search(filters, CursorPage.size(size));
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        result.counts().forEach((facet, counts) -> facets.put(FACET_NAMES.get(facet), counts));
+        return new RoomFacetSearchDTO(result.total(), result.rooms(), facets);
+    }
+
+    private static Set<String> names(Collection<?> values) {
+        if (values == null) {
+            return Set.of();
+        }
+        return values.stream()
+            .map(value -> value instanceof Enum<?> e ? e.name() : String.valueOf(value))
+            .collect(Collectors.toSet());
+    }
+}
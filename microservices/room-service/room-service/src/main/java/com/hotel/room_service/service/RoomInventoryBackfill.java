@@ -0,0 +1,123 @@
+package com.hotel.room_service.service;
+
+import com.hotel.room_service.client.BookingServiceClient;
+import com.hotel.room_service.dto.InventoryHoldRequestDTO;
+import com.hotel.room_service.dto.RoomOccupancyDTO;
+import com.hotel.room_service.model.Room;
+import com.hotel.room_service.model.RoomType;
+import com.hotel.room_service.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Rattrape l'inventaire chambres-nuits depuis les séjours actifs de booking-service : les réservations
+ * confirmées avant la mise en place de l'inventaire n'ont ni hold ni nuits vendues. Exécuté au
+ * démarrage, puis réessayé tant que booking-service n'a pas répondu ; sans effet une fois à jour.
+ * Une réservation annulée entre la lecture des séjours et le commit de son hold a vu sa libération
+ * passer avant le hold, sans effet : les réservations rattrapées sont donc relues après commit, et
+ * celles annulées entre-temps libérées. Une annulation postérieure au commit libère le hold elle-même.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomInventoryBackfill {
+    
+    private final BookingServiceClient bookingServiceClient;
+    private final RoomRepository roomRepository;
+    private final RoomInventoryService inventoryService;
+    
+    // Réservations rattrapées dont le statut reste à relire après commit
+    private final Set<Long> toRecheck = ConcurrentHashMap.newKeySet();
+    
+    private volatile boolean done;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        runQuietly();
+    }
+    
+    @Scheduled(fixedDelayString = "${room.inventory.backfill-retry-interval-ms:30000}",
+               initialDelayString = "${room.inventory.backfill-retry-interval-ms:30000}")
+    public void retryUntilDone() {
+        if (!done) {
+            runQuietly();
+        }
+    }
+    
+    /**
+     * @return nombre de holds créés
+     */
+    public int run() {
+        List<RoomOccupancyDTO> confirmed = bookingServiceClient.getOccupancy(LocalDate.now().minusDays(1)).stream()
+            .filter(stay -> "CONFIRMED".equals(stay.getStatus()))
+            .toList();
+        Set<Long> roomIds = confirmed.stream().map(RoomOccupancyDTO::getRoomId).collect(Collectors.toSet());
+        Map<Long, RoomType> types = new HashMap<>();
+        for (Room room : roomRepository.findAllById(roomIds)) {
+            types.put(room.getId(), room.getRoomType());
+        }
+        
+        List<InventoryHoldRequestDTO> requests = new ArrayList<>();
+        for (RoomOccupancyDTO stay : confirmed) {
+            RoomType type = types.get(stay.getRoomId());
+            if (type == null) {
+                log.warn("Booking {} references unknown room {}, not counted in inventory",
+                         stay.getBookingId(), stay.getRoomId());
+                continue;
+            }
+            requests.add(new InventoryHoldRequestDTO(
+                stay.getBookingId(), type, stay.getCheckInDate(), stay.getCheckOutDate(), 1));
+        }
+        List<Long> created = inventoryService.backfill(requests);
+        toRecheck.addAll(created);
+        if (!created.isEmpty()) {
+            log.info("Room inventory backfilled: {} confirmed bookings without a hold", created.size());
+        }
+        releaseCancelledSinceBackfill();
+        done = true;
+        return created.size();
+    }
+    
+    /**
+     * Relit les réservations rattrapées (holds déjà commités) et libère celles annulées entre-temps.
+     * Seules celles sorties des séjours actifs sont relues une à une ; une réservation terminée
+     * garde ses nuits vendues.
+     */
+    private void releaseCancelledSinceBackfill() {
+        if (toRecheck.isEmpty()) {
+            return;
+        }
+        Set<Long> active = bookingServiceClient.getOccupancy(LocalDate.now().minusDays(1)).stream()
+            .map(RoomOccupancyDTO::getBookingId)
+            .collect(Collectors.toSet());
+        for (Long bookingId : List.copyOf(toRecheck)) {
+            if (!active.contains(bookingId)
+                    && "CANCELLED".equals(bookingServiceClient.getBooking(bookingId).getStatus())) {
+                inventoryService.release(bookingId);
+                log.info("Booking {} cancelled during the inventory backfill, hold released", bookingId);
+            }
+            toRecheck.remove(bookingId);
+        }
+    }
+    
+    private void runQuietly() {
+        try {
+            run();
+        } catch (Exception e) {
+            log.warn("Room inventory backfill failed, retrying later: {}", e.getMessage());
+        }
+    }
+}
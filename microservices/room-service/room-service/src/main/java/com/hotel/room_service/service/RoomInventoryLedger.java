@@ -0,0 +1,199 @@
+package com.hotel.room_service.service;
+
+import com.hotel.room_service.model.RoomType;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Inventaire par type de chambre et par nuit, en mémoire : un tableau int[] de nuits vendues
+ * par type, indexé par jour depuis une origine glissante. Réservation / libération d'une période
+ * atomiques (verrou par type), disponibilité en O(nuits). La persistance et le contrôle de
+ * capacité qui fait foi sont faits en base par RoomInventoryService ; cette classe ne fait que
+ * tenir les compteurs (rejet rapide et lecture de disponibilité).
+ */
+public class RoomInventoryLedger {
+    
+    private final int horizonDays;
+    private final Map<RoomType, TypeLedger> ledgers = new EnumMap<>(RoomType.class);
+    
+    public RoomInventoryLedger(LocalDate origin, int horizonDays) {
+        this.horizonDays = horizonDays;
+        for (RoomType type : RoomType.values()) {
+            ledgers.put(type, new TypeLedger(origin.toEpochDay(), horizonDays));
+        }
+    }
+    
+    /**
+     * Compteurs d'un type sur une période : capacité et nuits vendues, une case par nuit
+     */
+    public record Window(RoomType roomType, LocalDate from, int capacity, int[] sold) {
+        
+        public int available(int night) {
+            return Math.max(0, capacity - sold[night]);
+        }
+        
+        public int minAvailable() {
+            int min = capacity;
+            for (int night = 0; night < sold.length; night++) {
+                min = Math.min(min, available(night));
+            }
+            return min;
+        }
+    }
+    
+    public void setCapacity(RoomType type, int capacity) {
+        TypeLedger ledger = ledgers.get(type);
+        ledger.lock.lock();
+        try {
+            ledger.capacity = capacity;
+        } finally {
+            ledger.lock.unlock();
+        }
+    }
+    
+    /**
+     * Ajoute des nuits vendues sans contrôle de capacité (chargement depuis la base)
+     */
+    public void load(RoomType type, LocalDate night, int sold) {
+        TypeLedger ledger = ledgers.get(type);
+        ledger.lock.lock();
+        try {
+            long index = night.toEpochDay() - ledger.originDay;
+            if (index >= 0 && index < ledger.sold.length) {
+                ledger.sold[(int) index] += sold;
+            }
+        } finally {
+            ledger.lock.unlock();
+        }
+    }
+    
+    /**
+     * Remplace les nuits vendues d'un type par celles lues en base (nuits absentes : 0)
+     */
+    public void replace(RoomType type, Map<LocalDate, Integer> soldByNight) {
+        TypeLedger ledger = ledgers.get(type);
+        ledger.lock.lock();
+        try {
+            int[] sold = new int[ledger.sold.length];
+            soldByNight.forEach((night, count) -> {
+                long index = night.toEpochDay() - ledger.originDay;
+                if (index >= 0 && index < sold.length) {
+                    sold[(int) index] = count;
+                }
+            });
+            ledger.sold = sold;
+        } finally {
+            ledger.lock.unlock();
+        }
+    }
+    
+    /**
+     * Réserve quantity chambres pour chaque nuit de [from, to) si toutes les nuits ont
+     * la place, sinon ne modifie rien.
+     */
+    public boolean tryReserve(RoomType type, LocalDate from, LocalDate to, int quantity) {
+        TypeLedger ledger = ledgers.get(type);
+        ledger.lock.lock();
+        try {
+            int start = ledger.index(from, to);
+            int end = start + nights(from, to);
+            for (int i = start; i < end; i++) {
+                if (ledger.sold[i] + quantity > ledger.capacity) {
+                    return false;
+                }
+            }
+            for (int i = start; i < end; i++) {
+                ledger.sold[i] += quantity;
+            }
+            return true;
+        } finally {
+            ledger.lock.unlock();
+        }
+    }
+    
+    /**
+     * Libère les nuits de [from, to) ; les nuits déjà sorties de la fenêtre (passées) sont ignorées
+     */
+    public void release(RoomType type, LocalDate from, LocalDate to, int quantity) {
+        TypeLedger ledger = ledgers.get(type);
+        ledger.lock.lock();
+        try {
+            long originDay = ledger.originDay;
+            int start = (int) Math.max(0, from.toEpochDay() - originDay);
+            int end = (int) Math.min(ledger.sold.length, to.toEpochDay() - originDay);
+            for (int i = start; i < end; i++) {
+                ledger.sold[i] = Math.max(0, ledger.sold[i] - quantity);
+            }
+        } finally {
+            ledger.lock.unlock();
+        }
+    }
+    
+    public Window window(RoomType type, LocalDate from, LocalDate to) {
+        TypeLedger ledger = ledgers.get(type);
+        ledger.lock.lock();
+        try {
+            int start = ledger.index(from, to);
+            int[] sold = new int[nights(from, to)];
+            System.arraycopy(ledger.sold, start, sold, 0, sold.length);
+            return new Window(type, from, ledger.capacity, sold);
+        } finally {
+            ledger.lock.unlock();
+        }
+    }
+    
+    /**
+     * Fait glisser l'origine (nuits passées abandonnées, horizon prolongé d'autant)
+     */
+    public void rebase(LocalDate newOrigin) {
+        for (TypeLedger ledger : ledgers.values()) {
+            ledger.lock.lock();
+            try {
+                long shift = newOrigin.toEpochDay() - ledger.originDay;
+                if (shift <= 0) {
+                    continue;
+                }
+                int[] sold = new int[horizonDays];
+                if (shift < horizonDays) {
+                    System.arraycopy(ledger.sold, (int) shift, sold, 0, horizonDays - (int) shift);
+                }
+                ledger.sold = sold;
+                ledger.originDay = newOrigin.toEpochDay();
+            } finally {
+                ledger.lock.unlock();
+            }
+        }
+    }
+    
+    private static int nights(LocalDate from, LocalDate to) {
+        return (int) (to.toEpochDay() - from.toEpochDay());
+    }
+    
+    private static final class TypeLedger {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long originDay;
+        private int[] sold;
+        private int capacity;
+        
+        private TypeLedger(long originDay, int horizonDays) {
+            this.originDay = originDay;
+            this.sold = new int[horizonDays];
+        }
+        
+        private int index(LocalDate from, LocalDate to) {
+            if (!to.isAfter(from)) {
+                throw new IllegalArgumentException("End date must be after start date");
+            }
+            long start = from.toEpochDay() - originDay;
+            long end = to.toEpochDay() - originDay;
+            if (start < 0 || end > sold.length) {
+                throw new IllegalArgumentException("Dates must be within the inventory horizon ("
+                    + LocalDate.ofEpochDay(originDay) + " to " + LocalDate.ofEpochDay(originDay + sold.length) + ")");
+            }
+            return (int) start;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.hotel.room_service.service;
+
+import com.hotel.room_service.dto.InventoryHoldRequestDTO;
+import com.hotel.room_service.dto.NightInventoryDTO;
+import com.hotel.room_service.dto.RoomTypeInventoryDTO;
+import com.hotel.room_service.exception.InventoryUnavailableException;
+import com.hotel.room_service.model.RoomInventoryHold;
+import com.hotel.room_service.model.RoomNightInventory;
+import com.hotel.room_service.model.RoomType;
+import com.hotel.room_service.repository.RoomInventoryHoldRepository;
+import com.hotel.room_service.repository.RoomNightInventoryRepository;
+import com.hotel.room_service.repository.RoomRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Inventaire chambres-nuits par type : persistance incrémentale (une ligne par type et par nuit,
+ * plus un hold par réservation) et compteurs en mémoire (RoomInventoryLedger).
+ * La base fait foi : une réservation n'est acceptée que si l'UPDATE conditionnel des nuits passe
+ * sur toutes les nuits, quelle que soit l'instance. Le ledger ne sert qu'au rejet rapide et à la
+ * lecture de disponibilité en O(nuits) ; il est rechargé depuis la base toutes les
+ * room.inventory.refresh-interval-ms pour suivre les écritures des autres instances.
+ */
+@Service
+@Slf4j
+public class RoomInventoryService {
+    
+    private final RoomRepository roomRepository;
+    private final RoomNightInventoryRepository nightRepository;
+    private final RoomInventoryHoldRepository holdRepository;
+    private final RoomInventoryLedger ledger;
+    private final LocalDate origin;
+    
+    public RoomInventoryService(RoomRepository roomRepository,
+                                RoomNightInventoryRepository nightRepository,
+                                RoomInventoryHoldRepository holdRepository,
+                                @Value("${room.inventory.horizon-days:730}") int horizonDays) {
+        this.roomRepository = roomRepository;
+        this.nightRepository = nightRepository;
+        this.holdRepository = holdRepository;
+        // La veille est gardée pour les départs du jour
+        this.origin = LocalDate.now().minusDays(1);
+        this.ledger = new RoomInventoryLedger(origin, horizonDays);
+    }
+    
+    @PostConstruct
+    void load() {
+        int rows = refresh();
+        log.info("Room inventory loaded: {} type-nights from {}", rows, origin);
+    }
+    
+    /**
+     * Recharge capacités et nuits vendues depuis la base (écritures des autres instances)
+     * @return nombre de nuits vendues lues
+     */
+    @Scheduled(fixedDelayString = "${room.inventory.refresh-interval-ms:30000}",
+               initialDelayString = "${room.inventory.refresh-interval-ms:30000}")
+    public int refresh() {
+        refreshCapacities();
+        Map<RoomType, Map<LocalDate, Integer>> sold = new EnumMap<>(RoomType.class);
+        for (RoomType type : RoomType.values()) {
+            sold.put(type, new HashMap<>());
+        }
+        // Les nuits hors de la fenêtre du ledger sont ignorées par replace
+        List<RoomNightInventory> rows = nightRepository.findByStayDateGreaterThanEqualAndSoldGreaterThan(
+            LocalDate.now().minusDays(1), 0);
+        for (RoomNightInventory row : rows) {
+            sold.get(row.getRoomType()).put(row.getStayDate(), row.getSold());
+        }
+        sold.forEach(ledger::replace);
+        return rows.size();
+    }
+    
+    /**
+     * Réserve les nuits d'une réservation. Idempotent par bookingId.
+     * @throws InventoryUnavailableException si une nuit de la période est complète (en mémoire ou en base)
+     */
+    @Transactional
+    public RoomTypeInventoryDTO reserve(InventoryHoldRequestDTO request) {
+        Optional<RoomInventoryHold> existing = holdRepository.findByBookingId(request.getBookingId());
+        if (existing.isPresent()) {
+            RoomInventoryHold hold = existing.get();
+            return availability(hold.getRoomType(), hold.getCheckInDate(), hold.getCheckOutDate());
+        }
+        
+        RoomType type = request.getRoomType();
+        LocalDate checkIn = request.getCheckInDate();
+        LocalDate checkOut = request.getCheckOutDate();
+        int quantity = request.getQuantity();
+        
+        // Rejet rapide sur le ledger, sans aller en base
+        if (!ledger.tryReserve(type, checkIn, checkOut, quantity)) {
+            throw unavailable(type, checkIn, checkOut);
+        }
+        // Mémoire modifiée avant le commit : compensée si la transaction échoue
+        afterCompletion(false, () -> ledger.release(type, checkIn, checkOut, quantity));
+        
+        // Contrôle qui fait foi : une nuit complète en base (autre instance) annule la transaction
+        nightRepository.createMissingNights(type.name(), checkIn, checkOut);
+        int nights = (int) (checkOut.toEpochDay() - checkIn.toEpochDay());
+        if (nightRepository.addSoldWithinCapacity(type.name(), checkIn, checkOut, quantity) < nights) {
+            throw unavailable(type, checkIn, checkOut);
+        }
+        
+        RoomInventoryHold hold = new RoomInventoryHold();
+        hold.setBookingId(request.getBookingId());
+        hold.setRoomType(type);
+        hold.setCheckInDate(checkIn);
+        hold.setCheckOutDate(checkOut);
+        hold.setQuantity(quantity);
+        holdRepository.save(hold);
+        
+        return availability(type, checkIn, checkOut);
+    }
+    
+    /**
+     * Libère les nuits d'une réservation. Sans effet si rien n'est réservé ou déjà libéré.
+     */
+    @Transactional
+    public void release(Long bookingId) {
+        Optional<RoomInventoryHold> existing = holdRepository.findByBookingId(bookingId);
+        if (existing.isEmpty() || holdRepository.releaseIfActive(existing.get().getId(), LocalDateTime.now()) == 0) {
+            return;
+        }
+        RoomInventoryHold hold = existing.get();
+        nightRepository.addSold(hold.getRoomType().name(), hold.getCheckInDate(), hold.getCheckOutDate(),
+            -hold.getQuantity());
+        // Les nuits ne redeviennent vendables qu'une fois la libération durable
+        afterCompletion(true, () -> ledger.release(
+            hold.getRoomType(), hold.getCheckInDate(), hold.getCheckOutDate(), hold.getQuantity()));
+    }
+    
+    /**
+     * Rattrapage des réservations confirmées sans hold (antérieures à l'inventaire, ou hold perdu) :
+     * leurs nuits sont comptées vendues sans contrôle de capacité, la chambre étant déjà attribuée.
+     * Idempotent : une réservation ayant déjà un hold, même libéré, est ignorée.
+     * @return réservations dont le hold a été créé
+     */
+    @Transactional
+    public List<Long> backfill(List<InventoryHoldRequestDTO> confirmed) {
+        if (confirmed.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> held = new HashSet<>(holdRepository.findHeldBookingIds(
+            confirmed.stream().map(InventoryHoldRequestDTO::getBookingId).toList()));
+        List<RoomInventoryHold> created = new ArrayList<>();
+        for (InventoryHoldRequestDTO request : confirmed) {
+            if (!held.add(request.getBookingId())) {
+                continue;
+            }
+            RoomInventoryHold hold = new RoomInventoryHold();
+            hold.setBookingId(request.getBookingId());
+            hold.setRoomType(request.getRoomType());
+            hold.setCheckInDate(request.getCheckInDate());
+            hold.setCheckOutDate(request.getCheckOutDate());
+            hold.setQuantity(request.getQuantity());
+            created.add(hold);
+            nightRepository.addSold(request.getRoomType().name(), request.getCheckInDate(),
+                request.getCheckOutDate(), request.getQuantity());
+        }
+        holdRepository.saveAll(created);
+        afterCompletion(true, () -> {
+            for (RoomInventoryHold hold : created) {
+                for (LocalDate night = hold.getCheckInDate(); night.isBefore(hold.getCheckOutDate()); night = night.plusDays(1)) {
+                    ledger.load(hold.getRoomType(), night, hold.getQuantity());
+                }
+            }
+        });
+        return created.stream().map(RoomInventoryHold::getBookingId).toList();
+    }
+    
+    public RoomTypeInventoryDTO availability(RoomType type, LocalDate from, LocalDate to) {
+        RoomInventoryLedger.Window window = ledger.window(type, from, to);
+        List<NightInventoryDTO> nights = new ArrayList<>(window.sold().length);
+        for (int night = 0; night < window.sold().length; night++) {
+            nights.add(new NightInventoryDTO(from.plusDays(night), window.sold()[night], window.available(night)));
+        }
+        return new RoomTypeInventoryDTO(type, window.capacity(), window.minAvailable(), nights);
+    }
+    
+    public List<RoomTypeInventoryDTO> availability(LocalDate from, LocalDate to) {
+        List<RoomTypeInventoryDTO> result = new ArrayList<>();
+        for (RoomType type : RoomType.values()) {
+            result.add(availability(type, from, to));
+        }
+        return result;
+    }
+    
+    /**
+     * Recalcule la capacité de chaque type après commit (création, suppression,
+     * changement de type ou passage en maintenance d'une chambre)
+     */
+    public void capacityChanged() {
+        afterCompletion(true, this::refreshCapacities);
+    }
+    
+    void refreshCapacities() {
+        Map<RoomType, Integer> capacities = new EnumMap<>(RoomType.class);
+        for (RoomType type : RoomType.values()) {
+            capacities.put(type, 0);
+        }
+        for (RoomRepository.TypeCount row : roomRepository.countSellableGroupedByType()) {
+            capacities.put(row.getRoomType(), (int) row.getCount());
+        }
+        capacities.forEach(ledger::setCapacity);
+    }
+    
+    @Scheduled(cron = "${room.inventory.rebase-cron:0 5 0 * * *}")
+    public void rebase() {
+        ledger.rebase(LocalDate.now().minusDays(1));
+    }
+    
+    private static InventoryUnavailableException unavailable(RoomType type, LocalDate checkIn, LocalDate checkOut) {
+        return new InventoryUnavailableException(
+            "No " + type + " room left for every night from " + checkIn + " to " + checkOut);
+    }
+    
+    private static void afterCompletion(boolean onCommit, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (onCommit) {
+                action.run();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if ((status == STATUS_COMMITTED) == onCommit) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
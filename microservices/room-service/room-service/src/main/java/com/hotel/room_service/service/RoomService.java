@@ -1,19 +1,39 @@
 package com.hotel.room_service.service;
 
+import com.hotel.room_service.dto.BulkStatusUpdateResultDTO;
+import com.hotel.room_service.dto.RoomChangedEvent;
 import com.hotel.room_service.dto.RoomRequestDTO;
 import com.hotel.room_service.dto.RoomResponseDTO;
+import com.hotel.room_service.dto.RoomStatsDTO;
+import com.hotel.room_service.dto.RoomStatusChangeDTO;
+import com.hotel.room_service.dto.RoomStatusChangeResultDTO;
+import com.hotel.room_service.dto.RoomStatusChangeResultDTO.Outcome;
+import com.hotel.room_service.dto.RoomSummaryDTO;
 import com.hotel.room_service.exception.RoomAlreadyExistsException;
 import com.hotel.room_service.exception.RoomNotFoundException;
+import com.hotel.room_service.exception.RoomStateConflictException;
+import com.hotel.room_service.messaging.RoomEventPublisher;
 import com.hotel.room_service.model.Room;
 import com.hotel.room_service.model.RoomStatus;
 import com.hotel.room_service.model.RoomType;
 import com.hotel.room_service.repository.RoomRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import java.util.stream.Collectors;
 
@@ -23,6 +43,13 @@ import java.util.stream.Collectors;
 public class RoomService {
     
     private final RoomRepository roomRepository;
+    private final RoomEventPublisher roomEventPublisher;
+    private final RoomInventoryService inventoryService;
+    private final RoomAvailabilityService availabilityService;
+    private final RoomCatalogService catalogService;
+    private final RoomFacetService facetService;
+    private final RoomStatusCounters statusCounters;
+    private final MeterRegistry meterRegistry;
     
     public RoomResponseDTO createRoom(RoomRequestDTO request) {
         if (roomRepository.existsByRoomNumber(request.getRoomNumber())) {
@@ -40,6 +67,13 @@ public class RoomService {
         room.setImageUrl(request.getImageUrl());
         
         Room savedRoom = roomRepository.save(room);
+        roomEventPublisher.publishRoomChanged(savedRoom.getId(), "CREATED", savedRoom.getVersion(),
+            RoomEventPublisher.fields(savedRoom));
+        inventoryService.capacityChanged();
+        availabilityService.roomChanged(savedRoom.getId());
+        catalogService.refreshAfterCommit();
+        facetService.roomChanged(savedRoom.getId());
+        statusCounters.changed(null, savedRoom.getStatus());
         return convertToDTO(savedRoom);
     }
     
@@ -55,32 +89,20 @@ public class RoomService {
         return convertToDTO(room);
     }
     
-    public List<RoomResponseDTO> getAllRooms() {
-        return roomRepository.findAll().stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<RoomSummaryDTO> getRoomSummaries(Integer floor, RoomType type) {
+        return roomRepository.findSummaries(floor, type);
     }
     
-    public List<RoomResponseDTO> getRoomsByStatus(RoomStatus status) {
-        return roomRepository.findByStatus(status).stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
-    }
-    
-    public List<RoomResponseDTO> getRoomsByType(RoomType type) {
-        return roomRepository.findByRoomType(type).stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
-    }
-    
-    public List<RoomResponseDTO> getAvailableRoomsByType(RoomType type) {
-        return roomRepository.findByRoomTypeAndStatus(type, RoomStatus.AVAILABLE).stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
-    }
-    
-    public List<RoomResponseDTO> getRoomsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return roomRepository.findByPricePerNightBetween(minPrice, maxPrice).stream()
+    /**
+     * Récupère plusieurs chambres en une seule requête (utilisé par le booking-service)
+     * Les IDs inconnus sont simplement ignorés
+     */
+    public List<RoomResponseDTO> getRoomsByIds(Set<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return roomRepository.findAllById(ids).stream()
             .map(this::convertToDTO)
             .collect(Collectors.toList());
     }
@@ -94,6 +116,8 @@ public class RoomService {
             throw new RoomAlreadyExistsException("Room with number " + request.getRoomNumber() + " already exists");
         }
         
+        Map<String, Object> before = RoomEventPublisher.fields(room);
+        RoomStatus previousStatus = room.getStatus();
         room.setRoomNumber(request.getRoomNumber());
         room.setRoomType(request.getRoomType());
         room.setPricePerNight(request.getPricePerNight());
@@ -103,23 +127,151 @@ public class RoomService {
         room.setDescription(request.getDescription());
         room.setImageUrl(request.getImageUrl());
         
-        Room updatedRoom = roomRepository.save(room);
+        // Flush pour connaître la version incrémentée à publier
+        Room updatedRoom = roomRepository.saveAndFlush(room);
+        Map<String, Object> changes = RoomEventPublisher.changes(before, updatedRoom);
+        if (!changes.isEmpty()) {
+            roomEventPublisher.publishRoomChanged(id, "UPDATED", updatedRoom.getVersion(), changes);
+        }
+        inventoryService.capacityChanged();
+        availabilityService.roomChanged(id);
+        catalogService.refreshAfterCommit();
+        facetService.roomChanged(id);
+        statusCounters.changed(previousStatus, updatedRoom.getStatus());
         return convertToDTO(updatedRoom);
     }
     
     public RoomResponseDTO updateRoomStatus(Long id, RoomStatus status) {
         Room room = roomRepository.findById(id)
             .orElseThrow(() -> new RoomNotFoundException("Room not found with id: " + id));
+        RoomStatus previous = room.getStatus();
         room.setStatus(status);
-        Room updatedRoom = roomRepository.save(room);
+        Room updatedRoom = roomRepository.saveAndFlush(room);
+        if (previous != status) {
+            roomEventPublisher.publishRoomChanged(id, "STATUS_CHANGED", updatedRoom.getVersion(),
+                Map.of("status", status));
+        }
+        inventoryService.capacityChanged();
+        availabilityService.roomChanged(id);
+        catalogService.refreshAfterCommit();
+        facetService.roomChanged(id);
+        statusCounters.changed(previous, status);
         return convertToDTO(updatedRoom);
     }
     
-    public void deleteRoom(Long id) {
-        if (!roomRepository.existsById(id)) {
-            throw new RoomNotFoundException("Room not found with id: " + id);
+    /**
+     * Compare-and-set du statut : passe à target seulement si le statut courant est dans expected
+     * (tous si vide) et, si fourni, si la version correspond. Un seul UPDATE conditionnel verrouille
+     * la ligne et renvoie le statut d'origine (compteurs), puis la chambre est relue pour la réponse :
+     * deux allers-retours ; en cas d'échec, RoomStateConflictException donne l'état courant.
+     */
+    public RoomResponseDTO transitionStatus(Long id, Collection<RoomStatus> expected, RoomStatus target,
+                                            Long expectedVersion) {
+        Collection<RoomStatus> from = expected == null || expected.isEmpty()
+            ? EnumSet.allOf(RoomStatus.class) : expected;
+        Optional<RoomStatus> previous = roomRepository.transitionStatus(
+                id, from.stream().map(RoomStatus::name).toList(), target.name(), expectedVersion, LocalDateTime.now())
+            .map(RoomStatus::valueOf);
+        
+        Room room = roomRepository.findById(id)
+            .orElseThrow(() -> new RoomNotFoundException("Room not found with id: " + id));
+        if (previous.isEmpty()) {
+            meterRegistry.counter("room.status.transitions", "result", "conflict").increment();
+            throw new RoomStateConflictException("Room " + id + " is " + room.getStatus()
+                + " (version " + room.getVersion() + "), expected " + from
+                + (expectedVersion != null ? " at version " + expectedVersion : ""));
+        }
+        
+        meterRegistry.counter("room.status.transitions", "result", "applied").increment();
+        roomEventPublisher.publishRoomChanged(id, "STATUS_CHANGED", room.getVersion(),
+            Map.of("status", room.getStatus()));
+        inventoryService.capacityChanged();
+        availabilityService.roomChanged(id);
+        catalogService.refreshAfterCommit();
+        facetService.roomChanged(id);
+        statusCounters.changed(previous.get(), room.getStatus());
+        return convertToDTO(room);
+    }
+    
+    /**
+     * Changements de statut groupés (ménage, audit de nuit) dans une seule transaction :
+     * les chambres sont verrouillées et lues en une requête, puis un UPDATE par statut cible.
+     * Une garde non respectée met la chambre en conflit sans bloquer les autres ;
+     * le résultat est donné chambre par chambre.
+     */
+    public BulkStatusUpdateResultDTO updateStatuses(List<RoomStatusChangeDTO> changes) {
+        Map<Long, RoomStatusChangeDTO> byRoom = new LinkedHashMap<>();
+        for (RoomStatusChangeDTO change : changes) {
+            if (byRoom.put(change.getRoomId(), change) != null) {
+                throw new IllegalArgumentException("Room " + change.getRoomId() + " appears more than once");
+            }
+        }
+        Map<Long, RoomRepository.StatusSnapshot> current = roomRepository.lockStatuses(byRoom.keySet()).stream()
+            .collect(Collectors.toMap(RoomRepository.StatusSnapshot::getId, Function.identity()));
+        
+        Map<RoomStatus, List<Long>> toApply = new EnumMap<>(RoomStatus.class);
+        List<RoomStatusChangeResultDTO> results = new ArrayList<>(byRoom.size());
+        for (RoomStatusChangeDTO change : byRoom.values()) {
+            RoomRepository.StatusSnapshot row = current.get(change.getRoomId());
+            if (row == null) {
+                results.add(new RoomStatusChangeResultDTO(change.getRoomId(), Outcome.NOT_FOUND, null, null));
+                continue;
+            }
+            RoomStatus status = RoomStatus.valueOf(row.getStatus());
+            List<RoomStatus> expected = change.getExpectedStatuses();
+            if (expected != null && !expected.isEmpty() && !expected.contains(status)) {
+                results.add(new RoomStatusChangeResultDTO(row.getId(), Outcome.CONFLICT, status, row.getVersion()));
+            } else if (status == change.getStatus()) {
+                results.add(new RoomStatusChangeResultDTO(row.getId(), Outcome.UNCHANGED, status, row.getVersion()));
+            } else {
+                toApply.computeIfAbsent(change.getStatus(), target -> new ArrayList<>()).add(row.getId());
+                statusCounters.changed(status, change.getStatus());
+                results.add(new RoomStatusChangeResultDTO(row.getId(), Outcome.APPLIED, change.getStatus(),
+                    row.getVersion() + 1));
+            }
         }
-        roomRepository.deleteById(id);
+        
+        LocalDateTime now = LocalDateTime.now();
+        toApply.forEach((target, ids) -> roomRepository.updateStatuses(ids, target, now));
+        
+        List<RoomChangedEvent> events = results.stream()
+            .filter(result -> result.getOutcome() == Outcome.APPLIED)
+            .map(result -> new RoomChangedEvent(result.getRoomId(), "STATUS_CHANGED", result.getVersion(),
+                Map.of("status", result.getStatus()), now))
+            .toList();
+        if (!events.isEmpty()) {
+            List<Long> changedIds = events.stream().map(RoomChangedEvent::getRoomId).toList();
+            roomEventPublisher.publishRoomsChanged(events);
+            inventoryService.capacityChanged();
+            availabilityService.roomsChanged(changedIds);
+            catalogService.refreshAfterCommit();
+            facetService.roomsChanged(changedIds);
+        }
+        
+        Map<Outcome, Integer> counts = new EnumMap<>(Outcome.class);
+        results.forEach(result -> counts.merge(result.getOutcome(), 1, Integer::sum));
+        meterRegistry.counter("room.status.transitions", "result", "applied")
+            .increment(counts.getOrDefault(Outcome.APPLIED, 0));
+        meterRegistry.counter("room.status.transitions", "result", "conflict")
+            .increment(counts.getOrDefault(Outcome.CONFLICT, 0));
+        return new BulkStatusUpdateResultDTO(
+            counts.getOrDefault(Outcome.APPLIED, 0),
+            counts.getOrDefault(Outcome.UNCHANGED, 0),
+            counts.getOrDefault(Outcome.CONFLICT, 0),
+            counts.getOrDefault(Outcome.NOT_FOUND, 0),
+            results);
+    }
+    
+    public void deleteRoom(Long id) {
+        Room room = roomRepository.findById(id)
+            .orElseThrow(() -> new RoomNotFoundException("Room not found with id: " + id));
+        roomRepository.delete(room);
+        roomEventPublisher.publishRoomChanged(id, "DELETED", room.getVersion(), Map.of());
+        inventoryService.capacityChanged();
+        availabilityService.roomChanged(id);
+        catalogService.refreshAfterCommit();
+        facetService.roomChanged(id);
+        statusCounters.changed(room.getStatus(), null);
     }
     
     private RoomResponseDTO convertToDTO(Room room) {
@@ -134,20 +286,49 @@ public class RoomService {
             room.getDescription(),
             room.getImageUrl(),
             room.getCreatedAt(),
-            room.getUpdatedAt()
+            room.getUpdatedAt(),
+            room.getVersion()
         );
     }
 
-   public Long countAll() {
-    return roomRepository.count();
-}
-
-public Long countAvailable() {
-    return roomRepository.countByStatus(RoomStatus.AVAILABLE);
-}
-
-public Long countByStatus(String statusStr) {
-    RoomStatus status = RoomStatus.valueOf(statusStr);
-    return roomRepository.countByStatus(status);
-}
+    // Comptages servis par les compteurs en mémoire, la base en repli tant qu'ils ne sont pas chargés :
+    // hors transaction (NOT_SUPPORTED), le cas nominal ne prend aucune connexion
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Long countAll() {
+        return statusCounters.counts()
+            .map(counts -> counts.values().stream().mapToLong(Long::longValue).sum())
+            .orElseGet(roomRepository::count);
+    }
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Long countAvailable() {
+        return countByStatus(RoomStatus.AVAILABLE);
+    }
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Long countByStatus(String statusStr) {
+        return countByStatus(RoomStatus.valueOf(statusStr));
+    }
+    
+    private Long countByStatus(RoomStatus status) {
+        return statusCounters.counts()
+            .map(counts -> counts.get(status))
+            .orElseGet(() -> roomRepository.countByStatus(status));
+    }
+    
+    /**
+     * Nombre de chambres par statut (tous les statuts, 0 inclus) et total
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public RoomStatsDTO getStats() {
+        Map<RoomStatus, Long> counts = statusCounters.counts().orElseGet(statusCounters::countInDatabase);
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        long total = 0;
+        for (RoomStatus status : RoomStatus.values()) {
+            byStatus.put(status.name(), counts.get(status));
+            total += counts.get(status);
+        }
+        return new RoomStatsDTO(total, byStatus);
+    }
 }
\ No newline at end of file
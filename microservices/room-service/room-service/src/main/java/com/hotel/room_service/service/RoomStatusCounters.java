@@ -0,0 +1,41 @@
+package com.hotel.room_service.service;
+
+import com.hotel.common.status.StatusCounters;
+import com.hotel.room_service.model.RoomStatus;
+import com.hotel.room_service.repository.RoomRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+/**
+ * Nombre de chambres par statut tenu en mémoire (métriques room.status.counter.*) :
+ * les endpoints de comptage répondent sans requête SQL. Recompté par countGroupedByStatus
+ * au démarrage puis toutes les room.status-counters.reconcile-interval-ms.
+ */
+@Component
+public class RoomStatusCounters extends StatusCounters<RoomStatus> {
+
+    public RoomStatusCounters(RoomRepository roomRepository, MeterRegistry meterRegistry) {
+        super(RoomStatus.class, "room", () -> roomRepository.countGroupedByStatus().stream()
+            .collect(Collectors.toMap(RoomRepository.StatusCount::getStatus, RoomRepository.StatusCount::getCount)),
+            meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    @Override
+    @Scheduled(
+        initialDelayString = "${room.status-counters.reconcile-interval-ms:60000}",
+        fixedDelayString = "${room.status-counters.reconcile-interval-ms:60000}"
+    )
+    public void reconcile() {
+        super.reconcile();
+    }
+}
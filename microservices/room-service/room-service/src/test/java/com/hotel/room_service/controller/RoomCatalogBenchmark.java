@@ -0,0 +1,88 @@
+package com.hotel.room_service.controller;
+
+import com.hotel.room_service.dto.RoomResponseDTO;
+import com.hotel.room_service.model.RoomStatus;
+import com.hotel.room_service.model.RoomType;
+import com.hotel.room_service.service.RoomAvailabilityService;
+import com.hotel.room_service.service.RoomCatalog;
+import com.hotel.room_service.service.RoomCatalogService;
+import com.hotel.room_service.service.RoomFacetService;
+import com.hotel.room_service.service.RoomService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Requêtes par seconde sur GET /api/rooms (JMH, Throughput) : réponse complète sérialisée
+ * contre requête conditionnelle If-None-Match (304 sans corps). 2 000 chambres, pages de 500.
+ * Lancer la méthode main avec le classpath de test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoomCatalogBenchmark {
+
+    private static final int ROOMS = 2_000;
+    private static final RoomType[] TYPES = RoomType.values();
+
+    private MockMvc mockMvc;
+    private String etag;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime created = LocalDateTime.of(2026, 1, 1, 0, 0);
+        List<RoomResponseDTO> rooms = new ArrayList<>();
+        for (long id = 1; id <= ROOMS; id++) {
+            rooms.add(new RoomResponseDTO(id, "R" + id, TYPES[(int) (id % TYPES.length)],
+                BigDecimal.valueOf(60 + random.nextInt(300)), RoomStatus.AVAILABLE, (int) (id / 50), 2,
+                "Chambre " + id, null, created.plusMinutes(id), created.plusMinutes(id), 0L));
+        }
+        RoomCatalog catalog = RoomCatalog.of(rooms);
+        etag = catalog.etag();
+
+        RoomCatalogService catalogService = mock(RoomCatalogService.class);
+        when(catalogService.current()).thenReturn(catalog);
+        mockMvc = MockMvcBuilders.standaloneSetup(new RoomController(
+            mock(RoomService.class), mock(RoomAvailabilityService.class), catalogService,
+            mock(RoomFacetService.class))).build();
+    }
+
+    @Benchmark
+    public int fullResponse() throws Exception {
+        return mockMvc.perform(get("/api/rooms").param("size", "500"))
+            .andReturn().getResponse().getContentLength();
+    }
+
+    @Benchmark
+    public int conditionalNotModified() throws Exception {
+        return mockMvc.perform(get("/api/rooms").param("size", "500").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andReturn().getResponse().getStatus();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(RoomCatalogBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
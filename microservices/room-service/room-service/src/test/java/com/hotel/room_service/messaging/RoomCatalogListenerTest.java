@@ -0,0 +1,52 @@
+package com.hotel.room_service.messaging;
+
+import com.hotel.room_service.dto.RoomChangedEvent;
+import com.hotel.room_service.service.RoomCatalogService;
+import com.hotel.room_service.service.RoomFacetService;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class RoomCatalogListenerTest {
+
+    private final RoomCatalogService catalogService = mock(RoomCatalogService.class);
+    private final RoomFacetService facetService = mock(RoomFacetService.class);
+    private final RoomCatalogListener listener = new RoomCatalogListener(catalogService, facetService,
+        mock(RabbitListenerEndpointRegistry.class));
+
+    private static RoomChangedEvent event(long roomId, long version) {
+        return new RoomChangedEvent(roomId, "STATUS_CHANGED", version, Map.of("status", "MAINTENANCE"),
+            LocalDateTime.now());
+    }
+
+    @Test
+    void burstOfNotificationsRebuildsCatalogOnce() {
+        List<RoomChangedEvent> events = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            events.add(event(id, 2));
+        }
+        events.add(event(1, 3));
+
+        listener.handleRoomsChanged(events);
+
+        verify(catalogService, times(1)).refresh();
+        verify(facetService, times(1)).roomsChanged(argThat(ids -> ids.size() == 500 && ids.contains(1L)));
+    }
+
+    @Test
+    void facetIndexReceivesEachRoomOnce() {
+        listener.handleRoomsChanged(List.of(event(7, 1), event(7, 2), event(9, 1)));
+
+        verify(facetService).roomsChanged(Set.of(7L, 9L));
+    }
+}
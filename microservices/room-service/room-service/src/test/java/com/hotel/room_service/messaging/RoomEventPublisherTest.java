@@ -0,0 +1,48 @@
+package com.hotel.room_service.messaging;
+
+import com.hotel.room_service.model.Room;
+import com.hotel.room_service.model.RoomStatus;
+import com.hotel.room_service.model.RoomType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomEventPublisherTest {
+
+    private static Room room() {
+        Room room = new Room();
+        room.setId(3L);
+        room.setRoomNumber("101");
+        room.setRoomType(RoomType.STANDARD);
+        room.setPricePerNight(new BigDecimal("90.00"));
+        room.setStatus(RoomStatus.AVAILABLE);
+        room.setFloor(1);
+        room.setCapacity(2);
+        return room;
+    }
+
+    @Test
+    void changesContainOnlyModifiedFieldsWithNewValues() {
+        Room room = room();
+        Map<String, Object> before = RoomEventPublisher.fields(room);
+
+        room.setPricePerNight(new BigDecimal("95.00"));
+        room.setStatus(RoomStatus.MAINTENANCE);
+        room.setDescription("Vue sur cour");
+
+        assertThat(RoomEventPublisher.changes(before, room)).containsExactly(
+            Map.entry("pricePerNight", new BigDecimal("95.00")),
+            Map.entry("status", RoomStatus.MAINTENANCE),
+            Map.entry("description", "Vue sur cour"));
+    }
+
+    @Test
+    void unchangedRoomHasNoChanges() {
+        Room room = room();
+
+        assertThat(RoomEventPublisher.changes(RoomEventPublisher.fields(room), room)).isEmpty();
+    }
+}
@@ -0,0 +1,39 @@
+package com.hotel.room_service.messaging;
+
+import com.hotel.room_service.dto.RoomChangedEvent;
+import com.hotel.room_service.model.OutboxEvent;
+import com.hotel.room_service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Conversion des lignes de l'outbox ; l'envoi ordonné est couvert dans hotel-common (OutboxRelayTest)
+ */
+class RoomOutboxRelayTest {
+
+    private final RoomOutboxRelay relay = new RoomOutboxRelay(mock(OutboxEventRepository.class),
+        mock(RabbitTemplate.class), new SimpleMeterRegistry(), "room.exchange", 100, 1000, 1000, 1000, 60000, 20);
+
+    @Test
+    void storedJsonIsSentUnchangedAsRoomChangedEvent() {
+        String payload = "{\"roomId\":10,\"changes\":{\"price\":120.50}}";
+        LocalDateTime created = LocalDateTime.now();
+
+        Message message = relay.toMessage(new OutboxEvent(1L, 10L, "room.changed", payload, 0, created, created, null));
+
+        assertThat(new String(message.getBody(), StandardCharsets.UTF_8)).isEqualTo(payload);
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo("application/json");
+        assertThat(message.getMessageProperties().getDeliveryMode()).isEqualTo(MessageDeliveryMode.PERSISTENT);
+        assertThat(message.getMessageProperties().getHeaders())
+            .containsEntry("__TypeId__", RoomChangedEvent.class.getName());
+    }
+}
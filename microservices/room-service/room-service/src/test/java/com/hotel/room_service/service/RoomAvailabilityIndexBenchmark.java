@@ -0,0 +1,76 @@
+package com.hotel.room_service.service;
+
+import com.hotel.room_service.model.RoomType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence de recherche de disponibilité (JMH, percentiles en SampleTime) : 5 000 chambres
+ * et une année de réservations. Lancer la méthode main avec le classpath de test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoomAvailabilityIndexBenchmark {
+    
+    private static final int ROOMS = 5_000;
+    private static final int HORIZON = 400;
+    private static final RoomType[] TYPES = RoomType.values();
+    
+    private final LocalDate origin = LocalDate.now().minusDays(1);
+    private RoomAvailabilityIndex index;
+    
+    @Setup
+    public void setUp() {
+        index = new RoomAvailabilityIndex(origin, HORIZON);
+        SplittableRandom random = new SplittableRandom(42);
+        long bookingId = 1;
+        for (long roomId = 1; roomId <= ROOMS; roomId++) {
+            index.upsertRoom(new RoomAvailabilityIndex.RoomEntry(roomId, "R" + roomId, TYPES[(int) (roomId % TYPES.length)],
+                BigDecimal.valueOf(60 + random.nextInt(300)), 1 + random.nextInt(4), random.nextInt(50) != 0));
+            // Environ 70 % d'occupation sur un an, séjours de 1 à 7 nuits
+            int day = random.nextInt(3);
+            while (day < 365) {
+                int nights = 1 + random.nextInt(7);
+                index.occupy(bookingId++, roomId, origin.plusDays(day), origin.plusDays(day + nights));
+                day += nights + random.nextInt(4);
+            }
+        }
+    }
+    
+    @Benchmark
+    public int searchThreeNights(ThreadState state) {
+        LocalDate checkIn = origin.plusDays(1 + state.random.nextInt(300));
+        return index.search(checkIn, checkIn.plusDays(3), 2, null, null, null).size();
+    }
+    
+    @Benchmark
+    public int searchFortnightFiltered(ThreadState state) {
+        LocalDate checkIn = origin.plusDays(1 + state.random.nextInt(300));
+        return index.search(checkIn, checkIn.plusDays(14), 2, RoomType.DELUXE,
+            BigDecimal.valueOf(80), BigDecimal.valueOf(250)).size();
+    }
+    
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SplittableRandom random = new SplittableRandom();
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(RoomAvailabilityIndexBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,97 @@
+package com.hotel.room_service.service;
+
+import com.hotel.room_service.model.RoomType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoomAvailabilityIndexTest {
+
+    private static final LocalDate ORIGIN = LocalDate.of(2026, 5, 1);
+
+    private static RoomAvailabilityIndex.RoomEntry room(long id, RoomType type, String price, int capacity) {
+        return new RoomAvailabilityIndex.RoomEntry(id, "R" + id, type, new BigDecimal(price), capacity, true);
+    }
+
+    private static List<Long> ids(List<RoomAvailabilityIndex.RoomEntry> rooms) {
+        return rooms.stream().map(RoomAvailabilityIndex.RoomEntry::id).sorted().toList();
+    }
+
+    @Test
+    void checkOutNightIsFreeForNextArrival() {
+        RoomAvailabilityIndex index = new RoomAvailabilityIndex(ORIGIN, 365);
+        index.upsertRoom(room(1, RoomType.STANDARD, "100", 2));
+        index.occupy(10L, 1L, ORIGIN.plusDays(2), ORIGIN.plusDays(5));
+
+        assertThat(ids(index.search(ORIGIN, ORIGIN.plusDays(2), 1, null, null, null))).containsExactly(1L);
+        assertThat(ids(index.search(ORIGIN.plusDays(4), ORIGIN.plusDays(6), 1, null, null, null))).isEmpty();
+        assertThat(ids(index.search(ORIGIN.plusDays(5), ORIGIN.plusDays(7), 1, null, null, null))).containsExactly(1L);
+    }
+
+    @Test
+    void staysAcrossWordBoundariesAreDetected() {
+        RoomAvailabilityIndex index = new RoomAvailabilityIndex(ORIGIN, 365);
+        index.upsertRoom(room(1, RoomType.SUITE, "300", 4));
+        // Nuits 63 et 64 : à cheval sur deux mots du bitmap
+        index.occupy(10L, 1L, ORIGIN.plusDays(63), ORIGIN.plusDays(65));
+
+        assertThat(index.search(ORIGIN, ORIGIN.plusDays(63), 1, null, null, null)).hasSize(1);
+        assertThat(index.search(ORIGIN.plusDays(64), ORIGIN.plusDays(200), 1, null, null, null)).isEmpty();
+        assertThat(index.search(ORIGIN.plusDays(65), ORIGIN.plusDays(200), 1, null, null, null)).hasSize(1);
+    }
+
+    @Test
+    void vacateKeepsOverlappingStaysOfOtherBookings() {
+        RoomAvailabilityIndex index = new RoomAvailabilityIndex(ORIGIN, 365);
+        index.upsertRoom(room(1, RoomType.STANDARD, "100", 2));
+        // Deux séjours qui se chevauchent (événements reçus dans le désordre)
+        index.occupy(10L, 1L, ORIGIN.plusDays(2), ORIGIN.plusDays(6));
+        index.occupy(11L, 1L, ORIGIN.plusDays(4), ORIGIN.plusDays(8));
+
+        index.vacate(10L, 1L);
+
+        assertThat(index.search(ORIGIN.plusDays(2), ORIGIN.plusDays(4), 1, null, null, null)).hasSize(1);
+        assertThat(index.search(ORIGIN.plusDays(4), ORIGIN.plusDays(5), 1, null, null, null)).isEmpty();
+
+        // Idempotence : rejouer l'événement ne change rien
+        index.vacate(10L, 1L);
+        index.occupy(11L, 1L, ORIGIN.plusDays(4), ORIGIN.plusDays(8));
+        index.vacate(11L, 1L);
+        assertThat(index.search(ORIGIN, ORIGIN.plusDays(10), 1, null, null, null)).hasSize(1);
+    }
+
+    @Test
+    void filtersOnTypeCapacityPriceAndMaintenance() {
+        RoomAvailabilityIndex index = new RoomAvailabilityIndex(ORIGIN, 365);
+        index.upsertRoom(room(1, RoomType.DELUXE, "60", 1));
+        index.upsertRoom(room(2, RoomType.STANDARD, "110", 2));
+        index.upsertRoom(room(3, RoomType.STANDARD, "150", 3));
+        index.upsertRoom(new RoomAvailabilityIndex.RoomEntry(4L, "R4", RoomType.STANDARD, new BigDecimal("90"), 2, false));
+
+        LocalDate in = ORIGIN.plusDays(1);
+        LocalDate out = ORIGIN.plusDays(3);
+        assertThat(ids(index.search(in, out, 2, null, null, null))).containsExactly(2L, 3L);
+        assertThat(ids(index.search(in, out, 1, RoomType.DELUXE, null, null))).containsExactly(1L);
+        assertThat(ids(index.search(in, out, 1, null, new BigDecimal("100"), new BigDecimal("120")))).containsExactly(2L);
+
+        index.removeRoom(2L);
+        assertThat(ids(index.search(in, out, 2, null, null, null))).containsExactly(3L);
+    }
+
+    @Test
+    void rejectsDatesOutsideHorizon() {
+        RoomAvailabilityIndex index = new RoomAvailabilityIndex(ORIGIN, 30);
+
+        assertThatThrownBy(() -> index.search(ORIGIN.minusDays(1), ORIGIN.plusDays(1), 1, null, null, null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.search(ORIGIN.plusDays(20), ORIGIN.plusDays(31), 1, null, null, null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.search(ORIGIN.plusDays(3), ORIGIN.plusDays(3), 1, null, null, null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,103 @@
+package com.hotel.room_service.service;
+
+import com.hotel.room_service.client.BookingServiceClient;
+import com.hotel.room_service.dto.BookingEventDTO;
+import com.hotel.room_service.dto.RoomOccupancyDTO;
+import com.hotel.room_service.model.Room;
+import com.hotel.room_service.model.RoomStatus;
+import com.hotel.room_service.model.RoomType;
+import com.hotel.room_service.repository.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.listener.AsyncConsumerStartedEvent;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoomAvailabilityServiceTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(5);
+    private static final LocalDate CHECK_OUT = CHECK_IN.plusDays(2);
+
+    private RoomRepository roomRepository;
+    private BookingServiceClient bookingServiceClient;
+    private RabbitListenerEndpointRegistry listenerRegistry;
+    private RoomAvailabilityService service;
+
+    @BeforeEach
+    void setUp() {
+        roomRepository = mock(RoomRepository.class);
+        bookingServiceClient = mock(BookingServiceClient.class);
+        listenerRegistry = mock(RabbitListenerEndpointRegistry.class);
+        service = new RoomAvailabilityService(roomRepository, bookingServiceClient, listenerRegistry);
+        ReflectionTestUtils.setField(service, "horizonDays", 60);
+
+        Room room = new Room();
+        room.setId(1L);
+        room.setRoomNumber("101");
+        room.setRoomType(RoomType.STANDARD);
+        room.setPricePerNight(new BigDecimal("90.00"));
+        room.setStatus(RoomStatus.AVAILABLE);
+        room.setCapacity(2);
+        when(roomRepository.findAll()).thenReturn(List.of(room));
+    }
+
+    private static BookingEventDTO event(String status) {
+        return new BookingEventDTO(7L, 1L, CHECK_IN, CHECK_OUT, status, LocalDateTime.now());
+    }
+
+    private boolean roomFree() {
+        return !service.search(CHECK_IN, CHECK_OUT, 1, null, null, null).isEmpty();
+    }
+
+    @Test
+    void eventReceivedDuringRebuildIsReplayedOnTheNewIndex() {
+        // Instantané pris avant l'annulation, reçue pendant le chargement
+        when(bookingServiceClient.getOccupancy(any())).thenAnswer(inv -> {
+            service.applyBookingEvent(event("CANCELLED"));
+            return List.of(new RoomOccupancyDTO(7L, 1L, CHECK_IN, CHECK_OUT, "CONFIRMED"));
+        });
+
+        service.rebuild();
+
+        assertThat(roomFree()).isTrue();
+    }
+
+    @Test
+    void eventsAfterRebuildApplyToTheIndex() {
+        when(bookingServiceClient.getOccupancy(any())).thenReturn(List.of());
+        service.rebuild();
+
+        service.applyBookingEvent(event("CONFIRMED"));
+        assertThat(roomFree()).isFalse();
+
+        service.applyBookingEvent(event("CANCELLED"));
+        assertThat(roomFree()).isTrue();
+    }
+
+    @Test
+    void onlyTheBookingEventsConsumerTriggersARebuild() {
+        MessageListenerContainer bookingEvents = mock(MessageListenerContainer.class);
+        when(listenerRegistry.getListenerContainer(RoomAvailabilityService.LISTENER_ID)).thenReturn(bookingEvents);
+        when(bookingServiceClient.getOccupancy(any())).thenReturn(List.of());
+
+        service.onConsumerStarted(new AsyncConsumerStartedEvent(mock(MessageListenerContainer.class), new Object()));
+        verify(bookingServiceClient, never()).getOccupancy(any());
+
+        service.onConsumerStarted(new AsyncConsumerStartedEvent(bookingEvents, new Object()));
+        verify(bookingServiceClient, times(1)).getOccupancy(any());
+    }
+}
@@ -0,0 +1,77 @@
+package com.hotel.room_service.service;
+
+import com.hotel.common.dto.CursorPage;
+import com.hotel.room_service.dto.RoomResponseDTO;
+import com.hotel.room_service.model.RoomStatus;
+import com.hotel.room_service.model.RoomType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomCatalogTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private static RoomResponseDTO room(long id, RoomType type, String price, RoomStatus status, long version) {
+        return new RoomResponseDTO(id, "R" + id, type, new BigDecimal(price), status, 1, 2, null, null,
+            CREATED.plusMinutes(id / 2), CREATED, version);
+    }
+
+    private static List<Long> ids(CursorPage<RoomResponseDTO> page) {
+        return page.items().stream().map(RoomResponseDTO::getId).toList();
+    }
+
+    @Test
+    void cursorWalksAllRoomsNewestFirstWithoutGapsOrDuplicates() {
+        List<RoomResponseDTO> rooms = new ArrayList<>();
+        for (long id = 1; id <= 7; id++) {
+            rooms.add(room(id, RoomType.STANDARD, "100", RoomStatus.AVAILABLE, 0));
+        }
+        RoomCatalog catalog = RoomCatalog.of(rooms);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<RoomResponseDTO> page = catalog.all(cursor, 3);
+            seen.addAll(ids(page));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly(7L, 6L, 5L, 4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    void viewsFilterByTypeStatusAndPrice() {
+        RoomCatalog catalog = RoomCatalog.of(List.of(
+            room(1, RoomType.STANDARD, "80", RoomStatus.AVAILABLE, 0),
+            room(2, RoomType.DELUXE, "150", RoomStatus.AVAILABLE, 0),
+            room(3, RoomType.DELUXE, "180", RoomStatus.MAINTENANCE, 0),
+            room(4, RoomType.SUITE, "300", RoomStatus.AVAILABLE, 0)));
+
+        assertThat(ids(catalog.byType(RoomType.DELUXE, null, null))).containsExactly(3L, 2L);
+        assertThat(ids(catalog.availableByType(RoomType.DELUXE, null, null))).containsExactly(2L);
+        assertThat(ids(catalog.byStatus(RoomStatus.MAINTENANCE, null, null))).containsExactly(3L);
+        assertThat(ids(catalog.byPriceRange(new BigDecimal("150"), new BigDecimal("180"), null, null)))
+            .containsExactly(3L, 2L);
+        assertThat(ids(catalog.byPriceRange(new BigDecimal("400"), new BigDecimal("500"), null, null))).isEmpty();
+    }
+
+    @Test
+    void etagDependsOnlyOnRoomIdsAndVersions() {
+        List<RoomResponseDTO> rooms = List.of(
+            room(1, RoomType.STANDARD, "80", RoomStatus.AVAILABLE, 0),
+            room(2, RoomType.SUITE, "300", RoomStatus.AVAILABLE, 3));
+
+        RoomCatalog catalog = RoomCatalog.of(rooms);
+
+        assertThat(RoomCatalog.of(List.of(rooms.get(1), rooms.get(0))).etag()).isEqualTo(catalog.etag());
+        assertThat(RoomCatalog.of(List.of(rooms.get(0),
+            room(2, RoomType.SUITE, "300", RoomStatus.OCCUPIED, 4))).etag()).isNotEqualTo(catalog.etag());
+        assertThat(RoomCatalog.of(List.of(rooms.get(0))).etag()).isNotEqualTo(catalog.etag());
+    }
+}
@@ -0,0 +1,88 @@
+package com.hotel.room_service.service;
+
+import com.hotel.room_service.dto.RoomResponseDTO;
+import com.hotel.room_service.model.RoomStatus;
+import com.hotel.room_service.model.RoomType;
+import com.hotel.room_service.service.RoomFacetIndex.Facet;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class RoomFacetIndexTest {
+
+    private static RoomResponseDTO room(long id, RoomType type, RoomStatus status, int floor, String price, long version) {
+        return new RoomResponseDTO(id, "R" + id, type, new BigDecimal(price), status, floor, 2, null, null,
+            null, null, version);
+    }
+
+    private static List<Long> ids(RoomFacetIndex.Result result) {
+        return result.rooms().stream().map(RoomResponseDTO::getId).toList();
+    }
+
+    private static RoomFacetIndex sample() {
+        RoomFacetIndex index = new RoomFacetIndex(new BigDecimal("50"));
+        index.upsert(room(1, RoomType.STANDARD, RoomStatus.AVAILABLE, 1, "80", 0));
+        index.upsert(room(2, RoomType.DELUXE, RoomStatus.AVAILABLE, 2, "150", 0));
+        index.upsert(room(3, RoomType.DELUXE, RoomStatus.OCCUPIED, 2, "180", 0));
+        index.upsert(room(4, RoomType.SUITE, RoomStatus.AVAILABLE, 3, "300", 0));
+        return index;
+    }
+
+    @Test
+    void valuesOfOneFacetAreOredAndFacetsAreAnded() {
+        RoomFacetIndex index = sample();
+
+        RoomFacetIndex.Result result = index.search(Map.of(
+            Facet.TYPE, Set.of("DELUXE", "SUITE"),
+            Facet.STATUS, Set.of("AVAILABLE")), 50);
+
+        assertThat(ids(result)).containsExactly(2L, 4L);
+        assertThat(result.total()).isEqualTo(2);
+        assertThat(ids(index.search(Map.of(Facet.PRICE_BAND, Set.of("150-200")), 50))).containsExactly(2L, 3L);
+        assertThat(ids(index.search(Map.of(), 1))).containsExactly(1L);
+    }
+
+    @Test
+    void facetCountsIgnoreTheirOwnFilter() {
+        RoomFacetIndex.Result result = sample().search(Map.of(
+            Facet.TYPE, Set.of("DELUXE"),
+            Facet.STATUS, Set.of("AVAILABLE")), 50);
+
+        // Types comptés parmi les chambres disponibles, statuts parmi les DELUXE
+        assertThat(result.counts().get(Facet.TYPE))
+            .containsExactly(entry("DELUXE", 1), entry("STANDARD", 1), entry("SUITE", 1));
+        assertThat(result.counts().get(Facet.STATUS))
+            .containsExactly(entry("AVAILABLE", 1), entry("OCCUPIED", 1));
+        assertThat(result.counts().get(Facet.FLOOR))
+            .containsExactly(entry("1", 0), entry("2", 1), entry("3", 0));
+    }
+
+    @Test
+    void updatesMoveOnlyTheChangedRoomAndIgnoreStaleVersions() {
+        RoomFacetIndex index = sample();
+
+        index.upsert(room(3, RoomType.DELUXE, RoomStatus.AVAILABLE, 2, "180", 1));
+        index.upsert(room(3, RoomType.DELUXE, RoomStatus.OCCUPIED, 2, "180", 0));
+
+        assertThat(ids(index.search(Map.of(Facet.STATUS, Set.of("AVAILABLE")), 50))).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(index.search(Map.of(), 50).counts().get(Facet.STATUS)).containsOnlyKeys("AVAILABLE");
+    }
+
+    @Test
+    void removedSlotsAreReused() {
+        RoomFacetIndex index = sample();
+
+        index.remove(2L);
+        index.upsert(room(5, RoomType.STANDARD, RoomStatus.MAINTENANCE, 1, "70", 0));
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(ids(index.search(Map.of(Facet.TYPE, Set.of("DELUXE")), 50))).containsExactly(3L);
+        assertThat(ids(index.search(Map.of(Facet.FLOOR, Set.of("1")), 50))).containsExactly(1L, 5L);
+    }
+}
@@ -0,0 +1,84 @@
+package com.hotel.room_service.service;
+
+import com.hotel.room_service.client.BookingServiceClient;
+import com.hotel.room_service.dto.BookingStatusDTO;
+import com.hotel.room_service.dto.RoomOccupancyDTO;
+import com.hotel.room_service.model.Room;
+import com.hotel.room_service.model.RoomType;
+import com.hotel.room_service.repository.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoomInventoryBackfillTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(10);
+
+    private BookingServiceClient bookingServiceClient;
+    private RoomInventoryService inventoryService;
+    private RoomInventoryBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        bookingServiceClient = mock(BookingServiceClient.class);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        inventoryService = mock(RoomInventoryService.class);
+        backfill = new RoomInventoryBackfill(bookingServiceClient, roomRepository, inventoryService);
+
+        Room room = new Room();
+        room.setId(7L);
+        room.setRoomType(RoomType.SUITE);
+        when(roomRepository.findAllById(any())).thenReturn(List.of(room));
+    }
+
+    private static RoomOccupancyDTO stay(long bookingId) {
+        return new RoomOccupancyDTO(bookingId, 7L, CHECK_IN, CHECK_IN.plusDays(2), "CONFIRMED");
+    }
+
+    @Test
+    void bookingCancelledBeforeItsHoldCommittedIsReleased() {
+        // 1 est annulée après la lecture des séjours, 2 terminée : toutes deux sortent des séjours actifs
+        when(bookingServiceClient.getOccupancy(any()))
+            .thenReturn(List.of(stay(1), stay(2), stay(3)))
+            .thenReturn(List.of(stay(3)));
+        when(inventoryService.backfill(anyList())).thenReturn(List.of(1L, 2L, 3L));
+        when(bookingServiceClient.getBooking(1L)).thenReturn(new BookingStatusDTO(1L, "CANCELLED"));
+        when(bookingServiceClient.getBooking(2L)).thenReturn(new BookingStatusDTO(2L, "COMPLETED"));
+
+        assertThat(backfill.run()).isEqualTo(3);
+
+        verify(inventoryService).release(1L);
+        verify(inventoryService, never()).release(2L);
+        verify(inventoryService, never()).release(3L);
+        verify(bookingServiceClient, never()).getBooking(3L);
+    }
+
+    @Test
+    void failedRecheckIsRetriedOnTheNextRun() {
+        when(bookingServiceClient.getOccupancy(any()))
+            .thenReturn(List.of(stay(1)))
+            .thenThrow(new IllegalStateException("booking-service down"))
+            .thenReturn(List.of());
+        when(inventoryService.backfill(anyList())).thenReturn(List.of(1L)).thenReturn(List.of());
+        when(bookingServiceClient.getBooking(1L)).thenReturn(new BookingStatusDTO(1L, "CANCELLED"));
+
+        assertThatThrownBy(() -> backfill.run()).isInstanceOf(IllegalStateException.class);
+        verify(inventoryService, never()).release(anyLong());
+
+        // Le hold existe déjà : rien à rattraper, mais la relecture en attente est faite
+        assertThat(backfill.run()).isZero();
+        verify(inventoryService).release(1L);
+    }
+}
@@ -0,0 +1,86 @@
+package com.hotel.room_service.service;
+
+import com.hotel.room_service.model.RoomType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoomInventoryLedgerTest {
+
+    private static final LocalDate ORIGIN = LocalDate.of(2026, 5, 1);
+
+    @Test
+    void reserveIsAllOrNothingAcrossNights() {
+        RoomInventoryLedger ledger = new RoomInventoryLedger(ORIGIN, 365);
+        ledger.setCapacity(RoomType.SUITE, 1);
+
+        assertThat(ledger.tryReserve(RoomType.SUITE, ORIGIN.plusDays(2), ORIGIN.plusDays(4), 1)).isTrue();
+        // Chevauche la nuit du 3 : rien ne doit être décompté
+        assertThat(ledger.tryReserve(RoomType.SUITE, ORIGIN, ORIGIN.plusDays(3), 1)).isFalse();
+
+        RoomInventoryLedger.Window window = ledger.window(RoomType.SUITE, ORIGIN, ORIGIN.plusDays(5));
+        assertThat(window.sold()).containsExactly(0, 0, 1, 1, 0);
+        assertThat(window.minAvailable()).isZero();
+
+        ledger.release(RoomType.SUITE, ORIGIN.plusDays(2), ORIGIN.plusDays(4), 1);
+        assertThat(ledger.window(RoomType.SUITE, ORIGIN, ORIGIN.plusDays(5)).minAvailable()).isEqualTo(1);
+    }
+
+    @Test
+    void rebaseDropsPastNightsAndKeepsFutureOnes() {
+        RoomInventoryLedger ledger = new RoomInventoryLedger(ORIGIN, 30);
+        ledger.setCapacity(RoomType.STANDARD, 5);
+        ledger.load(RoomType.STANDARD, ORIGIN, 2);
+        ledger.load(RoomType.STANDARD, ORIGIN.plusDays(10), 3);
+
+        ledger.rebase(ORIGIN.plusDays(5));
+
+        assertThat(ledger.window(RoomType.STANDARD, ORIGIN.plusDays(10), ORIGIN.plusDays(11)).sold())
+            .containsExactly(3);
+        assertThatThrownBy(() -> ledger.window(RoomType.STANDARD, ORIGIN, ORIGIN.plusDays(1)))
+            .isInstanceOf(IllegalArgumentException.class);
+        // Une libération qui déborde dans le passé ne touche que les nuits restantes
+        ledger.release(RoomType.STANDARD, ORIGIN, ORIGIN.plusDays(11), 1);
+        assertThat(ledger.window(RoomType.STANDARD, ORIGIN.plusDays(10), ORIGIN.plusDays(11)).sold())
+            .containsExactly(2);
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        RoomInventoryLedger ledger = new RoomInventoryLedger(ORIGIN, 365);
+        ledger.setCapacity(RoomType.DELUXE, 20);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        AtomicInteger accepted = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                int offset = i % 5;
+                futures.add(executor.submit(() -> {
+                    if (ledger.tryReserve(RoomType.DELUXE, ORIGIN.plusDays(offset), ORIGIN.plusDays(offset + 3), 1)) {
+                        accepted.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int[] sold = ledger.window(RoomType.DELUXE, ORIGIN, ORIGIN.plusDays(8)).sold();
+        int nightsSold = 0;
+        for (int night : sold) {
+            assertThat(night).isLessThanOrEqualTo(20);
+            nightsSold += night;
+        }
+        assertThat(nightsSold).isEqualTo(accepted.get() * 3);
+    }
+}
@@ -0,0 +1,164 @@
+package com.hotel.room_service.service;
+
+import com.hotel.room_service.dto.InventoryHoldRequestDTO;
+import com.hotel.room_service.dto.NightInventoryDTO;
+import com.hotel.room_service.exception.InventoryUnavailableException;
+import com.hotel.room_service.model.RoomInventoryHold;
+import com.hotel.room_service.model.RoomNightInventory;
+import com.hotel.room_service.model.RoomType;
+import com.hotel.room_service.repository.RoomInventoryHoldRepository;
+import com.hotel.room_service.repository.RoomNightInventoryRepository;
+import com.hotel.room_service.repository.RoomRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoomInventoryServiceTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.now().plusDays(10);
+    private static final LocalDate CHECK_OUT = CHECK_IN.plusDays(2);
+
+    private RoomRepository roomRepository;
+    private RoomNightInventoryRepository nightRepository;
+    private RoomInventoryHoldRepository holdRepository;
+    private RoomInventoryService service;
+
+    @BeforeEach
+    void setUp() {
+        roomRepository = mock(RoomRepository.class);
+        nightRepository = mock(RoomNightInventoryRepository.class);
+        holdRepository = mock(RoomInventoryHoldRepository.class);
+        service = new RoomInventoryService(roomRepository, nightRepository, holdRepository, 365);
+        when(roomRepository.countSellableGroupedByType()).thenReturn(List.of(new RoomRepository.TypeCount() {
+            public RoomType getRoomType() { return RoomType.SUITE; }
+            public long getCount() { return 1; }
+        }));
+        service.refreshCapacities();
+        // Par défaut la base accepte chaque nuit de la période
+        when(nightRepository.addSoldWithinCapacity(anyString(), any(), any(), anyInt())).thenReturn(2);
+    }
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static InventoryHoldRequestDTO request(long bookingId) {
+        return new InventoryHoldRequestDTO(bookingId, RoomType.SUITE, CHECK_IN, CHECK_OUT, 1);
+    }
+
+    private int minAvailable() {
+        return service.availability(RoomType.SUITE, CHECK_IN, CHECK_OUT).getAvailable();
+    }
+
+    @Test
+    void reserveIsIdempotentByBookingId() {
+        when(holdRepository.findByBookingId(1L)).thenReturn(Optional.empty());
+        service.reserve(request(1));
+
+        RoomInventoryHold hold = new RoomInventoryHold();
+        hold.setBookingId(1L);
+        hold.setRoomType(RoomType.SUITE);
+        hold.setCheckInDate(CHECK_IN);
+        hold.setCheckOutDate(CHECK_OUT);
+        hold.setQuantity(1);
+        when(holdRepository.findByBookingId(1L)).thenReturn(Optional.of(hold));
+        // Retry du même bookingId alors que la dernière chambre est déjà prise par lui : pas d'erreur
+        service.reserve(request(1));
+
+        verify(holdRepository, times(1)).save(any());
+        verify(nightRepository, times(1)).addSoldWithinCapacity("SUITE", CHECK_IN, CHECK_OUT, 1);
+        assertThat(minAvailable()).isZero();
+    }
+
+    @Test
+    void rolledBackReserveGivesTheNightsBack() {
+        when(holdRepository.findByBookingId(anyLong())).thenReturn(Optional.empty());
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.reserve(request(1));
+        assertThat(minAvailable()).isZero();
+        assertThatThrownBy(() -> service.reserve(request(2))).isInstanceOf(InventoryUnavailableException.class);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertThat(minAvailable()).isEqualTo(1);
+    }
+
+    @Test
+    void databaseRejectsANightSoldByAnotherInstance() {
+        when(holdRepository.findByBookingId(anyLong())).thenReturn(Optional.empty());
+        // Le ledger local a la place, mais une autre instance a vendu la seconde nuit
+        when(nightRepository.addSoldWithinCapacity(anyString(), any(), any(), anyInt())).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThatThrownBy(() -> service.reserve(request(1))).isInstanceOf(InventoryUnavailableException.class);
+        verify(holdRepository, never()).save(any());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertThat(minAvailable()).isEqualTo(1);
+    }
+
+    @Test
+    void refreshReplacesTheLedgerWithTheDatabaseCounts() {
+        when(holdRepository.findByBookingId(anyLong())).thenReturn(Optional.empty());
+        service.reserve(request(1));
+        assertThat(minAvailable()).isZero();
+
+        // Libérée par une autre instance : seule la seconde nuit reste vendue en base
+        when(nightRepository.findByStayDateGreaterThanEqualAndSoldGreaterThan(any(), anyInt()))
+            .thenReturn(List.of(new RoomNightInventory(1L, RoomType.SUITE, CHECK_IN.plusDays(1), 1)));
+        assertThat(service.refresh()).isEqualTo(1);
+
+        assertThat(service.availability(RoomType.SUITE, CHECK_IN, CHECK_OUT).getNights())
+            .extracting(NightInventoryDTO::getAvailable)
+            .containsExactly(1, 0);
+    }
+
+    @Test
+    void backfillCountsOnlyConfirmedBookingsWithoutHold() {
+        when(holdRepository.findHeldBookingIds(anyCollection())).thenReturn(Set.of(1L));
+
+        List<Long> created = service.backfill(List.of(request(1), request(2)));
+
+        assertThat(created).containsExactly(2L);
+        verify(nightRepository, times(1)).addSold(anyString(), any(), any(), anyInt());
+        // Nuits déjà vendues : comptées même au-delà de la capacité
+        assertThat(minAvailable()).isZero();
+
+        when(holdRepository.findHeldBookingIds(anyCollection())).thenReturn(Set.of(1L, 2L));
+        assertThat(service.backfill(List.of(request(1), request(2)))).isEmpty();
+        verify(nightRepository, times(1)).addSold(anyString(), any(), any(), anyInt());
+    }
+
+    @Test
+    void emptyBackfillTouchesNothing() {
+        assertThat(service.backfill(List.of())).isEmpty();
+        verify(holdRepository, never()).findHeldBookingIds(anyCollection());
+    }
+}
@@ -0,0 +1,143 @@
+package com.hotel.room_service.service;
+
+import com.hotel.room_service.dto.BulkStatusUpdateResultDTO;
+import com.hotel.room_service.dto.RoomResponseDTO;
+import com.hotel.room_service.dto.RoomStatusChangeDTO;
+import com.hotel.room_service.dto.RoomStatusChangeResultDTO;
+import com.hotel.room_service.dto.RoomStatusChangeResultDTO.Outcome;
+import com.hotel.room_service.exception.RoomNotFoundException;
+import com.hotel.room_service.exception.RoomStateConflictException;
+import com.hotel.room_service.messaging.RoomEventPublisher;
+import com.hotel.room_service.model.Room;
+import com.hotel.room_service.model.RoomStatus;
+import com.hotel.room_service.model.RoomType;
+import com.hotel.room_service.repository.RoomRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class RoomServiceTest {
+
+    private RoomRepository roomRepository;
+    private RoomEventPublisher roomEventPublisher;
+    private RoomStatusCounters statusCounters;
+    private SimpleMeterRegistry meterRegistry;
+    private RoomService roomService;
+
+    @BeforeEach
+    void setUp() {
+        roomRepository = mock(RoomRepository.class);
+        roomEventPublisher = mock(RoomEventPublisher.class);
+        statusCounters = mock(RoomStatusCounters.class);
+        meterRegistry = new SimpleMeterRegistry();
+        roomService = new RoomService(roomRepository, roomEventPublisher, mock(RoomInventoryService.class),
+            mock(RoomAvailabilityService.class), mock(RoomCatalogService.class),
+            mock(RoomFacetService.class), statusCounters, meterRegistry);
+    }
+
+    private static Room room(RoomStatus status, long version) {
+        Room room = new Room();
+        room.setId(12L);
+        room.setRoomNumber("204");
+        room.setRoomType(RoomType.DELUXE);
+        room.setPricePerNight(BigDecimal.valueOf(150));
+        room.setStatus(status);
+        room.setVersion(version);
+        return room;
+    }
+
+    @Test
+    void appliedTransitionReturnsNewVersionAndPublishes() {
+        when(roomRepository.transitionStatus(eq(12L), eq(List.of("AVAILABLE")), eq("RESERVED"),
+            isNull(), any())).thenReturn(Optional.of("AVAILABLE"));
+        when(roomRepository.findById(12L)).thenReturn(Optional.of(room(RoomStatus.RESERVED, 5)));
+
+        RoomResponseDTO response = roomService.transitionStatus(12L, List.of(RoomStatus.AVAILABLE), RoomStatus.RESERVED, null);
+
+        assertThat(response.getStatus()).isEqualTo(RoomStatus.RESERVED);
+        assertThat(response.getVersion()).isEqualTo(5L);
+        verify(roomEventPublisher).publishRoomChanged(12L, "STATUS_CHANGED", 5L, Map.of("status", RoomStatus.RESERVED));
+        verify(statusCounters).changed(RoomStatus.AVAILABLE, RoomStatus.RESERVED);
+        assertThat(meterRegistry.counter("room.status.transitions", "result", "applied").count()).isEqualTo(1);
+    }
+
+    @Test
+    void lostRaceIsReportedAsConflictWithoutPublishing() {
+        when(roomRepository.transitionStatus(anyLong(), any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(roomRepository.findById(12L)).thenReturn(Optional.of(room(RoomStatus.MAINTENANCE, 7)));
+
+        assertThatThrownBy(() -> roomService.transitionStatus(12L, List.of(RoomStatus.AVAILABLE), RoomStatus.RESERVED, 6L))
+            .isInstanceOf(RoomStateConflictException.class)
+            .hasMessageContaining("MAINTENANCE")
+            .hasMessageContaining("version 7");
+        verifyNoInteractions(roomEventPublisher);
+        assertThat(meterRegistry.counter("room.status.transitions", "result", "conflict").count()).isEqualTo(1);
+    }
+
+    @Test
+    void emptyExpectedSetMeansAnyStatusAndUnknownRoomIsNotFound() {
+        when(roomRepository.transitionStatus(anyLong(), any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(roomRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> roomService.transitionStatus(99L, List.of(), RoomStatus.AVAILABLE, null))
+            .isInstanceOf(RoomNotFoundException.class);
+        verify(roomRepository).transitionStatus(eq(99L),
+            eq(EnumSet.allOf(RoomStatus.class).stream().map(RoomStatus::name).toList()), eq("AVAILABLE"), isNull(), any());
+    }
+
+    private static RoomRepository.StatusSnapshot snapshot(long id, RoomStatus status, long version) {
+        return new RoomRepository.StatusSnapshot() {
+            public Long getId() { return id; }
+            public String getStatus() { return status.name(); }
+            public Long getVersion() { return version; }
+        };
+    }
+
+    @Test
+    void bulkUpdateGroupsUpdatesByTargetAndReportsEachRoom() {
+        when(roomRepository.lockStatuses(any())).thenReturn(List.of(
+            snapshot(1, RoomStatus.OCCUPIED, 3),
+            snapshot(2, RoomStatus.OCCUPIED, 8),
+            snapshot(3, RoomStatus.AVAILABLE, 1),
+            snapshot(4, RoomStatus.MAINTENANCE, 2)));
+
+        BulkStatusUpdateResultDTO result = roomService.updateStatuses(List.of(
+            new RoomStatusChangeDTO(1L, RoomStatus.AVAILABLE, List.of(RoomStatus.OCCUPIED)),
+            new RoomStatusChangeDTO(2L, RoomStatus.AVAILABLE, null),
+            new RoomStatusChangeDTO(3L, RoomStatus.AVAILABLE, List.of(RoomStatus.OCCUPIED)),
+            new RoomStatusChangeDTO(4L, RoomStatus.MAINTENANCE, null),
+            new RoomStatusChangeDTO(5L, RoomStatus.AVAILABLE, null)));
+
+        assertThat(result.getResults()).extracting(RoomStatusChangeResultDTO::getOutcome).containsExactly(
+            Outcome.APPLIED, Outcome.APPLIED, Outcome.CONFLICT, Outcome.UNCHANGED, Outcome.NOT_FOUND);
+        assertThat(result.getResults().get(1).getVersion()).isEqualTo(9L);
+        assertThat(result.getApplied()).isEqualTo(2);
+        verify(roomRepository).updateStatuses(eq(List.of(1L, 2L)), eq(RoomStatus.AVAILABLE), any());
+        verify(roomRepository, times(1)).updateStatuses(any(), any(), any());
+        verify(roomEventPublisher).publishRoomsChanged(argThat(events -> events.size() == 2));
+        assertThat(meterRegistry.counter("room.status.transitions", "result", "conflict").count()).isEqualTo(1);
+    }
+
+    @Test
+    void bulkUpdateRejectsDuplicateRooms() {
+        assertThatThrownBy(() -> roomService.updateStatuses(List.of(
+            new RoomStatusChangeDTO(1L, RoomStatus.AVAILABLE, null),
+            new RoomStatusChangeDTO(1L, RoomStatus.MAINTENANCE, null))))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(roomEventPublisher);
+    }
+}